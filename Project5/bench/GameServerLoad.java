@@ -0,0 +1,201 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Load test for GameServer: holds many connections open, each with its own
+ * session, and plays rounds of NEW, REPLACE and SCORE on them, timing every
+ * request from write to response.
+ *
+ * Each client thread owns an equal share of the connections and plays them
+ * in turn, one request at a time, so every session stays open for the
+ * whole run while the number of client threads stays small. The server
+ * runs in the same JVM unless a port is given. In the same JVM every
+ * connection holds two file descriptors, so runs near the open file
+ * limit need the server in its own process, with a paytable that never
+ * runs out of points (the README lists measured runs).
+ *
+ * java -cp bin GameServerLoad &lt;connections&gt; &lt;clientThreads&gt; &lt;rounds&gt; [port]
+ *
+ * The server does not use the Vector API, so no --add-modules flag is
+ * needed even when the vector directory was compiled into bin.
+ *
+ * @author Will Greene
+ */
+public class GameServerLoad {
+
+    /** Requests in one round */
+    public static final int REQUESTS_PER_ROUND = 3;
+
+
+    /**
+     * One client connection and its session.
+     */
+    private static class Connection {
+
+        /** Socket to the server */
+        private final Socket socket;
+
+        /** Response reader */
+        private final BufferedReader in;
+
+        /** Request writer */
+        private final OutputStream out;
+
+        /** Session id */
+        private final String id;
+
+        /**
+         * Connects and opens a session.
+         *
+         * @param port server port
+         * @throws IOException if the connection fails
+         */
+        Connection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                          StandardCharsets.US_ASCII));
+            out = socket.getOutputStream();
+            id = request("OPEN").split(" ")[1];
+        }
+
+        /**
+         * Sends one request and waits for its response.
+         *
+         * @param request request line
+         * @return response line
+         * @throws IOException if the connection fails
+         */
+        String request(String request) throws IOException {
+            out.write((request + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String response = in.readLine();
+            if (response == null || !response.startsWith("OK")) {
+                throw new IOException("Bad response to " + request + ": " + response);
+            }
+            return response;
+        }
+    }
+
+
+    /**
+     * Plays rounds on a share of the connections, recording latencies.
+     *
+     * @param connections connections owned by this client
+     * @param rounds rounds per connection
+     * @param latencies array receiving each request's latency in nanoseconds
+     * @throws IOException if a connection fails
+     */
+    private static void play(Connection[] connections, int rounds, long[] latencies)
+            throws IOException {
+        int count = 0;
+
+        for (int round = 0; round < rounds; round++) {
+            for (Connection c : connections) {
+                String[] requests = {"NEW " + c.id, "REPLACE " + c.id + " " + round % 5,
+                                     "SCORE " + c.id};
+                for (String request : requests) {
+                    long start = System.nanoTime();
+                    c.request(request);
+                    latencies[count++] = System.nanoTime() - start;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Runs the load test and prints throughput and latency percentiles.
+     *
+     * @param args connections, client threads, rounds and optional server port
+     * @throws Exception if the server or a connection fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3 || args.length > 4) {
+            System.out.println("Usage: java -cp bin GameServerLoad <connections> "
+                               + "<clientThreads> <rounds> [port]");
+            return;
+        }
+
+        int total = Integer.parseInt(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        int rounds = Integer.parseInt(args[2]);
+
+        // Points never run out, so every round is a full game
+        int[] payouts = new int[HandEvaluator.CATEGORIES];
+        Arrays.fill(payouts, 1);
+        GameServer server = null;
+        int port;
+        if (args.length == 4) {
+            port = Integer.parseInt(args[3]);
+        } else {
+            server = new GameServer(0, new Paytable(payouts, 1));
+            server.start();
+            port = server.getPort();
+        }
+
+        Connection[][] shares = new Connection[threads][];
+        for (int t = 0; t < threads; t++) {
+            shares[t] = new Connection[total / threads + (t < total % threads ? 1 : 0)];
+            for (int i = 0; i < shares[t].length; i++) {
+                shares[t][i] = new Connection(port);
+            }
+        }
+        System.out.println("Opened " + total + " connections");
+
+        long[][] latencies = new long[threads][];
+        Thread[] clients = new Thread[threads];
+        Exception[] failure = new Exception[1];
+        long start = System.nanoTime();
+
+        for (int t = 0; t < threads; t++) {
+            int share = t;
+            latencies[t] = new long[shares[t].length * rounds * REQUESTS_PER_ROUND];
+            clients[t] = new Thread(() -> {
+                try {
+                    play(shares[share], rounds, latencies[share]);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            clients[t].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        long[] all = new long[0];
+        for (long[] l : latencies) {
+            int at = all.length;
+            all = Arrays.copyOf(all, at + l.length);
+            System.arraycopy(l, 0, all, at, l.length);
+        }
+        Arrays.sort(all);
+
+        System.out.printf("%d requests in %.2f s, %.0f requests/s%n", all.length, seconds,
+                          all.length / seconds);
+        System.out.printf("p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+                          all[all.length / 2] / 1e3, all[(int) (all.length * 0.99)] / 1e3,
+                          all[(int) (all.length * 0.999)] / 1e3, all[all.length - 1] / 1e3);
+
+        for (Connection[] share : shares) {
+            for (Connection c : share) {
+                c.socket.close();
+            }
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,358 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Microbenchmarks for dealing, hand evaluation and scoring.
+ *
+ * Each benchmark is warmed up and then measured over several timed
+ * iterations on the current thread. Throughput is reported in ops/sec and
+ * allocation in bytes per op and MB/sec, taken from the thread's allocated
+ * byte counter (the same counter JMH's gc profiler reads).
+ *
+ * Compile src and bench into bin, then run all benchmarks, or only those
+ * whose name matches a regex:
+ * java -cp bin PokerBenchmarks [regex]
+ *
+ * BatchEvaluator runs the scalar evaluator unless the Vector API one is
+ * compiled into bin and its module added, which prints an incubator
+ * module warning at startup:
+ * javac --add-modules jdk.incubator.vector -cp bin -d bin vector/*.java
+ * java --add-modules jdk.incubator.vector -cp bin PokerBenchmarks [regex]
+ *
+ * Results are most reliable when one benchmark runs per JVM, so that the
+ * JIT does not see the other benchmarks' call targets.
+ *
+ * @author Will Greene
+ */
+public class PokerBenchmarks {
+
+    /** Number of warmup iterations */
+    public static final int WARMUP_ITERATIONS = 5;
+
+    /** Number of measured iterations */
+    public static final int MEASURED_ITERATIONS = 5;
+
+    /** Length of each iteration in nanoseconds */
+    public static final long ITERATION_NANOS = 1_000_000_000L;
+
+    /** Number of operations between clock reads */
+    public static final int BATCH = 1024;
+
+    /** Number of prebuilt hands cycled through by the Hand benchmarks */
+    public static final int HANDS = 1024;
+
+    /** Number of deals in each batch of the Deck.deal benchmark */
+    public static final int BATCH_DEALS = 64;
+
+    /** Number of hands in each round of the multi-hand benchmark */
+    public static final int MULTI_HANDS = 100;
+
+    /** Mask used to cycle through the prebuilt hands */
+    private static final int HAND_MASK = HANDS - 1;
+
+    /** Thread bean used to read allocated bytes */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Sink for benchmark results so that the JIT cannot remove the work */
+    private static volatile int sink;
+
+
+    /**
+     * One benchmarked operation.
+     */
+    public interface Op {
+
+        /**
+         * Runs the operation once.
+         *
+         * @param i invocation number, used to cycle through inputs
+         * @return value depending on the work done
+         */
+        int run(int i);
+    }
+
+
+    /**
+     * Named benchmark.
+     */
+    private static class Benchmark {
+
+        /** Benchmark name */
+        private final String name;
+
+        /** Benchmarked operation */
+        private final Op op;
+
+        /**
+         * Benchmark constructor.
+         *
+         * @param name benchmark name
+         * @param op benchmarked operation
+         */
+        Benchmark(String name, Op op) {
+            this.name = name;
+            this.op = op;
+        }
+    }
+
+
+    /**
+     * Returns dealt hands to cycle through.
+     *
+     * @return prebuilt hands
+     */
+    private static Hand[] dealHands() {
+        Deck deck = new Deck(VideoPoker.RANDOM_GAME);
+        Hand[] hands = new Hand[HANDS];
+
+        for (int i = 0; i < HANDS; i++) {
+            deck.shuffle();
+            Card[] cards = new Card[Hand.CARDS_IN_HAND];
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                cards[j] = deck.nextCard();
+            }
+            hands[i] = new Hand(cards);
+        }
+
+        return hands;
+    }
+
+
+    /**
+     * Returns games with a dealt hand to cycle through.
+     *
+     * @return prebuilt games
+     */
+    private static VideoPoker[] dealGames() {
+        VideoPoker[] games = new VideoPoker[HANDS];
+
+        for (int i = 0; i < HANDS; i++) {
+            games[i] = new VideoPoker(VideoPoker.RANDOM_GAME);
+            games[i].newGame();
+        }
+
+        return games;
+    }
+
+
+    /**
+     * Returns every benchmark.
+     *
+     * @return benchmarks in reporting order
+     */
+    private static List<Benchmark> benchmarks() {
+        List<Benchmark> list = new ArrayList<Benchmark>();
+        Hand[] hands = dealHands();
+        VideoPoker[] games = dealGames();
+        Deck deck = new Deck(VideoPoker.RANDOM_GAME);
+        Deck lazyDeck = new Deck(VideoPoker.RANDOM_GAME);
+        lazyDeck.setLazyShuffle(true);
+        VideoPoker game = new VideoPoker(VideoPoker.RANDOM_GAME);
+        int[] dealt = new int[BATCH_DEALS * 2 * Hand.CARDS_IN_HAND];
+
+        // Every hand pays back its cost, so the points never overflow
+        int[] evenPayouts = new int[HandEvaluator.CATEGORIES];
+        java.util.Arrays.fill(evenPayouts, 1);
+        VideoPoker multiGame = new VideoPoker(VideoPoker.RANDOM_GAME, new Paytable(evenPayouts, 1));
+        multiGame.setHandCount(MULTI_HANDS);
+
+        // The same hands encoded for HandEvaluator and laid out for the batch evaluators
+        int[] encoded = new int[HANDS * Hand.CARDS_IN_HAND];
+        HandBatch batch = new HandBatch(HANDS);
+        for (int h = 0; h < HANDS; h++) {
+            int[] o = new int[Hand.CARDS_IN_HAND];
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                o[j] = hands[h].getCard(j).getOrdinal();
+                encoded[h * Hand.CARDS_IN_HAND + j] = HandEvaluator.encode(o[j]);
+            }
+            batch.add(o[0], o[1], o[2], o[3], o[4]);
+        }
+        BatchEvaluator scalarEvaluator = new ScalarBatchEvaluator();
+        BatchEvaluator batchEvaluator = BatchEvaluator.create();
+
+        long[] holdemHands = new long[HANDS];
+        for (int h = 0; h < HANDS; h++) {
+            deck.shuffle();
+            for (int j = 0; j < HoldemEvaluator.CARDS_IN_HAND; j++) {
+                holdemHands[h] |= CardSet.ofOrdinal(deck.nextOrdinal());
+            }
+        }
+
+        list.add(new Benchmark("Deck.shuffle+nextCard", i -> {
+            deck.shuffle();
+            int sum = 0;
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                sum += deck.nextCard().getValue();
+            }
+            return sum;
+        }));
+
+        list.add(new Benchmark("Deck.lazyShuffle+nextCard", i -> {
+            lazyDeck.shuffle();
+            int sum = 0;
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                sum += lazyDeck.nextCard().getValue();
+            }
+            return sum;
+        }));
+
+        list.add(new Benchmark("Deck.deal(64x10)", i -> {
+            lazyDeck.deal(BATCH_DEALS, 2 * Hand.CARDS_IN_HAND, dealt, 0);
+            return dealt[i % dealt.length];
+        }));
+
+        list.add(new Benchmark("Hand.isFlush", i -> hands[i & HAND_MASK].isFlush() ? 1 : 0));
+        list.add(new Benchmark("Hand.isStraight", i -> hands[i & HAND_MASK].isStraight() ? 1 : 0));
+        list.add(new Benchmark("Hand.isStraightFlush",
+            i -> hands[i & HAND_MASK].isStraightFlush() ? 1 : 0));
+        list.add(new Benchmark("Hand.isRoyalFlush",
+            i -> hands[i & HAND_MASK].isRoyalFlush() ? 1 : 0));
+        list.add(new Benchmark("Hand.hasFourOfAKind",
+            i -> hands[i & HAND_MASK].hasFourOfAKind() ? 1 : 0));
+        list.add(new Benchmark("Hand.isFullHouse",
+            i -> hands[i & HAND_MASK].isFullHouse() ? 1 : 0));
+        list.add(new Benchmark("Hand.hasThreeOfAKind",
+            i -> hands[i & HAND_MASK].hasThreeOfAKind() ? 1 : 0));
+        list.add(new Benchmark("Hand.hasTwoPairs",
+            i -> hands[i & HAND_MASK].hasTwoPairs() ? 1 : 0));
+        list.add(new Benchmark("Hand.hasOnePair",
+            i -> hands[i & HAND_MASK].hasOnePair() ? 1 : 0));
+        list.add(new Benchmark("Hand.getCategory", i -> hands[i & HAND_MASK].getCategory()));
+
+        list.add(new Benchmark("HandEvaluator(1024)", i -> {
+            int sum = 0;
+            for (int j = 0; j < encoded.length; j += Hand.CARDS_IN_HAND) {
+                sum += HandEvaluator.category(HandEvaluator.evaluate(encoded[j], encoded[j + 1],
+                    encoded[j + 2], encoded[j + 3], encoded[j + 4]));
+            }
+            return sum;
+        }));
+        list.add(new Benchmark("ScalarBatch(1024)", i -> {
+            scalarEvaluator.evaluate(batch);
+            return batch.getCategory(i & HAND_MASK);
+        }));
+        list.add(new Benchmark("BatchEvaluator(1024)", i -> {
+            batchEvaluator.evaluate(batch);
+            return batch.getCategory(i & HAND_MASK);
+        }));
+
+        list.add(new Benchmark("HoldemEvaluator",
+            i -> HoldemEvaluator.evaluate(holdemHands[i & HAND_MASK])));
+
+        list.add(new Benchmark("VideoPoker.scoreHand",
+            i -> games[i & HAND_MASK].scoreHand().length()));
+        list.add(new Benchmark("VideoPoker.score",
+            i -> games[i & HAND_MASK].score().ordinal()));
+
+        list.add(new Benchmark("VideoPoker.round", i -> {
+            game.newGame();
+            game.replaceCard(i & 3);
+            game.replaceCard(4);
+            return game.score().ordinal() + game.getPoints();
+        }));
+
+        list.add(new Benchmark("VideoPoker.drawHands(100)", i -> {
+            multiGame.newGame();
+            return multiGame.drawHands(i & 0b11) + multiGame.getCategory(MULTI_HANDS - 1).ordinal();
+        }));
+
+        return list;
+    }
+
+
+    /**
+     * Runs one timed iteration of a benchmark.
+     *
+     * @param op benchmarked operation
+     * @param result array receiving operations, nanoseconds and allocated bytes
+     */
+    private static void iterate(Op op, long[] result) {
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long end = start + ITERATION_NANOS;
+        long ops = 0;
+        int acc = 0;
+        long now;
+
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                acc += op.run((int) ops + i);
+            }
+            ops += BATCH;
+            now = System.nanoTime();
+        } while (now < end);
+
+        long bytes = THREADS.getThreadAllocatedBytes(thread) - bytesBefore;
+        sink = acc;
+
+        result[0] = ops;
+        result[1] = now - start;
+        result[2] = bytes;
+    }
+
+
+    /**
+     * Warms up and measures one benchmark, printing a result line.
+     *
+     * @param benchmark benchmark to run
+     */
+    private static void run(Benchmark benchmark) {
+        long[] result = new long[3];
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iterate(benchmark.op, result);
+        }
+
+        double[] opsPerSec = new double[MEASURED_ITERATIONS];
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            iterate(benchmark.op, result);
+            opsPerSec[i] = result[0] * 1e9 / result[1];
+            totalOps += result[0];
+            totalNanos += result[1];
+            totalBytes += result[2];
+        }
+
+        double mean = totalOps * 1e9 / totalNanos;
+        double variance = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            variance += (opsPerSec[i] - mean) * (opsPerSec[i] - mean);
+        }
+        double error = Math.sqrt(variance / (MEASURED_ITERATIONS - 1));
+
+        System.out.printf("%-24s %14.0f +- %10.0f ops/s %10.1f B/op %10.1f MB/s%n",
+                          benchmark.name, mean, error, (double) totalBytes / totalOps,
+                          totalBytes * 1e3 / totalNanos);
+    }
+
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args args[0] optional regex selecting benchmarks by name
+     */
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            System.out.println("Usage: java -cp bin PokerBenchmarks <regex>");
+            return;
+        }
+
+        Pattern filter = Pattern.compile(args.length == 1 ? args[0] : ".*");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        System.out.printf("%-24s %29s %15s %15s%n", "Benchmark", "Throughput", "Alloc/op",
+                          "Alloc rate");
+        for (Benchmark benchmark : benchmarks()) {
+            if (filter.matcher(benchmark.name).find()) {
+                run(benchmark);
+            }
+        }
+    }
+}
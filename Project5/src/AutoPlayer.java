@@ -0,0 +1,94 @@
+/**
+ * Plays whole hands of a VideoPoker game without a player: deals, keeps the
+ * cards a HoldStrategy chooses, replaces the rest and scores the hand.
+ *
+ * @author Will Greene
+ */
+public class AutoPlayer {
+
+    /** Game being played */
+    private final VideoPoker game;
+
+    /** Strategy choosing the cards to keep */
+    private final HoldStrategy strategy;
+
+    /** Ordinals of the dealt cards, reused for every hand */
+    private final int[] dealt = new int[Hand.CARDS_IN_HAND];
+
+    /** Number of hands played */
+    private long handsPlayed;
+
+
+    /**
+     * AutoPlayer constructor.
+     *
+     * @param game game to play
+     * @param strategy strategy choosing the cards to keep
+     * @throws IllegalArgumentException if null game
+     * @throws IllegalArgumentException if null strategy
+     */
+    public AutoPlayer(VideoPoker game, HoldStrategy strategy) {
+
+        // Parameter error checking - null game
+        if (game == null) {
+            throw new IllegalArgumentException("Null game");
+        }
+
+        // Parameter error checking - null strategy
+        if (strategy == null) {
+            throw new IllegalArgumentException("Null strategy");
+        }
+
+        this.game = game;
+        this.strategy = strategy;
+    }
+
+
+    /**
+     * Returns whether the game has the points to start another hand.
+     *
+     * @return true if another hand can be played
+               false if not
+     */
+    public boolean canPlay() {
+        return game.getPoints() >= game.getPaytable().getCost();
+    }
+
+
+    /**
+     * Plays one hand.
+     *
+     * @return category of the scored hand
+     * @throws IllegalStateException if not enough points
+     */
+    public HandCategory playHand() {
+        if (!canPlay()) {
+            throw new IllegalStateException("Not enough points");
+        }
+
+        game.newGame();
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            dealt[i] = game.getCard(i).getOrdinal();
+        }
+
+        int hold = strategy.chooseHold(dealt);
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            if ((hold & (1 << i)) == 0) {
+                game.replaceCard(i);
+            }
+        }
+
+        handsPlayed++;
+        return game.score();
+    }
+
+
+    /**
+     * Returns the number of hands played.
+     *
+     * @return hands played
+     */
+    public long getHandsPlayed() {
+        return handsPlayed;
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Classifies every hand of a HandBatch at once.
+ *
+ * Implementations count equal rank pairs and compare suits, ranks and
+ * their spread with the same arithmetic for every hand, without branches
+ * or lookups that depend on the cards, so the work maps directly onto
+ * vector lanes. Every implementation gives the same category as Hand's
+ * predicates.
+ *
+ * @author Will Greene
+ */
+public interface BatchEvaluator {
+
+    /** Name of the implementation using the incubating Vector API */
+    String VECTOR_IMPLEMENTATION = "VectorBatchEvaluator";
+
+    /**
+     * Sets the category of every hand in a batch.
+     *
+     * @param batch hands to classify
+     */
+    void evaluate(HandBatch batch);
+
+    /**
+     * Returns the fastest evaluator this JVM can run: the Vector API one
+     * when VectorBatchEvaluator was compiled from the vector directory and
+     * the jdk.incubator.vector module is added, otherwise the scalar one.
+     * The vector class is loaded reflectively, so src compiles and runs
+     * without the module.
+     *
+     * @return batch evaluator
+     */
+    static BatchEvaluator create() {
+        try {
+            return (BatchEvaluator) Class.forName(VECTOR_IMPLEMENTATION)
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarBatchEvaluator();
+        }
+    }
+}
@@ -25,11 +25,32 @@ public class Card implements Comparable<Card> {
     /** Lowest value */
     public static final int HIGHEST_VALUE = 14;
     
+    /** Number of distinct card values */
+    public static final int VALUES = HIGHEST_VALUE - LOWEST_VALUE + 1;
+    
+    /** Number of distinct cards */
+    public static final int CARDS = 4 * VALUES;
+    
+    /** Suits in ordinal order */
+    private static final char[] SUITS = {CLUBS, DIAMONDS, HEARTS, SPADES};
+    
+    /** Canonical card for each ordinal */
+    private static final Card[] BY_ORDINAL = new Card[CARDS];
+    
+    static {
+        for (int i = 0; i < CARDS; i++) {
+            BY_ORDINAL[i] = new Card(i % VALUES + LOWEST_VALUE, SUITS[i / VALUES]);
+        }
+    }
+    
     /** Card's value (jack - 11, queen - 12, king - 13, ace - 14) */
-    private int value;
+    private final int value;
     
     /** Card's suit */
-    private char suit;
+    private final char suit;
+    
+    /** Card's position from 0 (two of clubs) to 51 (ace of spades) */
+    private final int ordinal;
     
     /**
      * Card constructor.
@@ -53,6 +74,68 @@ public class Card implements Comparable<Card> {
         
         this.value = value;
         this.suit = suit;
+        this.ordinal = suitIndex(suit) * VALUES + value - LOWEST_VALUE;
+    }
+    
+    /**
+     * Returns the canonical card with the given value and suit.
+     * No new Card is created.
+     * 
+     * @param value card value
+     * @param suit card suit
+     * @return shared card instance
+     * @throws IllegalArgumentException if invalid value
+     * @throws IllegalArgumentException if invalid suit
+     */
+    public static Card of(int value, char suit) {
+        
+        // Parameter error checking - invalid value
+        if (value < LOWEST_VALUE || value > HIGHEST_VALUE) {
+            throw new IllegalArgumentException("Invalid value");
+        }
+        
+        // Parameter error checking - invalid suit
+        if (suit != CLUBS && suit != DIAMONDS && suit != SPADES && suit != HEARTS) {
+            throw new IllegalArgumentException("Invalid suit");
+        }
+        
+        return BY_ORDINAL[suitIndex(suit) * VALUES + value - LOWEST_VALUE];
+    }
+    
+    /**
+     * Returns the canonical card with the given ordinal.
+     * 
+     * @param ordinal card ordinal from 0 to 51
+     * @return shared card instance
+     * @throws IllegalArgumentException if invalid ordinal
+     */
+    public static Card fromOrdinal(int ordinal) {
+        
+        // Parameter error checking - invalid ordinal
+        if (ordinal < 0 || ordinal >= CARDS) {
+            throw new IllegalArgumentException("Invalid ordinal");
+        }
+        
+        return BY_ORDINAL[ordinal];
+    }
+    
+    /**
+     * Returns the position of a suit in ordinal order
+     * (clubs, diamonds, hearts, spades).
+     * 
+     * @param suit card suit
+     * @return suit index from 0 to 3
+     */
+    public static int suitIndex(char suit) {
+        if (suit == CLUBS) {
+            return 0;
+        } else if (suit == DIAMONDS) {
+            return 1;
+        } else if (suit == HEARTS) {
+            return 2;
+        } else {
+            return 3;
+        }
     }
     
     /**
@@ -73,6 +156,16 @@ public class Card implements Comparable<Card> {
         return suit;
     }
     
+    /**
+     * Returns card ordinal. Cards are numbered in deck order, clubs first,
+     * then diamonds, hearts and spades, each from 2 to ace.
+     * 
+     * @return card ordinal from 0 to 51
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+    
     /**
      * Returns whether the current object and parameter object are equal.
      * 
@@ -83,7 +176,7 @@ public class Card implements Comparable<Card> {
     public boolean equals(Object o) {
         if (o instanceof Card) {
             Card c = (Card)o;
-            return value == c.getValue() && suit == c.getSuit();
+            return ordinal == c.ordinal;
         }
         
         else {
@@ -91,6 +184,15 @@ public class Card implements Comparable<Card> {
         }
     }
     
+    /**
+     * Returns a hash code consistent with equals.
+     * 
+     * @return card ordinal
+     */
+    public int hashCode() {
+        return ordinal;
+    }
+    
     /**
      * Returns card value and suit in the form of a String.
      * 
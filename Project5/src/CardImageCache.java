@@ -0,0 +1,141 @@
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.swing.ImageIcon;
+
+/**
+ * Decoded card images, loaded once and shared by every redraw.
+ *
+ * preload() reads and decodes all 52 card images and the card back on a
+ * background thread, so the GUI can start while they load and later
+ * redraws only look an icon up by card ordinal. An image asked for before
+ * the preloader reaches it is loaded on the spot and kept, so no caller
+ * waits for the whole preload.
+ *
+ * Images are read from files named as in VideoPoker.getCardFileName(), for
+ * example h12.gif, and the back from blank.gif.
+ *
+ * @author Will Greene
+ */
+public class CardImageCache {
+
+    /** Directory holding the card images in the working directory */
+    public static final String DEFAULT_DIRECTORY = "cards";
+
+    /** File name of the card back */
+    public static final String BACK_FILE = "blank.gif";
+
+    /** Index of the card back, after the card ordinals */
+    private static final int BACK = Card.CARDS;
+
+    /** Directory holding the card images */
+    private final Path directory;
+
+    /** Icons by card ordinal, then the back; null until loaded */
+    private final AtomicReferenceArray<ImageIcon> icons =
+        new AtomicReferenceArray<ImageIcon>(Card.CARDS + 1);
+
+
+    /**
+     * CardImageCache constructor. Loads nothing until preload() or the
+     * first request.
+     *
+     * @param directory directory holding the card images
+     * @throws IllegalArgumentException if null directory
+     */
+    public CardImageCache(Path directory) {
+
+        // Parameter error checking - null directory
+        if (directory == null) {
+            throw new IllegalArgumentException("Null directory");
+        }
+
+        this.directory = directory;
+    }
+
+
+    /**
+     * Starts loading every image on a background daemon thread.
+     *
+     * @return future completed when every image is loaded
+     */
+    public CompletableFuture<Void> preload() {
+        CompletableFuture<Void> done = new CompletableFuture<Void>();
+
+        Thread loader = new Thread(() -> {
+            try {
+                for (int i = 0; i <= BACK; i++) {
+                    icon(i);
+                }
+                done.complete(null);
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }, "card-images");
+        loader.setDaemon(true);
+        loader.start();
+
+        return done;
+    }
+
+
+    /**
+     * Returns the image of a card.
+     *
+     * @param card card to draw
+     * @return decoded image
+     * @throws IllegalArgumentException if null card
+     */
+    public ImageIcon getIcon(Card card) {
+
+        // Parameter error checking - null card
+        if (card == null) {
+            throw new IllegalArgumentException("Null card");
+        }
+
+        return icon(card.getOrdinal());
+    }
+
+
+    /**
+     * Returns the image of the card back.
+     *
+     * @return decoded image
+     */
+    public ImageIcon getBack() {
+        return icon(BACK);
+    }
+
+
+    /**
+     * Returns whether an image has been loaded.
+     *
+     * @param card card to check
+     * @return true if loaded
+               false if not
+     */
+    public boolean isLoaded(Card card) {
+        return icons.get(card.getOrdinal()) != null;
+    }
+
+
+    /**
+     * Returns an icon, loading it first if no thread has.
+     *
+     * @param index card ordinal, or BACK
+     * @return decoded image
+     */
+    private ImageIcon icon(int index) {
+        ImageIcon icon = icons.get(index);
+        if (icon != null) {
+            return icon;
+        }
+
+        String file = index == BACK ? BACK_FILE : Card.fromOrdinal(index) + ".gif";
+        icon = new ImageIcon(directory.resolve(file).toString());
+
+        // If two threads load the same image, both use the first one stored
+        return icons.compareAndSet(index, null, icon) ? icon : icons.get(index);
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Operations on sets of cards packed into a long, one bit per card ordinal.
+ * Bit 0 is the two of clubs and bit 51 is the ace of spades, so each suit
+ * occupies 13 consecutive bits ordered from 2 to ace.
+ *
+ * Sets are plain long values, so building, combining and testing them
+ * never allocates.
+ *
+ * @author Will Greene
+ */
+public class CardSet {
+
+    /** Set containing no cards */
+    public static final long EMPTY = 0L;
+
+    /** Set containing all 52 cards */
+    public static final long FULL_DECK = (1L << Card.CARDS) - 1;
+
+    /** Bits covering a single suit's 13 cards */
+    private static final int SUIT_BITS = (1 << Card.VALUES) - 1;
+
+    /** Bits covering one card of the lowest value in each suit */
+    private static final long LOWEST_VALUE_OF_EACH_SUIT =
+            1L | 1L << Card.VALUES | 1L << (2 * Card.VALUES) | 1L << (3 * Card.VALUES);
+
+    /** Rank pattern of five consecutive values starting at the lowest value */
+    private static final int STRAIGHT_PATTERN = 0x1F;
+
+
+    /**
+     * Prevents instantiation.
+     */
+    private CardSet() {
+    }
+
+
+    /**
+     * Returns the set holding the given cards.
+     *
+     * @param cards cards to include
+     * @return card set
+     * @throws IllegalArgumentException if null array
+     * @throws IllegalArgumentException if null element
+     */
+    public static long of(Card... cards) {
+
+        // Parameter error checking - null array
+        if (cards == null) {
+            throw new IllegalArgumentException("Null array");
+        }
+
+        long set = EMPTY;
+        for (int i = 0; i < cards.length; i++) {
+
+            // Parameter error checking - null element
+            if (cards[i] == null) {
+                throw new IllegalArgumentException("Null element");
+            }
+
+            set |= 1L << cards[i].getOrdinal();
+        }
+        return set;
+    }
+
+
+    /**
+     * Returns the set holding only the card with the given ordinal.
+     *
+     * @param ordinal card ordinal from 0 to 51
+     * @return card set
+     */
+    public static long ofOrdinal(int ordinal) {
+        return 1L << ordinal;
+    }
+
+
+    /**
+     * Returns the set with the card added.
+     *
+     * @param set card set
+     * @param card card to add
+     * @return card set including card
+     */
+    public static long add(long set, Card card) {
+        return set | 1L << card.getOrdinal();
+    }
+
+
+    /**
+     * Returns the set with the card removed.
+     *
+     * @param set card set
+     * @param card card to remove
+     * @return card set without card
+     */
+    public static long remove(long set, Card card) {
+        return set & ~(1L << card.getOrdinal());
+    }
+
+
+    /**
+     * Returns whether the set holds the card.
+     *
+     * @param set card set
+     * @param card card to look for
+     * @return true if the card is in the set
+               false if not
+     */
+    public static boolean contains(long set, Card card) {
+        return (set & 1L << card.getOrdinal()) != 0;
+    }
+
+
+    /**
+     * Returns the cards in either set.
+     *
+     * @param a first card set
+     * @param b second card set
+     * @return union of the sets
+     */
+    public static long union(long a, long b) {
+        return a | b;
+    }
+
+
+    /**
+     * Returns the cards of the first set that are not in the second set.
+     *
+     * @param set card set
+     * @param removed cards to remove
+     * @return remaining cards
+     */
+    public static long removeAll(long set, long removed) {
+        return set & ~removed;
+    }
+
+
+    /**
+     * Returns the number of cards in the set.
+     *
+     * @param set card set
+     * @return number of cards
+     */
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+
+    /**
+     * Returns the set of all 13 cards of a suit.
+     *
+     * @param suit card suit
+     * @return card set of the suit
+     */
+    public static long suitMask(char suit) {
+        return (long) SUIT_BITS << (Card.suitIndex(suit) * Card.VALUES);
+    }
+
+
+    /**
+     * Returns the set of all four cards of a value.
+     *
+     * @param value card value
+     * @return card set of the value
+     */
+    public static long rankMask(int value) {
+        return LOWEST_VALUE_OF_EACH_SUIT << (value - Card.LOWEST_VALUE);
+    }
+
+
+    /**
+     * Returns the values held in one suit as a 13-bit pattern, bit 0 for a 2.
+     *
+     * @param set card set
+     * @param suitIndex suit index from 0 to 3, as given by Card.suitIndex()
+     * @return rank pattern of the suit
+     */
+    public static int suitRanks(long set, int suitIndex) {
+        return (int) (set >>> (suitIndex * Card.VALUES)) & SUIT_BITS;
+    }
+
+
+    /**
+     * Returns the values held in any suit as a 13-bit pattern, bit 0 for a 2.
+     *
+     * @param set card set
+     * @return rank pattern of the set
+     */
+    public static int ranks(long set) {
+        return suitRanks(set, 0) | suitRanks(set, 1) | suitRanks(set, 2) | suitRanks(set, 3);
+    }
+
+
+    /**
+     * Returns whether every card in a non-empty set has the same suit.
+     *
+     * @param set card set
+     * @return true if the set is a flush
+               false if not
+     */
+    public static boolean isFlush(long set) {
+        int size = Long.bitCount(set);
+        return size > 0 && (Integer.bitCount(suitRanks(set, 0)) == size
+                            || Integer.bitCount(suitRanks(set, 1)) == size
+                            || Integer.bitCount(suitRanks(set, 2)) == size
+                            || Integer.bitCount(suitRanks(set, 3)) == size);
+    }
+
+
+    /**
+     * Returns whether the set holds five consecutive values. An ace only
+     * counts as the high card.
+     *
+     * @param set card set
+     * @return true if the values form a straight
+               false if not
+     */
+    public static boolean isStraight(long set) {
+        if (Long.bitCount(set) != Hand.CARDS_IN_HAND) {
+            return false;
+        }
+        int ranks = ranks(set);
+        return ranks >>> Integer.numberOfTrailingZeros(ranks) == STRAIGHT_PATTERN;
+    }
+
+
+    /**
+     * Returns a String representation of the set in ordinal order.
+     *
+     * @param set card set
+     * @return String representation of the set
+     */
+    public static String toString(long set) {
+        String s = "[";
+        long rest = set;
+
+        while (rest != 0) {
+            s += Card.fromOrdinal(Long.numberOfTrailingZeros(rest));
+            rest &= rest - 1;
+            if (rest != 0) {
+                s += ", ";
+            }
+        }
+
+        return s + "]";
+    }
+}
@@ -0,0 +1,209 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Counter-based random stream for dealing cards.
+ *
+ * Output n of a stream is a 64-bit mix of its key plus n times the golden
+ * ratio constant, the same output function as SplitMix64. Because an
+ * output depends only on the key and the counter, the whole state is two
+ * longs that can be saved and restored, the stream can jump ahead any
+ * distance at no cost, and stream(i) gives independent numbered streams
+ * from one master seed, so a parallel simulation deals the same cards no
+ * matter how its work is scheduled.
+ *
+ * A stream is not thread-safe; give each thread its own stream.
+ *
+ * @author Will Greene
+ */
+public final class CounterRandom implements RandomGenerator.JumpableGenerator {
+
+    /** Outputs skipped by jump() */
+    public static final long JUMP_DISTANCE = 1L << 32;
+
+    /** Odd constant added to the counter state for each output */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Key selecting the stream */
+    private final long key;
+
+    /** Number of outputs produced so far */
+    private long counter;
+
+
+    /**
+     * CounterRandom constructor with an unpredictable seed.
+     */
+    public CounterRandom() {
+        this(ThreadLocalRandom.current().nextLong() ^ System.nanoTime());
+    }
+
+
+    /**
+     * CounterRandom constructor.
+     *
+     * @param seed seed of the stream
+     */
+    public CounterRandom(long seed) {
+        this(mix(seed), 0);
+    }
+
+
+    /**
+     * Creates a stream from a saved key and counter.
+     *
+     * @param key key selecting the stream
+     * @param counter number of outputs already produced
+     */
+    private CounterRandom(long key, long counter) {
+        this.key = key;
+        this.counter = counter;
+    }
+
+
+    /**
+     * Returns a stream restored from the values of getKey() and getCounter().
+     *
+     * @param key key selecting the stream
+     * @param counter number of outputs already produced
+     * @return restored stream
+     */
+    public static CounterRandom fromState(long key, long counter) {
+        return new CounterRandom(key, counter);
+    }
+
+
+    /**
+     * Returns the key selecting this stream.
+     *
+     * @return stream key
+     */
+    public long getKey() {
+        return key;
+    }
+
+
+    /**
+     * Returns the number of outputs produced so far.
+     *
+     * @return counter
+     */
+    public long getCounter() {
+        return counter;
+    }
+
+
+    /**
+     * Returns the next 64 random bits.
+     *
+     * @return random long
+     */
+    public long nextLong() {
+        return mix(key + GOLDEN_GAMMA * counter++);
+    }
+
+
+    /**
+     * Returns a uniformly distributed int from 0 up to a bound, using one
+     * multiply in place of a division on almost every call.
+     *
+     * @param bound upper bound, exclusive
+     * @return random int from 0 to bound - 1
+     * @throws IllegalArgumentException if invalid bound
+     */
+    public int nextInt(int bound) {
+
+        // Parameter error checking - invalid bound
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Invalid bound");
+        }
+
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xFFFFFFFFL;
+
+        // Reject the few low words that would make some results more likely
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xFFFFFFFFL;
+            }
+        }
+
+        return (int) (product >>> 32);
+    }
+
+
+    /**
+     * Skips outputs as if nextLong() had been called that many times.
+     *
+     * @param outputs number of outputs to skip
+     */
+    public void advance(long outputs) {
+        counter += outputs;
+    }
+
+
+    /**
+     * Skips JUMP_DISTANCE outputs.
+     */
+    public void jump() {
+        counter += JUMP_DISTANCE;
+    }
+
+
+    /**
+     * Returns the number of outputs skipped by jump().
+     *
+     * @return jump distance
+     */
+    public double jumpDistance() {
+        return JUMP_DISTANCE;
+    }
+
+
+    /**
+     * Returns a copy that continues from the same position.
+     *
+     * @return copy of this stream
+     */
+    public CounterRandom copy() {
+        return new CounterRandom(key, counter);
+    }
+
+
+    /**
+     * Returns the numbered stream derived from this stream's key. Streams
+     * with different numbers do not overlap in practice, and the result
+     * does not depend on this stream's position.
+     *
+     * @param index stream number
+     * @return new stream positioned at its start
+     */
+    public CounterRandom stream(long index) {
+        return new CounterRandom(mix(key ^ mix(~index)), 0);
+    }
+
+
+    /**
+     * Returns a new stream keyed by the next output of this stream.
+     *
+     * @return new stream positioned at its start
+     */
+    public CounterRandom split() {
+        return new CounterRandom(nextLong(), 0);
+    }
+
+
+    /**
+     * Mixes the bits of a long (the SplitMix64 finalizer).
+     *
+     * @param z value to mix
+     * @return mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
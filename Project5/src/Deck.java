@@ -1,8 +1,24 @@
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a deck of cards.
  * 
+ * The deck owns one random stream for its whole life, so each shuffle
+ * continues where the last one stopped. A seeded deck deals the same
+ * sequence of games every time it is created, and a deck built from a
+ * generator (for example one of the streams of a CounterRandom or a
+ * SplittableRandom split) can be given a stream of its own in parallel code.
+ * 
+ * In lazy shuffle mode, shuffle() only starts a new deal and each call to
+ * nextCard() swaps a uniformly chosen card from the undealt part of the
+ * deck into place, which is one step of the same Fisher-Yates shuffle. The
+ * cards dealt are just as random, but a game that uses 10 cards does 10
+ * swaps instead of 51.
+ * 
+ * For simulations, deal() writes many deals straight into a caller's int
+ * array or ByteBuffer as card ordinals, so no Card arrays or Hands are built.
+ * 
  * @author Will Greene
  */
 public class Deck {
@@ -19,59 +35,160 @@ public class Deck {
     /** Random seed provided for testing */
     private int seed;
     
+    /** Random stream used by every shuffle */
+    private final RandomGenerator random;
+    
+    /** Whether cards are shuffled one at a time as they are dealt */
+    private boolean lazyShuffle;
+    
+    /** Whether the current deal shuffles its cards one at a time, set by shuffle() */
+    private boolean lazyDeal;
+    
     
     /**
      * Deck constructor.
      * Constructs a deck of cards in a specific order.
      * 
-     * @param seed random seed provided for testing
+     * @param seed random seed provided for testing, or -1 for an unseeded deck
      */
     public Deck(int seed) {
+        this(seed, seed != -1 ? new CounterRandom(seed) : new CounterRandom());
+    }
+    
+    
+    /**
+     * Deck constructor.
+     * Constructs a deck of cards in a specific order that shuffles with
+     * the given random stream.
+     * 
+     * @param random random stream owned by the deck from now on
+     * @throws IllegalArgumentException if null generator
+     */
+    public Deck(RandomGenerator random) {
+        this(-1, random);
+    }
+    
+    
+    /**
+     * Deck constructor.
+     * 
+     * @param seed seed recorded for equals
+     * @param random random stream used by every shuffle
+     * @throws IllegalArgumentException if null generator
+     */
+    Deck(int seed, RandomGenerator random) {
+        
+        // Parameter error checking - null generator
+        if (random == null) {
+            throw new IllegalArgumentException("Null generator");
+        }
+        
         this.seed = seed;
+        this.random = random;
         
         cards = new Card[CARDS_IN_DECK];
         
-        int value = Card.LOWEST_VALUE;
-        char suit = Card.CLUBS;
-        
+        // Card ordinals follow deck order, so the shared cards are reused
         for (int i = 0; i < CARDS_IN_DECK; i++) {
-            cards[i] = new Card(value, suit);
-            value++;
-            
-            if (value == Card.HIGHEST_VALUE + 1) {
-                value = Card.LOWEST_VALUE;
-                
-                if (suit == Card.CLUBS) {
-                    suit = Card.DIAMONDS;
-                } else if (suit == Card.DIAMONDS) {
-                    suit = Card.HEARTS;
-                } else if (suit == Card.HEARTS) {
-                    suit = Card.SPADES;
-                }
-            }
+            cards[i] = Card.fromOrdinal(i);
         }
     }
     
     
     /**
-     * Shuffles the deck.
+     * Returns the random stream used by every shuffle.
+     * 
+     * @return random stream
      */
-    public void shuffle() {
-        if (seed != -1) {
-            Random rand = new Random(seed);
-            for (int i = CARDS_IN_DECK - 1; i >= 1; i--) {
-                int randomCard = rand.nextInt(i + 1);
-                
-                Card temp = cards[i];
-                cards[i] = cards[randomCard];
-                cards[randomCard] = temp;
-            }
+    public RandomGenerator getRandom() {
+        return random;
+    }
+    
+    
+    /**
+     * Returns the seed the deck was created with, or -1 if none.
+     * 
+     * @return seed
+     */
+    int getSeed() {
+        return seed;
+    }
+    
+    
+    /**
+     * Returns the index of the next card to be dealt.
+     * 
+     * @return index of the next card
+     */
+    int getNext() {
+        return next;
+    }
+    
+    
+    /**
+     * Returns the ordinal of the card at a position in the deck.
+     * 
+     * @param index position in the deck
+     * @return card ordinal
+     */
+    int ordinalAt(int index) {
+        return cards[index].getOrdinal();
+    }
+    
+    
+    /**
+     * Restores the order of the cards and the next index, reading one
+     * ordinal per byte. The restored deal uses the current shuffle mode.
+     * 
+     * @param in buffer holding CARDS_IN_DECK card ordinals
+     * @param offset index in the buffer of the first ordinal
+     * @param next index of the next card to be dealt
+     */
+    void restore(ByteBuffer in, int offset, int next) {
+        for (int i = 0; i < CARDS_IN_DECK; i++) {
+            cards[i] = Card.fromOrdinal(in.get(offset + i));
         }
-            
-        else {
-            Random rand = new Random();
+        
+        this.next = next;
+        lazyDeal = lazyShuffle;
+    }
+    
+    
+    /**
+     * Returns whether cards are shuffled one at a time as they are dealt.
+     * 
+     * @return true if in lazy shuffle mode
+               false if shuffle() shuffles the whole deck
+     */
+    public boolean isLazyShuffle() {
+        return lazyShuffle;
+    }
+    
+    
+    /**
+     * Sets whether cards are shuffled one at a time as they are dealt.
+     * Takes effect at the next shuffle, so a deal in progress keeps the
+     * mode it was shuffled with.
+     * 
+     * @param lazyShuffle true for lazy shuffle mode
+     */
+    public void setLazyShuffle(boolean lazyShuffle) {
+        this.lazyShuffle = lazyShuffle;
+    }
+    
+    
+    /**
+     * Shuffles the deck, advancing the deck's random stream.
+     * In lazy shuffle mode, only starts a new deal.
+     */
+    public void shuffle() {
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        next = 0;
+        lazyDeal = lazyShuffle;
+        
+        if (!lazyDeal) {
             for (int i = CARDS_IN_DECK - 1; i >= 1; i--) {
-                int randomCard = rand.nextInt(i + 1);
+                int randomCard = random.nextInt(i + 1);
                 
                 Card temp = cards[i];
                 cards[i] = cards[randomCard];
@@ -79,12 +196,15 @@ public class Deck {
             }
         }
         
-        next = 0;
+        if (GameMetrics.ENABLED) {
+            GameMetrics.recordShuffle(System.nanoTime() - start);
+        }
     }
     
     
     /**
      * Returns the next card in the deck.
+     * In lazy shuffle mode, the card is first chosen from the undealt cards.
      * 
      * @return next card in the deck
      * @throws IllegalStateException if no more cards
@@ -94,10 +214,126 @@ public class Deck {
             throw new IllegalStateException("No more cards");
         }
         
+        if (lazyDeal) {
+            int randomCard = next + random.nextInt(CARDS_IN_DECK - next);
+            
+            Card temp = cards[next];
+            cards[next] = cards[randomCard];
+            cards[randomCard] = temp;
+        }
+        
         return cards[next++];
     }
     
     
+    /**
+     * Returns the ordinal of the next card in the deck.
+     * 
+     * @return ordinal of the next card in the deck
+     * @throws IllegalStateException if no more cards
+     */
+    public int nextOrdinal() {
+        return nextCard().getOrdinal();
+    }
+    
+    
+    /**
+     * Shuffles the deck before each of several deals and writes the ordinals
+     * of the cards dealt into an array, one deal after another. Each deal is
+     * the first cardsPerDeal cards nextCard() would return after a shuffle,
+     * for example a hand followed by the cards held in reserve for the draw.
+     * 
+     * @param deals number of deals
+     * @param cardsPerDeal number of cards in each deal
+     * @param out array receiving deals * cardsPerDeal card ordinals
+     * @param offset index in out of the first ordinal
+     * @throws IllegalArgumentException if invalid deals
+     * @throws IllegalArgumentException if invalid cards per deal
+     * @throws IllegalArgumentException if null array
+     * @throws IllegalArgumentException if array too small
+     */
+    public void deal(int deals, int cardsPerDeal, int[] out, int offset) {
+        checkDeal(deals, cardsPerDeal);
+        
+        // Parameter error checking - null array
+        if (out == null) {
+            throw new IllegalArgumentException("Null array");
+        }
+        
+        // Parameter error checking - array too small
+        if (offset < 0 || offset > out.length
+            || (long) deals * cardsPerDeal > out.length - offset) {
+            throw new IllegalArgumentException("Array too small");
+        }
+        
+        for (int d = 0; d < deals; d++) {
+            shuffle();
+            for (int i = 0; i < cardsPerDeal; i++) {
+                out[offset++] = nextCard().getOrdinal();
+            }
+        }
+    }
+    
+    
+    /**
+     * Shuffles the deck before each of several deals and writes the ordinals
+     * of the cards dealt into a buffer, one byte per card, starting at the
+     * buffer's position. The position is advanced past the last card.
+     * 
+     * @param deals number of deals
+     * @param cardsPerDeal number of cards in each deal
+     * @param out buffer receiving deals * cardsPerDeal card ordinals
+     * @throws IllegalArgumentException if invalid deals
+     * @throws IllegalArgumentException if invalid cards per deal
+     * @throws IllegalArgumentException if null buffer
+     * @throws IllegalArgumentException if buffer too small
+     */
+    public void deal(int deals, int cardsPerDeal, ByteBuffer out) {
+        checkDeal(deals, cardsPerDeal);
+        
+        // Parameter error checking - null buffer
+        if (out == null) {
+            throw new IllegalArgumentException("Null buffer");
+        }
+        
+        // Parameter error checking - buffer too small
+        if ((long) deals * cardsPerDeal > out.remaining()) {
+            throw new IllegalArgumentException("Buffer too small");
+        }
+        
+        int position = out.position();
+        for (int d = 0; d < deals; d++) {
+            shuffle();
+            for (int i = 0; i < cardsPerDeal; i++) {
+                out.put(position++, (byte) nextCard().getOrdinal());
+            }
+        }
+        out.position(position);
+    }
+    
+    
+    /**
+     * Checks the size of a batch of deals.
+     * 
+     * @param deals number of deals
+     * @param cardsPerDeal number of cards in each deal
+     * @throws IllegalArgumentException if invalid deals
+     * @throws IllegalArgumentException if invalid cards per deal
+     */
+    private static void checkDeal(int deals, int cardsPerDeal) {
+        
+        // Parameter error checking - invalid deals
+        if (deals < 0) {
+            throw new IllegalArgumentException("Invalid deals");
+        }
+        
+        // Parameter error checking - invalid cards per deal
+        if (cardsPerDeal < 0 || cardsPerDeal > CARDS_IN_DECK) {
+            throw new IllegalArgumentException("Invalid cards per deal");
+        }
+    }
+    
+    
     /**
      * Returns whether the current object's deck is equal to the
      * parameter object's deck.
@@ -111,8 +347,7 @@ public class Deck {
             Deck d = (Deck)o;
 
             for (int i = 0; i < CARDS_IN_DECK; i++) {
-                if (cards[i].getValue() != d.cards[i].getValue() || 
-                    cards[i].getSuit() != d.cards[i].getSuit()) {
+                if (cards[i].getOrdinal() != d.cards[i].getOrdinal()) {
                     return false;
                 }
             }
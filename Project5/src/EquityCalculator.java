@@ -0,0 +1,529 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes the pot equity of Texas Hold'em players from their hole cards
+ * and any board cards already dealt.
+ *
+ * exhaustive() deals every remaining board once. Boards are enumerated
+ * one card at a time, and when at least PARALLEL_CARDS are missing the
+ * work is split across the common fork/join pool by the first card dealt.
+ *
+ * monteCarlo() deals random boards in batches of BATCH_BOARDS, as many
+ * batches at a time as the pool has threads, and stops after the first
+ * batch that brings every player's confidence interval within the
+ * requested half-width. Batch i deals from stream i of a CounterRandom
+ * seeded with the given seed, and batches are merged in order, so the
+ * result for a seed does not depend on the number of threads.
+ *
+ * Hands are valued by HoldemEvaluator.
+ *
+ * @author Will Greene
+ */
+public class EquityCalculator {
+
+    /** Fewest players in a hand */
+    public static final int MIN_PLAYERS = 2;
+
+    /** Most players in a hand */
+    public static final int MAX_PLAYERS = 10;
+
+    /** Number of hole cards of each player */
+    public static final int HOLE_CARDS = 2;
+
+    /** Number of cards in a complete board */
+    public static final int BOARD_CARDS = 5;
+
+    /** Standard errors in a 95% confidence interval */
+    public static final double CONFIDENCE_Z = 1.959963984540054;
+
+    /** Number of random boards dealt by one Monte Carlo task */
+    public static final int BATCH_BOARDS = 4096;
+
+    /** Exhaustive enumerations missing at least this many cards run in parallel */
+    private static final int PARALLEL_CARDS = 3;
+
+    /** CardSet of each player's hole cards */
+    private final long[] holes;
+
+    /** CardSet of the board cards already dealt */
+    private final long board;
+
+    /** HoldemEvaluator rank count key of each player's hole cards */
+    private final long[] holeKeys;
+
+    /** Ordinals of the cards not held by a player or on the board */
+    private final int[] rest;
+
+    /** HoldemEvaluator rank count key of each card in rest */
+    private final long[] restKeys;
+
+    /** Number of board cards still to deal */
+    private final int missing;
+
+
+    /**
+     * EquityCalculator constructor.
+     *
+     * @param holes hole cards of each player, two per player
+     * @param board board cards already dealt: none, three, four or five
+     * @throws IllegalArgumentException if null hole cards
+     * @throws IllegalArgumentException if invalid player count
+     * @throws IllegalArgumentException if invalid hole cards
+     * @throws IllegalArgumentException if invalid board
+     * @throws IllegalArgumentException if duplicate card
+     */
+    public EquityCalculator(Card[][] holes, Card[] board) {
+        this(holeSets(holes), boardSet(board));
+    }
+
+
+    /**
+     * EquityCalculator constructor taking CardSets.
+     *
+     * @param holes CardSet of each player's two hole cards
+     * @param board CardSet of the board cards already dealt: none, three, four or five
+     * @throws IllegalArgumentException if null hole cards
+     * @throws IllegalArgumentException if invalid player count
+     * @throws IllegalArgumentException if invalid hole cards
+     * @throws IllegalArgumentException if invalid board
+     * @throws IllegalArgumentException if duplicate card
+     */
+    public EquityCalculator(long[] holes, long board) {
+
+        // Parameter error checking - null hole cards
+        if (holes == null) {
+            throw new IllegalArgumentException("Null hole cards");
+        }
+
+        // Parameter error checking - invalid player count
+        if (holes.length < MIN_PLAYERS || holes.length > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Invalid player count");
+        }
+
+        int boardCards = CardSet.size(board);
+
+        // Parameter error checking - invalid board
+        if ((board & ~CardSet.FULL_DECK) != 0 || boardCards == 1 || boardCards == 2
+            || boardCards > BOARD_CARDS) {
+            throw new IllegalArgumentException("Invalid board");
+        }
+
+        long dead = board;
+        int cards = boardCards;
+        for (long hole : holes) {
+
+            // Parameter error checking - invalid hole cards
+            if (CardSet.size(hole) != HOLE_CARDS || (hole & ~CardSet.FULL_DECK) != 0) {
+                throw new IllegalArgumentException("Invalid hole cards");
+            }
+
+            dead |= hole;
+            cards += HOLE_CARDS;
+        }
+
+        // Parameter error checking - duplicate card
+        if (CardSet.size(dead) != cards) {
+            throw new IllegalArgumentException("Duplicate card");
+        }
+
+        this.holes = holes.clone();
+        this.board = board;
+        this.missing = BOARD_CARDS - boardCards;
+        this.holeKeys = new long[holes.length];
+        this.rest = new int[Card.CARDS - cards];
+        this.restKeys = new long[rest.length];
+
+        for (int p = 0; p < holes.length; p++) {
+            holeKeys[p] = HoldemEvaluator.rankKey(holes[p]);
+        }
+
+        long left = CardSet.removeAll(CardSet.FULL_DECK, dead);
+        for (int i = 0; i < rest.length; i++) {
+            rest[i] = Long.numberOfTrailingZeros(left);
+            restKeys[i] = HoldemEvaluator.rankKey(CardSet.ofOrdinal(rest[i]));
+            left &= left - 1;
+        }
+    }
+
+
+    /**
+     * Returns the number of players.
+     *
+     * @return players
+     */
+    public int getPlayers() {
+        return holes.length;
+    }
+
+
+    /**
+     * Returns the number of possible boards.
+     *
+     * @return boards dealing the missing cards from the cards left
+     */
+    public long getBoardCount() {
+        long boards = 1;
+        for (int i = 0; i < missing; i++) {
+            boards = boards * (rest.length - i) / (i + 1);
+        }
+        return boards;
+    }
+
+
+    /**
+     * Computes exact equities by dealing every remaining board.
+     *
+     * @return counts over every board
+     */
+    public EquityResult exhaustive() {
+        EquityResult result = new EquityResult(holes.length, true);
+
+        if (missing < PARALLEL_CARDS) {
+            countBoards(0, missing, board, HoldemEvaluator.rankKey(board), new int[holes.length],
+                        result);
+            return result;
+        }
+
+        BoardTask[] tasks = new BoardTask[rest.length - missing + 1];
+        for (int first = 0; first < tasks.length; first++) {
+            tasks[first] = new BoardTask(first);
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        for (BoardTask task : tasks) {
+            result.merge(task.getRawResult());
+        }
+        return result;
+    }
+
+
+    /**
+     * Estimates equities from random boards, stopping once every player's
+     * 95% confidence interval is no wider than halfWidth on either side or
+     * maxBoards boards have been dealt.
+     *
+     * @param halfWidth largest accepted half-width of each interval
+     * @param maxBoards most boards to deal
+     * @param seed seed of the master random stream
+     * @return counts over the dealt boards
+     * @throws IllegalArgumentException if invalid halfWidth
+     * @throws IllegalArgumentException if invalid maxBoards
+     */
+    public EquityResult monteCarlo(double halfWidth, long maxBoards, long seed) {
+
+        // Parameter error checking - invalid halfWidth
+        if (!(halfWidth > 0)) {
+            throw new IllegalArgumentException("Invalid halfWidth");
+        }
+
+        // Parameter error checking - invalid maxBoards
+        if (maxBoards < 1) {
+            throw new IllegalArgumentException("Invalid maxBoards");
+        }
+
+        EquityResult result = new EquityResult(holes.length, false);
+        CounterRandom master = new CounterRandom(seed);
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long batches = maxBoards / BATCH_BOARDS + (maxBoards % BATCH_BOARDS == 0 ? 0 : 1);
+
+        for (long next = 0; next < batches; ) {
+            SampleTask[] tasks = new SampleTask[(int) Math.min(parallelism, batches - next)];
+            for (int i = 0; i < tasks.length; i++) {
+                long batch = next + i;
+                int boards = (int) Math.min(BATCH_BOARDS, maxBoards - batch * BATCH_BOARDS);
+                tasks[i] = new SampleTask(master.stream(batch), boards);
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            // Later batches of the round are dropped once the target is met
+            for (SampleTask task : tasks) {
+                result.merge(task.getRawResult());
+                next++;
+                if (converged(result, halfWidth)) {
+                    return result;
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns whether every player's confidence interval is narrow enough.
+     *
+     * @param result counts so far
+     * @param halfWidth largest accepted half-width
+     * @return true if every interval is within halfWidth
+               false if not
+     */
+    private static boolean converged(EquityResult result, double halfWidth) {
+        for (int p = 0; p < result.getPlayers(); p++) {
+            if (result.getHalfWidth(p, CONFIDENCE_Z) > halfWidth) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Counts every board completing the given cards with the given number
+     * of cards from rest[start] onward.
+     *
+     * @param start index of the first card that may be dealt
+     * @param cards number of cards to deal
+     * @param dealt CardSet of the board so far
+     * @param key rank count key of the board so far
+     * @param values scratch array of one hand value per player
+     * @param result counts to add to
+     */
+    private void countBoards(int start, int cards, long dealt, long key, int[] values,
+                             EquityResult result) {
+        if (cards == 0) {
+            countBoard(dealt, key, values, result);
+            return;
+        }
+
+        for (int a = start; a <= rest.length - cards; a++) {
+            countBoards(a + 1, cards - 1, dealt | CardSet.ofOrdinal(rest[a]), key + restKeys[a],
+                        values, result);
+        }
+    }
+
+
+    /**
+     * Values every player's hand on a complete board and counts the board.
+     * The board's rank count key is added to each player's once, rather
+     * than summing all seven cards for every player.
+     *
+     * @param dealt CardSet of the five board cards
+     * @param key rank count key of the board
+     * @param values scratch array of one hand value per player
+     * @param result counts to add to
+     */
+    private void countBoard(long dealt, long key, int[] values, EquityResult result) {
+        int best = 0;
+        int winners = 0;
+        for (int p = 0; p < holes.length; p++) {
+            int value = HoldemEvaluator.evaluateFolded(holes[p] | dealt, holeKeys[p] + key);
+            values[p] = value;
+            if (value > best) {
+                best = value;
+                winners = 1;
+            } else if (value == best) {
+                winners++;
+            }
+        }
+        result.recordBoard(values, best, winners);
+    }
+
+
+    /**
+     * Returns the CardSets of each player's hole cards.
+     *
+     * @param holes hole cards of each player
+     * @return CardSet of each player's hole cards
+     * @throws IllegalArgumentException if null hole cards
+     * @throws IllegalArgumentException if invalid hole cards
+     */
+    private static long[] holeSets(Card[][] holes) {
+
+        // Parameter error checking - null hole cards
+        if (holes == null) {
+            throw new IllegalArgumentException("Null hole cards");
+        }
+
+        long[] sets = new long[holes.length];
+        for (int p = 0; p < holes.length; p++) {
+
+            // Parameter error checking - invalid hole cards
+            if (holes[p] == null || holes[p].length != HOLE_CARDS
+                || holes[p][0] == null || holes[p][1] == null) {
+                throw new IllegalArgumentException("Invalid hole cards");
+            }
+
+            // Two equal cards leave one bit, reported as a duplicate rather than invalid
+            sets[p] = CardSet.of(holes[p]);
+            if (CardSet.size(sets[p]) != HOLE_CARDS) {
+                throw new IllegalArgumentException("Duplicate card");
+            }
+        }
+        return sets;
+    }
+
+
+    /**
+     * Returns the CardSet of the board cards.
+     *
+     * @param board board cards, or null for none
+     * @return CardSet of the board
+     * @throws IllegalArgumentException if invalid board
+     * @throws IllegalArgumentException if duplicate card
+     */
+    private static long boardSet(Card[] board) {
+        if (board == null) {
+            return CardSet.EMPTY;
+        }
+
+        for (Card card : board) {
+
+            // Parameter error checking - invalid board
+            if (card == null) {
+                throw new IllegalArgumentException("Invalid board");
+            }
+        }
+
+        long set = CardSet.of(board);
+
+        // Parameter error checking - duplicate card
+        if (CardSet.size(set) != board.length) {
+            throw new IllegalArgumentException("Duplicate card");
+        }
+
+        return set;
+    }
+
+
+    /**
+     * Counts the boards whose first dealt card is fixed.
+     */
+    private class BoardTask extends RecursiveTask<EquityResult> {
+
+        /** Serialization version of the task */
+        private static final long serialVersionUID = 1L;
+
+        /** Index in rest of the first dealt card */
+        private final int first;
+
+        /**
+         * BoardTask constructor.
+         *
+         * @param first index in rest of the first dealt card
+         */
+        BoardTask(int first) {
+            this.first = first;
+        }
+
+        /**
+         * Counts the boards starting with the first card.
+         *
+         * @return counts of the boards
+         */
+        protected EquityResult compute() {
+            EquityResult result = new EquityResult(holes.length, true);
+            countBoards(first + 1, missing - 1, board | CardSet.ofOrdinal(rest[first]),
+                        HoldemEvaluator.rankKey(board) + restKeys[first], new int[holes.length],
+                        result);
+            return result;
+        }
+    }
+
+
+    /**
+     * Counts one batch of random boards.
+     */
+    private class SampleTask extends RecursiveTask<EquityResult> {
+
+        /** Serialization version of the task */
+        private static final long serialVersionUID = 1L;
+
+        /** Random stream dealing the batch */
+        private final CounterRandom random;
+
+        /** Number of boards to deal */
+        private final int boards;
+
+        /**
+         * SampleTask constructor.
+         *
+         * @param random random stream dealing the batch
+         * @param boards number of boards to deal
+         */
+        SampleTask(CounterRandom random, int boards) {
+            this.random = random;
+            this.boards = boards;
+        }
+
+        /**
+         * Deals and counts the boards.
+         *
+         * @return counts of the boards
+         */
+        protected EquityResult compute() {
+            EquityResult result = new EquityResult(holes.length, false);
+            int[] deck = rest.clone();
+            long[] deckKeys = restKeys.clone();
+            long boardKey = HoldemEvaluator.rankKey(board);
+            int[] values = new int[holes.length];
+
+            for (int b = 0; b < boards; b++) {
+                // Deal by partial Fisher-Yates; the deck stays a permutation between boards
+                long dealt = board;
+                long key = boardKey;
+                for (int i = 0; i < missing; i++) {
+                    int chosen = i + random.nextInt(deck.length - i);
+                    int card = deck[chosen];
+                    long cardKey = deckKeys[chosen];
+                    deck[chosen] = deck[i];
+                    deckKeys[chosen] = deckKeys[i];
+                    deck[i] = card;
+                    deckKeys[i] = cardKey;
+                    dealt |= CardSet.ofOrdinal(card);
+                    key += cardKey;
+                }
+                countBoard(dealt, key, values, result);
+            }
+            return result;
+        }
+    }
+
+
+    /**
+     * Parses cards written as by Card.toString(), such as s14 for the ace of
+     * spades, separated by commas.
+     *
+     * @param cards comma separated cards
+     * @return parsed cards
+     */
+    private static Card[] parseCards(String cards) {
+        String[] names = cards.split(",");
+        Card[] parsed = new Card[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parsed[i] = Card.of(Integer.parseInt(names[i].substring(1)), names[i].charAt(0));
+        }
+        return parsed;
+    }
+
+
+    /**
+     * Computes and prints the equities of a hand exactly and by sampling.
+     *
+     * @param args board cards or - for none, then each player's hole cards,
+     *        cards written as by Card.toString() and separated by commas
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 + MIN_PLAYERS || args.length > 1 + MAX_PLAYERS) {
+            System.out.println("Usage: java -cp bin EquityCalculator <board|-> <hole> <hole> "
+                               + "[hole...]   e.g. - s14,h14 c13,d12");
+            return;
+        }
+
+        Card[] board = args[0].equals("-") ? null : parseCards(args[0]);
+        Card[][] holes = new Card[args.length - 1][];
+        for (int p = 0; p < holes.length; p++) {
+            holes[p] = parseCards(args[p + 1]);
+        }
+        EquityCalculator calculator = new EquityCalculator(holes, board);
+
+        long start = System.nanoTime();
+        EquityResult sampled = calculator.monteCarlo(0.005, calculator.getBoardCount(), 1);
+        System.out.print(sampled);
+        System.out.printf("%.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        start = System.nanoTime();
+        System.out.print(calculator.exhaustive());
+        System.out.printf("%.2f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
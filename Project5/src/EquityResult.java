@@ -0,0 +1,228 @@
+/**
+ * Win, tie and equity counts of Hold'em players over a set of boards.
+ *
+ * Each board splits a pot of UNITS units equally between the players with
+ * the best hand. UNITS is divisible by every player count up to
+ * EquityCalculator.MAX_PLAYERS, so shares of split pots are exact and a
+ * player's equity is their units over the units of every board. Each
+ * calculation thread fills its own result and the results are merged
+ * when the threads finish.
+ *
+ * @author Will Greene
+ */
+public class EquityResult {
+
+    /** Units in the pot of one board, the least common multiple of 1 to 10 */
+    public static final int UNITS = 2520;
+
+    /** Pot units won by each winner, indexed by the number of winners */
+    private static final long[] SHARES = new long[EquityCalculator.MAX_PLAYERS + 1];
+
+    static {
+        for (int winners = 1; winners < SHARES.length; winners++) {
+            SHARES[winners] = UNITS / winners;
+        }
+    }
+
+    /** Number of boards counted */
+    private long boards;
+
+    /** Number of boards each player won alone */
+    private final long[] wins;
+
+    /** Number of boards each player split with others */
+    private final long[] ties;
+
+    /** Pot units won by each player */
+    private final long[] shares;
+
+    /** Sum of the squared pot units won by each player on each board */
+    private final long[] squares;
+
+    /** Whether every possible board was counted */
+    private final boolean exact;
+
+
+    /**
+     * EquityResult constructor.
+     *
+     * @param players number of players
+     * @param exact whether every possible board is counted
+     */
+    EquityResult(int players, boolean exact) {
+        this.wins = new long[players];
+        this.ties = new long[players];
+        this.shares = new long[players];
+        this.squares = new long[players];
+        this.exact = exact;
+    }
+
+
+    /**
+     * Records one board.
+     *
+     * @param values hand value of each player on the board
+     * @param best highest of the values
+     * @param winners number of players holding the highest value
+     */
+    void recordBoard(int[] values, int best, int winners) {
+        boards++;
+        long share = SHARES[winners];
+        for (int p = 0; p < wins.length; p++) {
+            if (values[p] == best) {
+                if (winners == 1) {
+                    wins[p]++;
+                } else {
+                    ties[p]++;
+                }
+                shares[p] += share;
+                squares[p] += share * share;
+            }
+        }
+    }
+
+
+    /**
+     * Adds another result's counts to this result.
+     *
+     * @param other result to add
+     */
+    void merge(EquityResult other) {
+        boards += other.boards;
+        for (int p = 0; p < wins.length; p++) {
+            wins[p] += other.wins[p];
+            ties[p] += other.ties[p];
+            shares[p] += other.shares[p];
+            squares[p] += other.squares[p];
+        }
+    }
+
+
+    /**
+     * Returns the number of players.
+     *
+     * @return players
+     */
+    public int getPlayers() {
+        return wins.length;
+    }
+
+
+    /**
+     * Returns the number of boards counted.
+     *
+     * @return boards
+     */
+    public long getBoards() {
+        return boards;
+    }
+
+
+    /**
+     * Returns whether every possible board was counted, so the equities
+     * are exact rather than estimates.
+     *
+     * @return true if exact
+               false if sampled
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+
+    /**
+     * Returns the number of boards a player won alone.
+     *
+     * @param player player number
+     * @return boards won
+     */
+    public long getWins(int player) {
+        return wins[player];
+    }
+
+
+    /**
+     * Returns the number of boards a player split with others.
+     *
+     * @param player player number
+     * @return boards tied
+     */
+    public long getTies(int player) {
+        return ties[player];
+    }
+
+
+    /**
+     * Returns the fraction of boards a player won alone.
+     *
+     * @param player player number
+     * @return win probability, or 0 if no boards
+     */
+    public double getWinProbability(int player) {
+        return boards == 0 ? 0 : (double) wins[player] / boards;
+    }
+
+
+    /**
+     * Returns the fraction of boards a player split with others.
+     *
+     * @param player player number
+     * @return tie probability, or 0 if no boards
+     */
+    public double getTieProbability(int player) {
+        return boards == 0 ? 0 : (double) ties[player] / boards;
+    }
+
+
+    /**
+     * Returns a player's expected share of the pot, counting a split pot
+     * as an equal share to each winner.
+     *
+     * @param player player number
+     * @return equity from 0 to 1, or 0 if no boards
+     */
+    public double getEquity(int player) {
+        return boards == 0 ? 0 : (double) shares[player] / ((double) boards * UNITS);
+    }
+
+
+    /**
+     * Returns the half-width of the confidence interval of a player's
+     * equity: z standard errors of the mean share per board.
+     *
+     * @param player player number
+     * @param z number of standard errors, such as EquityCalculator.CONFIDENCE_Z
+     * @return half-width; 0 if exact, infinite if fewer than two boards
+     */
+    public double getHalfWidth(int player, double z) {
+        if (exact) {
+            return 0;
+        }
+        if (boards < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double mean = (double) shares[player] / boards;
+        double variance = ((double) squares[player] / boards - mean * mean) * boards / (boards - 1);
+        return z * Math.sqrt(Math.max(variance, 0) / boards) / UNITS;
+    }
+
+
+    /**
+     * Returns each player's equity, win and tie probability, one per line.
+     *
+     * @return summary of the result
+     */
+    public String toString() {
+        String s = (exact ? "exact over " : "sampled over ") + boards + " boards\n";
+        for (int p = 0; p < wins.length; p++) {
+            s += String.format("player %d: equity %.4f, win %.4f, tie %.4f", p + 1, getEquity(p),
+                               getWinProbability(p), getTieProbability(p));
+            if (!exact) {
+                s += String.format(" +- %.4f", getHalfWidth(p, EquityCalculator.CONFIDENCE_Z));
+            }
+            s += "\n";
+        }
+        return s;
+    }
+}
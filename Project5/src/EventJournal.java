@@ -0,0 +1,691 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only binary journal of every game event, written to memory-mapped
+ * segment files.
+ *
+ * Each event is one fixed-size record: the session id, the time, the event
+ * type, an argument (the replaced index or the scored category), up to five
+ * card ordinals, the points won or spent and the points held afterwards.
+ * An OPEN record instead holds the key of the session's CounterRandom in
+ * its last eight bytes, which is everything needed to deal the session's
+ * games again.
+ *
+ * Appending copies the record into the mapped segment, so it costs no
+ * system call. A background thread forces the written part of the segment
+ * to disk every commit interval, covering every record appended since the
+ * last force in one write (group commit). A caller that must know its
+ * records are durable calls commit(), which waits for the next force
+ * instead of forcing on its own. When a segment is full it is forced and a
+ * new one is mapped.
+ *
+ * Segment layout, little-endian: a header of magic, version, record size
+ * (three ints) and padding to RECORD_BYTES, then records until the first
+ * record whose type is 0. Record layout: session id (long), time in epoch
+ * milliseconds (long), type (byte), argument (byte), cards (5 bytes),
+ * padding (byte), points delta (int), points after (int).
+ *
+ * @author Will Greene
+ */
+public class EventJournal implements Closeable {
+
+    /** Marks a journal segment ("VPEJ") */
+    public static final int MAGIC = 0x5650454A;
+
+    /** File format version */
+    public static final int VERSION = 1;
+
+    /** Bytes in each record, and in the segment header */
+    public static final int RECORD_BYTES = 32;
+
+    /** Segment size used when none is given */
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+
+    /** Commit interval used when none is given, in milliseconds */
+    public static final long DEFAULT_COMMIT_MILLIS = 10;
+
+    /** Record type of a session being opened */
+    public static final int OPEN = 1;
+
+    /** Record type of a hand being dealt */
+    public static final int DEAL = 2;
+
+    /** Record type of a card being replaced */
+    public static final int REPLACE = 3;
+
+    /** Record type of a hand being scored */
+    public static final int SCORE = 4;
+
+    /** Record type of a session being closed */
+    public static final int CLOSE = 5;
+
+    /** Offset of the session id in a record */
+    private static final int SESSION = 0;
+
+    /** Offset of the time in a record */
+    private static final int TIME = 8;
+
+    /** Offset of the type in a record */
+    private static final int TYPE = 16;
+
+    /** Offset of the argument in a record */
+    private static final int ARGUMENT = 17;
+
+    /** Offset of the cards in a record */
+    private static final int CARDS = 18;
+
+    /** Offset of the points delta in a record */
+    private static final int DELTA = 24;
+
+    /** Offset of the points after the event in a record */
+    private static final int POINTS = 28;
+
+    /** Offset of the random stream key in an OPEN record */
+    private static final int KEY = 24;
+
+    /** Directory holding the segments */
+    private final Path directory;
+
+    /** Bytes in each segment */
+    private final int segmentBytes;
+
+    /** Time between forces by the commit thread, in milliseconds */
+    private final long commitMillis;
+
+    /** Thread forcing appended records to disk */
+    private final Thread committer;
+
+    /** Segment being appended to */
+    private MappedByteBuffer segment;
+
+    /** Number of the segment being appended to */
+    private int segmentNumber;
+
+    /** Offset of the next record in the segment */
+    private int position;
+
+    /** Offset in the segment up to which records are known to be forced */
+    private int forcedPosition;
+
+    /** Number of records appended */
+    private long sequence;
+
+    /** Highest session id in the journal, including earlier segments */
+    private long highestSessionId;
+
+    /** Number of records forced to disk, guarded by the commit lock */
+    private long durable;
+
+    /** Whether a committer is waiting, guarded by the commit lock */
+    private boolean commitRequested;
+
+    /** Whether the journal is closed */
+    private volatile boolean closed;
+
+    /** Lock and condition for commits */
+    private final Object commitLock = new Object();
+
+
+    /**
+     * EventJournal constructor with the default segment size and commit interval.
+     *
+     * @param directory directory for the segments, created if missing
+     * @throws IOException if the directory or first segment cannot be created
+     */
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_COMMIT_MILLIS);
+    }
+
+
+    /**
+     * EventJournal constructor. Appends to new segments after any already
+     * in the directory, reading them for their highest session id.
+     *
+     * @param directory directory for the segments, created if missing
+     * @param segmentBytes bytes in each segment, a multiple of RECORD_BYTES
+     * @param commitMillis time between forces to disk, in milliseconds
+     * @throws IOException if the directory or first segment cannot be created,
+     *         or an existing segment cannot be read
+     * @throws IllegalArgumentException if an existing file is not a journal segment
+     * @throws IllegalArgumentException if invalid segment size
+     * @throws IllegalArgumentException if invalid commit interval
+     */
+    public EventJournal(Path directory, int segmentBytes, long commitMillis) throws IOException {
+
+        // Parameter error checking - invalid segment size
+        if (segmentBytes < 2 * RECORD_BYTES || segmentBytes % RECORD_BYTES != 0) {
+            throw new IllegalArgumentException("Invalid segment size");
+        }
+
+        // Parameter error checking - invalid commit interval
+        if (commitMillis <= 0) {
+            throw new IllegalArgumentException("Invalid commit interval");
+        }
+
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.commitMillis = commitMillis;
+
+        Files.createDirectories(directory);
+        List<Path> existing = segments(directory);
+        for (Path file : existing) {
+            ByteBuffer records = read(file);
+            for (int at = records.position(); at < records.limit(); at += RECORD_BYTES) {
+                highestSessionId = Math.max(highestSessionId, sessionId(records, at));
+            }
+        }
+        segmentNumber = existing.isEmpty() ? 0 : number(existing.get(existing.size() - 1));
+        roll();
+
+        committer = new Thread(this::commitLoop, "journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+
+    /**
+     * Returns the segment files of a journal in the order they were written.
+     *
+     * @param directory journal directory
+     * @return segment files
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<Path>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(f -> f.getFileName().toString().matches("\\d{8}\\.journal"))
+                 .sorted()
+                 .forEach(segments::add);
+        }
+
+        return segments;
+    }
+
+
+    /**
+     * Maps a segment for reading. The returned buffer's position is at the
+     * first record and its limit is after the last record written.
+     *
+     * @param segment segment file
+     * @return read-only little-endian buffer of the records
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a journal segment
+     */
+    public static ByteBuffer read(Path segment) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < RECORD_BYTES || buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_BYTES) {
+            throw new IllegalArgumentException("Invalid journal segment");
+        }
+
+        // Records are written in order into a zeroed file, so find the first empty one
+        int low = 1;
+        int high = buffer.capacity() / RECORD_BYTES;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.get(middle * RECORD_BYTES + TYPE) != 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        buffer.limit(low * RECORD_BYTES);
+        buffer.position(RECORD_BYTES);
+        return buffer;
+    }
+
+
+    /**
+     * Returns the session id of a record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return session id
+     */
+    public static long sessionId(ByteBuffer records, int offset) {
+        return records.getLong(offset + SESSION);
+    }
+
+
+    /**
+     * Returns the time of a record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return time in epoch milliseconds
+     */
+    public static long time(ByteBuffer records, int offset) {
+        return records.getLong(offset + TIME);
+    }
+
+
+    /**
+     * Returns the type of a record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return OPEN, DEAL, REPLACE, SCORE or CLOSE
+     */
+    public static int type(ByteBuffer records, int offset) {
+        return records.get(offset + TYPE);
+    }
+
+
+    /**
+     * Returns the argument of a record: the index of a replaced card or the
+     * category of a scored hand.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return argument
+     */
+    public static int argument(ByteBuffer records, int offset) {
+        return records.get(offset + ARGUMENT);
+    }
+
+
+    /**
+     * Returns a card of a record: one of the five dealt cards, or at index
+     * 0 the card drawn by a replace.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @param index card index
+     * @return card ordinal
+     */
+    public static int card(ByteBuffer records, int offset, int index) {
+        return records.get(offset + CARDS + index);
+    }
+
+
+    /**
+     * Returns the points won (positive) or spent (negative) in a record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return points delta
+     */
+    public static int delta(ByteBuffer records, int offset) {
+        return records.getInt(offset + DELTA);
+    }
+
+
+    /**
+     * Returns the points held after the event of a record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return points
+     */
+    public static int points(ByteBuffer records, int offset) {
+        return records.getInt(offset + POINTS);
+    }
+
+
+    /**
+     * Returns the random stream key of an OPEN record.
+     *
+     * @param records buffer returned by read()
+     * @param offset offset of the record
+     * @return CounterRandom key
+     */
+    public static long key(ByteBuffer records, int offset) {
+        return records.getLong(offset + KEY);
+    }
+
+
+    /**
+     * Records a session being opened.
+     *
+     * @param sessionId session id
+     * @param key key of the session's CounterRandom, positioned at its start
+     * @return sequence number of the record
+     */
+    public long open(long sessionId, long key) {
+        synchronized (this) {
+            int offset = reserve(sessionId, 0);
+            segment.putLong(offset + KEY, key);
+            return complete(offset, OPEN);
+        }
+    }
+
+
+    /**
+     * Records a hand being dealt.
+     *
+     * @param sessionId session id
+     * @param c0 ordinal of the card at index 0
+     * @param c1 ordinal of the card at index 1
+     * @param c2 ordinal of the card at index 2
+     * @param c3 ordinal of the card at index 3
+     * @param c4 ordinal of the card at index 4
+     * @param delta points spent, as a negative number
+     * @param points points held after the deal
+     * @return sequence number of the record
+     */
+    public long deal(long sessionId, int c0, int c1, int c2, int c3, int c4, int delta,
+                     int points) {
+        synchronized (this) {
+            int offset = reserve(sessionId, 0);
+            segment.put(offset + CARDS, (byte) c0);
+            segment.put(offset + CARDS + 1, (byte) c1);
+            segment.put(offset + CARDS + 2, (byte) c2);
+            segment.put(offset + CARDS + 3, (byte) c3);
+            segment.put(offset + CARDS + 4, (byte) c4);
+            segment.putInt(offset + DELTA, delta);
+            segment.putInt(offset + POINTS, points);
+            return complete(offset, DEAL);
+        }
+    }
+
+
+    /**
+     * Records a card being replaced.
+     *
+     * @param sessionId session id
+     * @param index index of the replaced card
+     * @param card ordinal of the card drawn
+     * @param points points held
+     * @return sequence number of the record
+     */
+    public long replace(long sessionId, int index, int card, int points) {
+        synchronized (this) {
+            int offset = reserve(sessionId, index);
+            segment.put(offset + CARDS, (byte) card);
+            segment.putInt(offset + POINTS, points);
+            return complete(offset, REPLACE);
+        }
+    }
+
+
+    /**
+     * Records a hand being scored.
+     *
+     * @param sessionId session id
+     * @param category category of the hand
+     * @param payout points won
+     * @param points points held after the payout
+     * @return sequence number of the record
+     */
+    public long score(long sessionId, int category, int payout, int points) {
+        synchronized (this) {
+            int offset = reserve(sessionId, category);
+            segment.putInt(offset + DELTA, payout);
+            segment.putInt(offset + POINTS, points);
+            return complete(offset, SCORE);
+        }
+    }
+
+
+    /**
+     * Records a session being closed.
+     *
+     * @param sessionId session id
+     * @param points points held
+     * @return sequence number of the record
+     */
+    public long close(long sessionId, int points) {
+        synchronized (this) {
+            int offset = reserve(sessionId, 0);
+            segment.putInt(offset + POINTS, points);
+            return complete(offset, CLOSE);
+        }
+    }
+
+
+    /**
+     * Returns the highest session id recorded in the journal, counting the
+     * segments already in the directory when it was opened.
+     *
+     * @return highest session id, or 0 if none
+     */
+    public synchronized long getHighestSessionId() {
+        return highestSessionId;
+    }
+
+
+    /**
+     * Returns the number of records appended.
+     *
+     * @return sequence number of the last record
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+
+    /**
+     * Waits until a record and every record before it are on disk. Many
+     * threads waiting at once are released by the same force.
+     *
+     * @param sequence sequence number returned when the record was appended
+     * @throws InterruptedException if interrupted while waiting
+     * @throws IllegalStateException if the journal is closed first
+     */
+    public void commit(long sequence) throws InterruptedException {
+        synchronized (commitLock) {
+            while (durable < sequence) {
+                if (closed) {
+                    throw new IllegalStateException("Journal closed");
+                }
+                // Only the first committer wakes the commit thread; waking
+                // every time lets waiting committers wake each other forever
+                if (!commitRequested) {
+                    commitRequested = true;
+                    commitLock.notifyAll();
+                }
+                commitLock.wait();
+            }
+        }
+    }
+
+
+    /**
+     * Forces every record to disk, stops the commit thread and closes the journal.
+     *
+     * @throws IOException if the records cannot be forced
+     */
+    public void close() throws IOException {
+        synchronized (commitLock) {
+            closed = true;
+            commitLock.notifyAll();
+        }
+
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        force();
+    }
+
+
+    /**
+     * Writes the common fields of a record except its type, rolling to a new
+     * segment if the current one is full. Called with the journal locked.
+     *
+     * @param sessionId session id
+     * @param argument record argument
+     * @return offset of the record in the segment
+     * @throws IllegalStateException if the journal is closed
+     */
+    private int reserve(long sessionId, int argument) {
+        if (closed) {
+            throw new IllegalStateException("Journal closed");
+        }
+
+        if (position == segmentBytes) {
+            try {
+                forceSegment();
+                roll();
+            } catch (IOException e) {
+                throw new IllegalStateException("Journal segment failed", e);
+            }
+        }
+
+        int offset = position;
+        position += RECORD_BYTES;
+        sequence++;
+        highestSessionId = Math.max(highestSessionId, sessionId);
+
+        segment.putLong(offset + SESSION, sessionId);
+        segment.putLong(offset + TIME, System.currentTimeMillis());
+        segment.put(offset + ARGUMENT, (byte) argument);
+        return offset;
+    }
+
+
+    /**
+     * Writes the type of a record whose other fields are written. The type
+     * goes last, so a record with a type is a complete record. Called with
+     * the journal locked.
+     *
+     * @param offset offset of the record in the segment
+     * @param type record type
+     * @return sequence number of the record
+     */
+    private long complete(int offset, int type) {
+        segment.put(offset + TYPE, (byte) type);
+        return sequence;
+    }
+
+
+    /**
+     * Creates and maps the next segment. Called with the journal locked or
+     * from the constructor.
+     *
+     * @throws IOException if the segment cannot be created
+     */
+    private void roll() throws IOException {
+        segmentNumber++;
+        Path file = directory.resolve(String.format("%08d.journal", segmentNumber));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(segmentBytes);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, VERSION);
+        segment.putInt(8, RECORD_BYTES);
+        position = RECORD_BYTES;
+        forcedPosition = 0;
+    }
+
+
+    /**
+     * Forces the unforced records of the current segment and marks every
+     * record appended so far durable. Called with the journal locked.
+     * Starts from the last completed force, so it also covers a range the
+     * commit thread is still forcing.
+     */
+    private void forceSegment() {
+        segment.force(forcedPosition, position - forcedPosition);
+        forcedPosition = position;
+        markDurable(sequence);
+    }
+
+
+    /**
+     * Forces every appended record to disk.
+     */
+    private void force() {
+        MappedByteBuffer buffer;
+        int from;
+        int to;
+        long upTo;
+
+        // Take the range under the lock but force outside it, so appends continue
+        synchronized (this) {
+            buffer = segment;
+            from = forcedPosition;
+            to = position;
+            upTo = sequence;
+        }
+
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+
+        // Only a finished force moves the mark, and not if the segment rolled meanwhile
+        synchronized (this) {
+            if (segment == buffer && to > forcedPosition) {
+                forcedPosition = to;
+            }
+        }
+        markDurable(upTo);
+    }
+
+
+    /**
+     * Raises the durable sequence number and wakes committers.
+     *
+     * @param upTo sequence number of the last forced record
+     */
+    private void markDurable(long upTo) {
+        synchronized (commitLock) {
+            if (upTo > durable) {
+                durable = upTo;
+            }
+            commitRequested = false;
+            commitLock.notifyAll();
+        }
+    }
+
+
+    /**
+     * Forces appended records every commit interval, or sooner when a
+     * committer is waiting, until the journal is closed.
+     */
+    private void commitLoop() {
+        while (true) {
+            synchronized (commitLock) {
+                if (!closed && !commitRequested) {
+                    try {
+                        commitLock.wait(commitMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+
+            force();
+        }
+    }
+
+
+    /**
+     * Returns the number of a segment file.
+     *
+     * @param segment segment file
+     * @return segment number
+     */
+    private static int number(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.indexOf('.')));
+    }
+}
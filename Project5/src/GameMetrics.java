@@ -0,0 +1,243 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the hot paths of VideoPoker, Deck
+ * and Hand, shared by every game in the process.
+ *
+ * Metrics are off unless the JVM is started with -Dpoker.metrics=true.
+ * Every call site is guarded by the constant ENABLED, so when it is false
+ * the JIT removes the guarded code and the hot paths run exactly as
+ * without metrics. When it is true, counters are LongAdders and latencies
+ * go to LatencyHistograms, so games on many threads update them without
+ * contending on one memory location.
+ *
+ * Metrics can be polled one at a time with the getters or read together
+ * with snapshot().
+ *
+ * @author Will Greene
+ */
+public class GameMetrics {
+
+    /** System property that turns metrics on */
+    public static final String PROPERTY = "poker.metrics";
+
+    /** Whether the hot paths record metrics, fixed when the class loads */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /** Number of hands dealt by newGame() */
+    private static final LongAdder handsDealt = new LongAdder();
+
+    /** Number of cards replaced by replaceCard() */
+    private static final LongAdder cardsReplaced = new LongAdder();
+
+    /** Number of hands classified by Hand.getCategory() */
+    private static final LongAdder handsEvaluated = new LongAdder();
+
+    /** Points spent starting games */
+    private static final LongAdder pointsWagered = new LongAdder();
+
+    /** Points paid for scored hands */
+    private static final LongAdder pointsPaid = new LongAdder();
+
+    /** Number of scored hands in each category */
+    private static final LongAdder[] categoryCounts = new LongAdder[HandEvaluator.CATEGORIES];
+
+    /** Latency of scoring a hand */
+    private static final LatencyHistogram scoreLatency = new LatencyHistogram();
+
+    /** Latency of shuffling a deck */
+    private static final LatencyHistogram shuffleLatency = new LatencyHistogram();
+
+    static {
+        for (int i = 0; i < categoryCounts.length; i++) {
+            categoryCounts[i] = new LongAdder();
+        }
+    }
+
+
+    /**
+     * Private constructor; GameMetrics has only static members.
+     */
+    private GameMetrics() {
+    }
+
+
+    /**
+     * Records a game dealt.
+     *
+     * @param cost points spent on the game, for every hand of multi-hand play
+     */
+    static void recordDeal(int cost) {
+        handsDealt.increment();
+        pointsWagered.add(cost);
+    }
+
+
+    /**
+     * Records a card replaced.
+     */
+    static void recordReplace() {
+        cardsReplaced.increment();
+    }
+
+
+    /**
+     * Records a hand classified.
+     */
+    static void recordEvaluation() {
+        handsEvaluated.increment();
+    }
+
+
+    /**
+     * Records a scored hand.
+     *
+     * @param category hand category
+     * @param payout points paid
+     * @param nanos time taken to score the hand
+     */
+    static void recordScore(HandCategory category, int payout, long nanos) {
+        recordHand(category, payout);
+        scoreLatency.record(nanos);
+    }
+
+
+    /**
+     * Records a hand scored without timing, such as an extra hand of
+     * multi-hand play.
+     *
+     * @param category hand category
+     * @param payout points paid
+     */
+    static void recordHand(HandCategory category, int payout) {
+        categoryCounts[category.ordinal()].increment();
+        pointsPaid.add(payout);
+    }
+
+
+    /**
+     * Records a shuffle.
+     *
+     * @param nanos time taken to shuffle
+     */
+    static void recordShuffle(long nanos) {
+        shuffleLatency.record(nanos);
+    }
+
+
+    /**
+     * Returns the number of hands dealt.
+     *
+     * @return hands dealt
+     */
+    public static long getHandsDealt() {
+        return handsDealt.sum();
+    }
+
+
+    /**
+     * Returns the number of cards replaced.
+     *
+     * @return cards replaced
+     */
+    public static long getCardsReplaced() {
+        return cardsReplaced.sum();
+    }
+
+
+    /**
+     * Returns the number of hands classified.
+     *
+     * @return hands evaluated
+     */
+    public static long getHandsEvaluated() {
+        return handsEvaluated.sum();
+    }
+
+
+    /**
+     * Returns the points spent starting games.
+     *
+     * @return points wagered
+     */
+    public static long getPointsWagered() {
+        return pointsWagered.sum();
+    }
+
+
+    /**
+     * Returns the points paid for scored hands.
+     *
+     * @return points paid
+     */
+    public static long getPointsPaid() {
+        return pointsPaid.sum();
+    }
+
+
+    /**
+     * Returns the number of scored hands in a category.
+     *
+     * @param category hand category
+     * @return hands scored in the category
+     */
+    public static long getCategoryCount(HandCategory category) {
+        return categoryCounts[category.ordinal()].sum();
+    }
+
+
+    /**
+     * Returns the latencies of scoring hands.
+     *
+     * @return snapshot of the score latency histogram
+     */
+    public static LatencyHistogram.Snapshot getScoreLatency() {
+        return scoreLatency.snapshot();
+    }
+
+
+    /**
+     * Returns the latencies of shuffling decks.
+     *
+     * @return snapshot of the shuffle latency histogram
+     */
+    public static LatencyHistogram.Snapshot getShuffleLatency() {
+        return shuffleLatency.snapshot();
+    }
+
+
+    /**
+     * Reads every metric. Each metric is read once, so the snapshot stays
+     * the same while games keep running, though metrics recorded during the
+     * call may be in some values and not others.
+     *
+     * @return snapshot of the metrics
+     */
+    public static MetricsSnapshot snapshot() {
+        long[] categories = new long[HandEvaluator.CATEGORIES];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = categoryCounts[i].sum();
+        }
+
+        return new MetricsSnapshot(getHandsDealt(), getCardsReplaced(), getHandsEvaluated(),
+                                   getPointsWagered(), getPointsPaid(), categories,
+                                   getScoreLatency(), getShuffleLatency());
+    }
+
+
+    /**
+     * Sets every metric back to zero.
+     */
+    public static void reset() {
+        handsDealt.reset();
+        cardsReplaced.reset();
+        handsEvaluated.reset();
+        pointsWagered.reset();
+        pointsPaid.reset();
+        for (LongAdder count : categoryCounts) {
+            count.reset();
+        }
+        scoreLatency.reset();
+        shuffleLatency.reset();
+    }
+}
@@ -0,0 +1,631 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Serves games of Video Poker to many players over a line protocol on a
+ * local TCP socket.
+ *
+ * Each player session is a VideoPoker game kept in a registry under a
+ * session id, so a session outlives the connection that opened it and any
+ * connection can play any session. Requests and responses are single lines
+ * of ASCII words. Every response starts with OK or ERR:
+ *
+ * OPEN [seed]              OK id points
+ * NEW id                   OK points card card card card card
+ * REPLACE id index         OK card
+ * SCORE id                 OK CATEGORY payout points
+ * CLOSE id                 OK
+ * QUIT                     closes the connection
+ *
+ * NEW, REPLACE and SCORE call newGame(), replaceCard() and score() on the
+ * session's game. Cards are written as in Card.toString(), for example h12.
+ *
+ * Sessions are kept as VideoPoker objects in a ConcurrentHashMap, or, when
+ * the server is given a SessionStore, parked off the heap between requests
+ * and rebuilt only while a request for them runs. The store lets one
+ * server hold millions of idle players without a large heap.
+ *
+ * Given an EventJournal, the server records every session opened, hand
+ * dealt, card replaced, hand scored and session closed, keyed by session id.
+ * Store handles restart with every run, so a parked session is named in
+ * the journal by an id of its own, counted like the heap session ids.
+ *
+ * Each connection is served by its own thread. On a JDK with virtual
+ * threads the server uses one virtual thread per connection, so tens of
+ * thousands of mostly idle connections cost little memory; on older JDKs
+ * it falls back to a cached pool of platform threads. Responses are
+ * flushed only when no further request is waiting, so pipelined requests
+ * share a write.
+ *
+ * @author Will Greene
+ */
+public class GameServer implements Closeable {
+
+    /** Port used when none is given */
+    public static final int DEFAULT_PORT = 7777;
+
+    /** Connections waiting to be accepted before new ones are refused */
+    public static final int BACKLOG = 4096;
+
+    /** State of a session before its first game and after each scored game */
+    private static final int IDLE = 0;
+
+    /** State of a session whose hand has been dealt but not scored */
+    private static final int DEALT = 1;
+
+    /** Number of locks shared by the sessions of a SessionStore */
+    private static final int LOCK_STRIPES = 1024;
+
+    /** Listening socket */
+    private final ServerSocket serverSocket;
+
+    /** Runs one task per connection */
+    private final ExecutorService connections;
+
+    /** Connections being served */
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    /** Open sessions by id, when there is no store */
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<Long, Session>();
+
+    /** Parked sessions by handle, or null to keep sessions in the map */
+    private final SessionStore store;
+
+    /** Locks serializing requests to parked sessions, chosen by slot */
+    private final Object[] locks;
+
+    /** Last session id handed out */
+    private final AtomicLong lastId = new AtomicLong();
+
+    /** Points paid for each hand category and for a game */
+    private final Paytable paytable;
+
+    /** Journal recording every game event, or null */
+    private volatile EventJournal journal;
+
+    /** Thread accepting connections, set by start() */
+    private Thread acceptor;
+
+
+    /**
+     * One player's game and the progress of the current hand.
+     */
+    private static class Session {
+
+        /** Player's game */
+        private final VideoPoker game;
+
+        /** IDLE or DEALT */
+        private int state = IDLE;
+
+        /** Positions replaced in the current hand, bit i for index i */
+        private int replaced;
+
+        /**
+         * Session constructor.
+         *
+         * @param game player's game
+         */
+        Session(VideoPoker game) {
+            this.game = game;
+        }
+    }
+
+
+    /**
+     * GameServer constructor keeping sessions on the heap. Binds to the
+     * loopback address; call start() to begin accepting connections.
+     *
+     * @param port port to listen on, or 0 for any free port
+     * @param paytable points paid for each hand category and for a game
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if null paytable
+     */
+    public GameServer(int port, Paytable paytable) throws IOException {
+        this(port, paytable, null);
+    }
+
+
+    /**
+     * GameServer constructor. Binds to the loopback address; call start()
+     * to begin accepting connections.
+     *
+     * @param port port to listen on, or 0 for any free port
+     * @param paytable points paid for each hand category and for a game
+     * @param store store parking sessions between requests, or null to keep
+     *        sessions on the heap; its paytable should be the same
+     * @throws IOException if the port cannot be bound
+     * @throws IllegalArgumentException if null paytable
+     */
+    public GameServer(int port, Paytable paytable, SessionStore store) throws IOException {
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        this.paytable = paytable;
+        this.store = store;
+        this.locks = new Object[store == null ? 0 : LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.connections = newConnectionExecutor();
+    }
+
+
+    /**
+     * Returns an executor starting one virtual thread per task when the JDK
+     * has them, or a cached pool of daemon platform threads when it does not.
+     *
+     * @return executor for connections
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "poker-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+    /**
+     * Records every game event of later sessions in a journal. Sessions
+     * opened before are not recorded. Later ids in the journal continue
+     * after the highest id already there, so a journal directory can be
+     * reused across server runs. The server does not
+     * close the journal.
+     *
+     * @param journal journal to append to, or null to stop recording
+     */
+    public void setJournal(EventJournal journal) {
+        if (journal != null) {
+            lastId.accumulateAndGet(journal.getHighestSessionId(), Math::max);
+        }
+        this.journal = journal;
+    }
+
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+
+    /**
+     * Returns the number of open sessions.
+     *
+     * @return open sessions
+     */
+    public int getSessionCount() {
+        return store == null ? sessions.size() : store.size();
+    }
+
+
+    /**
+     * Starts accepting connections on a background thread.
+     *
+     * @throws IllegalStateException if already started
+     */
+    public synchronized void start() {
+        if (acceptor != null) {
+            throw new IllegalStateException("Already started");
+        }
+
+        acceptor = new Thread(this::acceptConnections, "poker-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+
+    /**
+     * Accepts connections until the server socket is closed.
+     */
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                try {
+                    connections.execute(() -> serve(socket));
+                } catch (RejectedExecutionException e) {
+                    sockets.remove(socket);
+                    socket.close();
+                }
+            } catch (IOException e) {
+                // The socket was closed by close(), or the accept failed; keep going if open
+            }
+        }
+    }
+
+
+    /**
+     * Reads requests from a connection and writes a response to each one.
+     *
+     * @param socket client connection
+     */
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(
+                 new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII))) {
+            s.setTcpNoDelay(true);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.trim().equalsIgnoreCase("QUIT")) {
+                    break;
+                }
+
+                out.write(execute(line));
+                out.write('\n');
+
+                // Hold the response back while more pipelined requests are buffered
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            // The client went away; its sessions stay open
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+
+    /**
+     * Runs one request and returns the response.
+     *
+     * @param request request line
+     * @return response line, without the line terminator
+     */
+    public String execute(String request) {
+        String[] words = request.trim().split("\\s+");
+        String command = words[0].toUpperCase();
+
+        try {
+            switch (command) {
+                case "OPEN":
+                    return open(words);
+                case "NEW":
+                    return play(words, 2, this::newGame);
+                case "REPLACE":
+                    return play(words, 3, session -> replace(session, words[2]));
+                case "SCORE":
+                    return play(words, 2, this::score);
+                case "CLOSE":
+                    return close(sessionId(words, 2));
+                default:
+                    return "ERR Unknown command";
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+
+    /**
+     * Opens a session.
+     *
+     * @param words OPEN and an optional seed
+     * @return response
+     * @throws IllegalArgumentException if invalid seed
+     */
+    private String open(String[] words) {
+        int seed = VideoPoker.RANDOM_GAME;
+
+        if (words.length > 2) {
+            throw new IllegalArgumentException("Invalid request");
+        }
+
+        if (words.length == 2) {
+            try {
+                seed = Integer.parseInt(words[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid seed");
+            }
+        }
+
+        VideoPoker game = new VideoPoker(seed, paytable);
+        EventJournal journal = this.journal;
+        long id;
+
+        if (store == null) {
+            id = lastId.incrementAndGet();
+            if (journal != null) {
+                game.setJournal(journal, id);
+            }
+            sessions.put(id, new Session(game));
+        }
+
+        else {
+            id = store.allocate();
+            long journalId = 0;
+            if (journal != null) {
+                journalId = lastId.incrementAndGet();
+                game.setJournal(journal, journalId);
+            }
+            synchronized (lock(id)) {
+                store.save(id, game, IDLE);
+                store.setJournalId(id, journalId);
+            }
+        }
+
+        return "OK " + id + " " + game.getPoints();
+    }
+
+
+    /**
+     * Closes a session.
+     *
+     * @param id session id
+     * @return response
+     * @throws IllegalStateException if unknown session
+     */
+    private String close(long id) {
+        EventJournal journal = this.journal;
+
+        if (store == null) {
+            Session session = sessions.remove(id);
+            if (session == null) {
+                throw new IllegalStateException("Unknown session");
+            }
+            if (journal != null && session.game.isJournaled()) {
+                journal.close(id, session.game.getPoints());
+            }
+        }
+
+        else {
+            synchronized (lock(id)) {
+                int points = store.getPoints(id);
+                long journalId = store.getJournalId(id);
+                store.free(id);
+                if (journal != null && journalId != 0) {
+                    journal.close(journalId, points);
+                }
+            }
+        }
+
+        return "OK";
+    }
+
+
+    /**
+     * Runs an action on the session named by a request, one request per
+     * session at a time. A parked session is rebuilt for the action and
+     * parked again afterwards.
+     *
+     * @param words request words, with the session id second
+     * @param length number of words the request must have
+     * @param action action returning the response
+     * @return response
+     * @throws IllegalArgumentException if invalid request or session id
+     * @throws IllegalStateException if unknown session
+     */
+    private String play(String[] words, int length, Function<Session, String> action) {
+        long id = sessionId(words, length);
+
+        if (store == null) {
+            Session session = sessions.get(id);
+            if (session == null) {
+                throw new IllegalStateException("Unknown session");
+            }
+
+            synchronized (session) {
+                return action.apply(session);
+            }
+        }
+
+        synchronized (lock(id)) {
+            Session session = new Session(store.load(id));
+            long journalId = store.getJournalId(id);
+            if (journalId != 0) {
+                session.game.attachJournal(journal, journalId);
+            }
+            int state = store.getState(id);
+            session.state = state & 1;
+            session.replaced = state >>> 1;
+
+            try {
+                return action.apply(session);
+            } finally {
+                store.save(id, session.game, session.state | session.replaced << 1);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the lock for a parked session.
+     *
+     * @param id session handle
+     * @return lock shared by the sessions in one stripe
+     */
+    private Object lock(long id) {
+        return locks[(int) id & (LOCK_STRIPES - 1)];
+    }
+
+
+    /**
+     * Starts a new game in a session.
+     *
+     * @param session player's session
+     * @return response
+     * @throws IllegalStateException if not enough points
+     */
+    private String newGame(Session session) {
+        VideoPoker game = session.game;
+
+        if (game.getPoints() < paytable.getCost()) {
+            throw new IllegalStateException("Not enough points");
+        }
+
+        game.newGame();
+        session.state = DEALT;
+        session.replaced = 0;
+
+        StringBuilder response = new StringBuilder("OK ").append(game.getPoints());
+        for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+            response.append(' ').append(game.getCard(i));
+        }
+        return response.toString();
+    }
+
+
+    /**
+     * Replaces one card of a session's dealt hand.
+     *
+     * @param session player's session
+     * @param word index of the card to replace
+     * @return response
+     * @throws IllegalArgumentException if invalid index
+     * @throws IllegalStateException if no hand is dealt
+     * @throws IllegalStateException if the card was already replaced
+     */
+    private String replace(Session session, String word) {
+        int index;
+        try {
+            index = Integer.parseInt(word);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid index");
+        }
+
+        if (index < 0 || index >= VideoPoker.CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid index");
+        }
+
+        if (session.state != DEALT) {
+            throw new IllegalStateException("No hand dealt");
+        }
+
+        if ((session.replaced & (1 << index)) != 0) {
+            throw new IllegalStateException("Card already replaced");
+        }
+
+        session.game.replaceCard(index);
+        session.replaced |= 1 << index;
+        return "OK " + session.game.getCard(index);
+    }
+
+
+    /**
+     * Scores a session's hand.
+     *
+     * @param session player's session
+     * @return response
+     * @throws IllegalStateException if no hand is dealt
+     */
+    private String score(Session session) {
+        if (session.state != DEALT) {
+            throw new IllegalStateException("No hand dealt");
+        }
+
+        HandCategory category = session.game.score();
+        session.state = IDLE;
+        return "OK " + category.name() + " " + paytable.payout(category) + " "
+               + session.game.getPoints();
+    }
+
+
+    /**
+     * Returns the session id of a request.
+     *
+     * @param words request words, with the session id second
+     * @param length number of words the request must have
+     * @return session id
+     * @throws IllegalArgumentException if invalid request or session id
+     */
+    private static long sessionId(String[] words, int length) {
+        if (words.length != length) {
+            throw new IllegalArgumentException("Invalid request");
+        }
+
+        try {
+            return Long.parseLong(words[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid session");
+        }
+    }
+
+
+    /**
+     * Stops accepting connections and closes the connections being served.
+     * Sessions are discarded with the server.
+     *
+     * @throws IOException if the listening socket cannot be closed
+     */
+    public void close() throws IOException {
+        serverSocket.close();
+
+        for (Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already closing; nothing more to release
+            }
+        }
+
+        connections.shutdown();
+    }
+
+
+    /**
+     * Runs a server until the process is stopped.
+     *
+     * @param args args[0] optional port, args[1] optional paytable properties
+     *        file or "-" for the standard paytable, args[2] optional capacity
+     *        of an off-heap session store or 0 for none, args[3] optional
+     *        journal directory
+     * @throws IOException if the port cannot be bound, the paytable cannot be
+     *         read or the journal cannot be created
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length > 4) {
+            System.out.println("Usage: java -cp bin GameServer [port] [paytable] [storeCapacity] "
+                               + "[journalDir]");
+            return;
+        }
+
+        int port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Paytable paytable = args.length >= 2 && !args[1].equals("-")
+                            ? Paytable.load(Paths.get(args[1])) : Paytable.standard();
+        int capacity = args.length >= 3 ? Integer.parseInt(args[2]) : 0;
+        SessionStore store = capacity > 0 ? new SessionStore(capacity, paytable) : null;
+
+        GameServer server = new GameServer(port, paytable, store);
+        if (args.length == 4) {
+            server.setJournal(new EventJournal(Paths.get(args[3])));
+        }
+        System.out.println("Listening on port " + server.getPort());
+        server.acceptConnections();
+    }
+}
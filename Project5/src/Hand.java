@@ -143,6 +143,16 @@ public class Hand {
     }
     
     
+    /**
+     * Returns the cards in the hand as a CardSet bitmask.
+     * 
+     * @return card set holding the cards in the hand
+     */
+    public long toCardSet() {
+        return CardSet.of(hand);
+    }
+    
+    
     /**
      * Creates a copy of the hand sorted first by value, then by suit.
      * 
@@ -155,6 +165,14 @@ public class Hand {
     }
     
     
+    /**
+     * Sorts the cards in the hand first by value, then by suit.
+     */
+    public void sort() {
+        Arrays.sort(hand);
+    }
+    
+    
     /**
      * Returns whether the hand qualifies as a flush.
      * 
@@ -162,13 +180,7 @@ public class Hand {
                false if not
      */
     public boolean isFlush() {
-        for (int i = 1; i < CARDS_IN_HAND; i++) {
-            if (hand[i].getSuit() != hand[i - 1].getSuit()) {
-                return false;
-            }
-        }
-        
-        return true;
+        return CardSet.isFlush(toCardSet());
     }
     
     
@@ -179,14 +191,7 @@ public class Hand {
                false if not
      */
     public boolean isStraight() {
-        hand = getSortedHand();
-        for (int i = 1; i < CARDS_IN_HAND; i++) {
-            if (hand[i].getValue() != hand[i - 1].getValue() + 1) {
-                return false;
-            }
-        }
-        
-        return true;
+        return CardSet.isStraight(toCardSet());
     }
     
     
@@ -327,4 +332,30 @@ public class Hand {
             return false;
         }
     }
+    
+    
+    /**
+     * Returns the value of the hand from the table-driven evaluator.
+     * Larger values are better hands.
+     * 
+     * @return hand value
+     */
+    public int evaluate() {
+        return HandEvaluator.evaluate(hand);
+    }
+    
+    
+    /**
+     * Returns the category of the hand, from HandEvaluator.NO_PAIR to
+     * HandEvaluator.ROYAL_FLUSH. Classifies the hand in a single pass
+     * instead of calling each predicate.
+     * 
+     * @return hand category
+     */
+    public int getCategory() {
+        if (GameMetrics.ENABLED) {
+            GameMetrics.recordEvaluation();
+        }
+        return HandEvaluator.category(evaluate());
+    }
 }
@@ -0,0 +1,135 @@
+/**
+ * A batch of five card hands in struct-of-arrays layout, for classifying
+ * many hands at once with a BatchEvaluator.
+ *
+ * Ranks and suits are kept in separate int arrays, card-major: card i of
+ * hand h is at index i * capacity + h. The hands' first cards are
+ * contiguous, then their second cards and so on, so one vector load reads
+ * the same card of several consecutive hands. Ranks run from
+ * Card.LOWEST_VALUE to Card.HIGHEST_VALUE and suits from 0 to 3 in
+ * ordinal order.
+ *
+ * @author Will Greene
+ */
+public class HandBatch {
+
+    /** Largest number of hands held */
+    private final int capacity;
+
+    /** Rank of each card, card-major */
+    final int[] ranks;
+
+    /** Suit index of each card, card-major */
+    final int[] suits;
+
+    /** Category of each hand, filled by a BatchEvaluator */
+    final int[] categories;
+
+    /** Number of hands held */
+    private int size;
+
+
+    /**
+     * HandBatch constructor.
+     *
+     * @param capacity largest number of hands held
+     * @throws IllegalArgumentException if invalid capacity
+     */
+    public HandBatch(int capacity) {
+
+        // Parameter error checking - invalid capacity
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / Hand.CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+
+        this.capacity = capacity;
+        this.ranks = new int[Hand.CARDS_IN_HAND * capacity];
+        this.suits = new int[Hand.CARDS_IN_HAND * capacity];
+        this.categories = new int[capacity];
+    }
+
+
+    /**
+     * Returns the largest number of hands held.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the number of hands held.
+     *
+     * @return number of hands
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Removes every hand.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+
+    /**
+     * Adds a hand of five card ordinals.
+     *
+     * @param c0 ordinal of the card at index 0
+     * @param c1 ordinal of the card at index 1
+     * @param c2 ordinal of the card at index 2
+     * @param c3 ordinal of the card at index 3
+     * @param c4 ordinal of the card at index 4
+     * @return number of the added hand
+     * @throws IllegalStateException if batch full
+     */
+    public int add(int c0, int c1, int c2, int c3, int c4) {
+        if (size == capacity) {
+            throw new IllegalStateException("Batch full");
+        }
+
+        int hand = size++;
+        set(hand, 0, c0);
+        set(hand, 1, c1);
+        set(hand, 2, c2);
+        set(hand, 3, c3);
+        set(hand, 4, c4);
+        return hand;
+    }
+
+
+    /**
+     * Sets one card of a hand already in the batch.
+     *
+     * @param hand hand number
+     * @param index index of the card in the hand
+     * @param ordinal card ordinal
+     */
+    public void set(int hand, int index, int ordinal) {
+        ranks[index * capacity + hand] = ordinal % Card.VALUES + Card.LOWEST_VALUE;
+        suits[index * capacity + hand] = ordinal / Card.VALUES;
+    }
+
+
+    /**
+     * Returns the category of a hand after the batch was evaluated.
+     *
+     * @param hand hand number
+     * @return hand category, from HandEvaluator.NO_PAIR to HandEvaluator.ROYAL_FLUSH
+     * @throws IllegalArgumentException if invalid hand
+     */
+    public int getCategory(int hand) {
+
+        // Parameter error checking - invalid hand
+        if (hand < 0 || hand >= size) {
+            throw new IllegalArgumentException("Invalid hand");
+        }
+
+        return categories[hand];
+    }
+}
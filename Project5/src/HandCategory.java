@@ -0,0 +1,85 @@
+/**
+ * Category of a scored poker hand, from worst to best.
+ *
+ * The ordinal of each category is the matching HandEvaluator category
+ * constant, so a category from HandEvaluator or Hand.getCategory() converts
+ * with of() and indexes a Paytable directly.
+ *
+ * @author Will Greene
+ */
+public enum HandCategory {
+
+    /** No pair */
+    NO_PAIR("No Pair"),
+
+    /** One pair */
+    ONE_PAIR("One Pair"),
+
+    /** Two pairs */
+    TWO_PAIRS("Two Pairs"),
+
+    /** Three of a kind */
+    THREE_OF_A_KIND("Three of a Kind"),
+
+    /** Straight */
+    STRAIGHT("Straight"),
+
+    /** Flush */
+    FLUSH("Flush"),
+
+    /** Full house */
+    FULL_HOUSE("Full House"),
+
+    /** Four of a kind */
+    FOUR_OF_A_KIND("Four of a Kind"),
+
+    /** Straight flush */
+    STRAIGHT_FLUSH("Straight Flush"),
+
+    /** Royal flush */
+    ROYAL_FLUSH("Royal Flush");
+
+    /** Categories indexed by ordinal, shared so that of() does not allocate */
+    private static final HandCategory[] VALUES = values();
+
+    /** Name shown to the player */
+    private final String displayName;
+
+
+    /**
+     * HandCategory constructor.
+     *
+     * @param displayName name shown to the player
+     */
+    HandCategory(String displayName) {
+        this.displayName = displayName;
+    }
+
+
+    /**
+     * Returns the category with a HandEvaluator category number.
+     *
+     * @param category category from HandEvaluator.NO_PAIR to HandEvaluator.ROYAL_FLUSH
+     * @return hand category
+     * @throws IllegalArgumentException if invalid category
+     */
+    public static HandCategory of(int category) {
+
+        // Parameter error checking - invalid category
+        if (category < 0 || category >= VALUES.length) {
+            throw new IllegalArgumentException("Invalid category");
+        }
+
+        return VALUES[category];
+    }
+
+
+    /**
+     * Returns the name shown to the player.
+     *
+     * @return display name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,358 @@
+import java.util.Arrays;
+
+/**
+ * Classifies five-card hands in a single pass using precomputed lookup tables.
+ *
+ * Each card is encoded as an int holding its rank bit, suit bit and rank
+ * (the "Cactus Kev" layout without the prime). Flushes are looked up
+ * directly by their 13-bit rank pattern. Every other hand is looked up by
+ * its rank key, the sum of a weight per card rank. The weights were chosen
+ * greedily so that every multiset of five ranks has a different sum, which
+ * makes the key a perfect hash that can be built up one card at a time.
+ *
+ * The value returned by evaluate() holds the hand category in its upper bits
+ * and the strength of the hand within its category in the lower 12 bits, so
+ * larger values are always better hands. The categories match the predicates
+ * in Hand, so an ace can only be the high card of a straight.
+ *
+ * @author Will Greene
+ */
+public class HandEvaluator {
+
+    /** Category for a hand with no pair */
+    public static final int NO_PAIR = 0;
+
+    /** Category for a one pair */
+    public static final int ONE_PAIR = 1;
+
+    /** Category for a two pair */
+    public static final int TWO_PAIRS = 2;
+
+    /** Category for a three of a kind */
+    public static final int THREE_OF_A_KIND = 3;
+
+    /** Category for a straight */
+    public static final int STRAIGHT = 4;
+
+    /** Category for a flush */
+    public static final int FLUSH = 5;
+
+    /** Category for a full house */
+    public static final int FULL_HOUSE = 6;
+
+    /** Category for a four of a kind */
+    public static final int FOUR_OF_A_KIND = 7;
+
+    /** Category for a straight flush */
+    public static final int STRAIGHT_FLUSH = 8;
+
+    /** Category for a royal flush */
+    public static final int ROYAL_FLUSH = 9;
+
+    /** Number of hand categories */
+    public static final int CATEGORIES = 10;
+
+    /** Number of bits holding the strength of a hand within its category */
+    public static final int CATEGORY_SHIFT = 12;
+
+    /** Number of distinct card values */
+    private static final int RANKS = Card.HIGHEST_VALUE - Card.LOWEST_VALUE + 1;
+
+    /** Rank key weight of each rank, lowest value first */
+    private static final int[] WEIGHTS = {0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998,
+                                          43258, 79415};
+
+    /** Largest rank key of a five card hand: four aces and a king */
+    private static final int MAX_KEY = 4 * 79415 + 43258;
+
+    /** Rank pattern of five consecutive ranks starting at the lowest rank */
+    private static final int STRAIGHT_PATTERN = 0x1F;
+
+    /** Encoded form of each card indexed by ordinal */
+    private static final int[] CODES = new int[Card.CARDS];
+
+    /** Hand values of flushes indexed by rank pattern, unsigned 16-bit */
+    private static final char[] FLUSHES = new char[1 << RANKS];
+
+    /** Hand values of hands without a flush indexed by rank key */
+    private static final char[] RANKED = new char[MAX_KEY + 1];
+
+    static {
+        for (int i = 0; i < Card.CARDS; i++) {
+            Card card = Card.fromOrdinal(i);
+            CODES[i] = encode(card.getValue(), card.getSuit());
+        }
+        buildTables();
+    }
+
+
+    /**
+     * Prevents instantiation.
+     */
+    private HandEvaluator() {
+    }
+
+
+    /**
+     * Returns the encoded form of a card used by evaluate().
+     *
+     * @param card card to encode
+     * @return encoded card
+     * @throws IllegalArgumentException if null card
+     */
+    public static int encode(Card card) {
+
+        // Parameter error checking - null card
+        if (card == null) {
+            throw new IllegalArgumentException("Null card");
+        }
+
+        return CODES[card.getOrdinal()];
+    }
+
+
+    /**
+     * Returns the encoded form of the card with the given ordinal.
+     *
+     * @param ordinal card ordinal from 0 to 51
+     * @return encoded card
+     */
+    public static int encode(int ordinal) {
+        return CODES[ordinal];
+    }
+
+
+    /**
+     * Returns the encoded form of the card with the given value and suit.
+     *
+     * @param value card value
+     * @param suit card suit
+     * @return encoded card
+     */
+    public static int encode(int value, char suit) {
+        int rank = value - Card.LOWEST_VALUE;
+        int suitBit;
+
+        if (suit == Card.CLUBS) {
+            suitBit = 0x8000;
+        } else if (suit == Card.DIAMONDS) {
+            suitBit = 0x4000;
+        } else if (suit == Card.HEARTS) {
+            suitBit = 0x2000;
+        } else {
+            suitBit = 0x1000;
+        }
+
+        return (1 << (16 + rank)) | suitBit | (rank << 8);
+    }
+
+
+    /**
+     * Returns the value of the hand made of the five cards.
+     *
+     * @param hand five cards
+     * @return hand value, larger is better
+     */
+    public static int evaluate(Card[] hand) {
+        return evaluate(encode(hand[0]), encode(hand[1]), encode(hand[2]),
+                        encode(hand[3]), encode(hand[4]));
+    }
+
+
+    /**
+     * Returns the value of the hand made of the five encoded cards.
+     *
+     * @param c1 first encoded card
+     * @param c2 second encoded card
+     * @param c3 third encoded card
+     * @param c4 fourth encoded card
+     * @param c5 fifth encoded card
+     * @return hand value, larger is better
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        return evaluateFolded(c1 | c2 | c3 | c4 | c5, c1 & c2 & c3 & c4 & c5,
+                              rankKey(c1) + rankKey(c2) + rankKey(c3) + rankKey(c4) + rankKey(c5));
+    }
+
+
+    /**
+     * Returns the rank key weight of an encoded card.
+     *
+     * @param code encoded card
+     * @return rank key weight
+     */
+    public static int rankKey(int code) {
+        return WEIGHTS[(code >>> 8) & 0xF];
+    }
+
+
+    /**
+     * Returns the value of a hand from its five encoded cards folded together.
+     * Callers that enumerate many hands sharing some cards can fold the
+     * shared cards once and add one card at a time.
+     *
+     * @param or encoded cards combined with |
+     * @param and encoded cards combined with &amp;
+     * @param key sum of the rank keys of the cards
+     * @return hand value, larger is better
+     */
+    public static int evaluateFolded(int or, int and, int key) {
+        if ((and & 0xF000) != 0) {
+            return FLUSHES[or >>> 16];
+        }
+
+        return RANKED[key];
+    }
+
+
+    /**
+     * Returns the category of a hand value.
+     *
+     * @param value hand value returned by evaluate()
+     * @return hand category, from NO_PAIR to ROYAL_FLUSH
+     */
+    public static int category(int value) {
+        return value >>> CATEGORY_SHIFT;
+    }
+
+
+    /**
+     * Fills the lookup tables by enumerating every multiset of five ranks.
+     * Within each category the hands are ordered by their ranks, most
+     * repeated rank first and highest rank first.
+     */
+    private static void buildTables() {
+        // Every rank multiset, with a flush variant for five distinct ranks
+        int maxEntries = 2 * 1287 + 4888;
+        int[] categories = new int[maxEntries];
+        long[] tiebreaks = new long[maxEntries];
+        int[] indexes = new int[maxEntries];
+        boolean[] suited = new boolean[maxEntries];
+        int entries = 0;
+
+        int[] counts = new int[RANKS];
+
+        // Each multiset is visited once as ranks a <= b <= c <= d <= e
+        for (int a = 0; a < RANKS; a++)
+        for (int b = a; b < RANKS; b++)
+        for (int c = b; c < RANKS; c++)
+        for (int d = c; d < RANKS; d++)
+        for (int e = d; e < RANKS; e++) {
+            if (a == e) {
+                continue;
+            }
+
+            Arrays.fill(counts, 0);
+            counts[a]++;
+            counts[b]++;
+            counts[c]++;
+            counts[d]++;
+            counts[e]++;
+
+            int pattern = 0;
+            int pairs = 0;
+            int trips = 0;
+            int quads = 0;
+            for (int r = 0; r < RANKS; r++) {
+                if (counts[r] > 0) {
+                    pattern |= 1 << r;
+                }
+                if (counts[r] == 2) {
+                    pairs++;
+                } else if (counts[r] == 3) {
+                    trips++;
+                } else if (counts[r] == 4) {
+                    quads++;
+                }
+            }
+
+            long tiebreak = tiebreakKey(counts);
+            int key = WEIGHTS[a] + WEIGHTS[b] + WEIGHTS[c] + WEIGHTS[d] + WEIGHTS[e];
+
+            if (Integer.bitCount(pattern) == Hand.CARDS_IN_HAND) {
+                boolean straight = isStraightPattern(pattern);
+                boolean royal = straight && (pattern & (1 << (RANKS - 1))) != 0;
+
+                categories[entries] = royal ? ROYAL_FLUSH : (straight ? STRAIGHT_FLUSH : FLUSH);
+                tiebreaks[entries] = tiebreak;
+                indexes[entries] = pattern;
+                suited[entries] = true;
+                entries++;
+
+                categories[entries] = straight ? STRAIGHT : NO_PAIR;
+            } else if (quads == 1) {
+                categories[entries] = FOUR_OF_A_KIND;
+            } else if (trips == 1 && pairs == 1) {
+                categories[entries] = FULL_HOUSE;
+            } else if (trips == 1) {
+                categories[entries] = THREE_OF_A_KIND;
+            } else if (pairs == 2) {
+                categories[entries] = TWO_PAIRS;
+            } else {
+                categories[entries] = ONE_PAIR;
+            }
+            tiebreaks[entries] = tiebreak;
+            indexes[entries] = key;
+            entries++;
+        }
+
+        for (int category = 0; category < CATEGORIES; category++) {
+            // Strength within a category is the position of the tiebreak key
+            long[] sorted = new long[entries];
+            int size = 0;
+            for (int i = 0; i < entries; i++) {
+                if (categories[i] == category) {
+                    sorted[size++] = tiebreaks[i];
+                }
+            }
+            sorted = Arrays.copyOf(sorted, size);
+            Arrays.sort(sorted);
+
+            for (int i = 0; i < entries; i++) {
+                if (categories[i] == category) {
+                    int strength = Arrays.binarySearch(sorted, tiebreaks[i]) + 1;
+                    char value = (char) ((category << CATEGORY_SHIFT) | strength);
+
+                    if (suited[i]) {
+                        FLUSHES[indexes[i]] = value;
+                    } else {
+                        RANKED[indexes[i]] = value;
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Returns a key ordering hands of the same category, listing the ranks
+     * by how often they repeat and then by rank, highest first.
+     *
+     * @param counts number of cards of each rank
+     * @return tiebreak key
+     */
+    private static long tiebreakKey(int[] counts) {
+        long key = 0;
+        for (int count = Hand.CARDS_IN_HAND - 1; count >= 1; count--) {
+            for (int r = RANKS - 1; r >= 0; r--) {
+                if (counts[r] == count) {
+                    key = (key << 4) | r;
+                }
+            }
+        }
+        return key;
+    }
+
+
+    /**
+     * Returns whether five distinct ranks form a straight. An ace only
+     * counts as the high card.
+     *
+     * @param pattern rank pattern with five bits set
+     * @return true if the ranks are consecutive
+               false if not
+     */
+    private static boolean isStraightPattern(int pattern) {
+        return pattern >>> Integer.numberOfTrailingZeros(pattern) == STRAIGHT_PATTERN;
+    }
+}
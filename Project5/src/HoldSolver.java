@@ -0,0 +1,414 @@
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Computes the exact expected payout of every way to hold a dealt hand.
+ *
+ * A hold is a 5-bit mask where bit i set means the card at index i is kept.
+ * For each of the 32 holds, every draw of the replaced cards from the 47
+ * cards left in the deck is scored, so a hold that replaces k cards covers
+ * C(47, k) draws. Draws are enumerated one card at a time, folding each
+ * card into the rank pattern, suit bits and rank key shared with
+ * the cards before it, so no Hand or Card objects are built per draw.
+ *
+ * The expected values are payouts only; they do not subtract the cost of
+ * the game.
+ *
+ * @author Will Greene
+ */
+public class HoldSolver implements HoldStrategy {
+
+    /** Number of hold patterns for a five card hand */
+    public static final int HOLDS = 1 << Hand.CARDS_IN_HAND;
+
+    /** Number of cards left in the deck after the deal */
+    public static final int CARDS_LEFT = Deck.CARDS_IN_DECK - Hand.CARDS_IN_HAND;
+
+    /** Holds replacing at least this many cards are split into parallel tasks */
+    private static final int PARALLEL_DRAWS = 3;
+
+    /** Number of draws from the cards left in the deck, indexed by cards drawn */
+    private static final long[] DRAWS = new long[Hand.CARDS_IN_HAND + 1];
+
+    static {
+        for (int k = 0; k <= Hand.CARDS_IN_HAND; k++) {
+            long draws = 1;
+            for (int i = 0; i < k; i++) {
+                draws = draws * (CARDS_LEFT - i) / (i + 1);
+            }
+            DRAWS[k] = draws;
+        }
+    }
+
+    /** Paytable the holds are solved for */
+    private final Paytable paytable;
+
+    /** Points paid for each hand category */
+    private final int[] payouts;
+
+
+    /**
+     * HoldSolver constructor using the standard paytable.
+     */
+    public HoldSolver() {
+        this(Paytable.standard());
+    }
+
+
+    /**
+     * HoldSolver constructor.
+     *
+     * @param paytable points paid for each hand category
+     * @throws IllegalArgumentException if null paytable
+     */
+    public HoldSolver(Paytable paytable) {
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        this.paytable = paytable;
+        this.payouts = paytable.toArray();
+    }
+
+
+    /**
+     * Returns the paytable the holds are solved for.
+     *
+     * @return paytable
+     */
+    public Paytable getPaytable() {
+        return paytable;
+    }
+
+
+    /**
+     * Returns the number of equally likely draws for a hold.
+     *
+     * @param hold hold mask
+     * @return number of draws from the cards left in the deck
+     */
+    public static long draws(int hold) {
+        return DRAWS[Hand.CARDS_IN_HAND - Integer.bitCount(hold)];
+    }
+
+
+    /**
+     * Returns the total payout over all draws of each hold, splitting the
+     * larger holds across the common fork/join pool.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return total payout indexed by hold mask
+     * @throws IllegalArgumentException if invalid cards
+     */
+    public long[] payoutTotals(int[] cards) {
+        int[] rest = remainingCodes(cards);
+        int[] held = heldCodes(cards);
+        long[] totals = new long[HOLDS];
+
+        DrawTask[] tasks = new DrawTask[HOLDS * CARDS_LEFT];
+        int count = 0;
+
+        for (int hold = 0; hold < HOLDS; hold++) {
+            int drawn = Hand.CARDS_IN_HAND - Integer.bitCount(hold);
+            if (drawn < PARALLEL_DRAWS) {
+                totals[hold] = sumDraws(rest, 0, drawn, held[3 * hold], held[3 * hold + 1],
+                                        held[3 * hold + 2]);
+            } else {
+                for (int first = 0; first <= CARDS_LEFT - drawn; first++) {
+                    tasks[count++] = new DrawTask(rest, hold, first, drawn, held);
+                }
+            }
+        }
+
+        ForkJoinTask.invokeAll(java.util.Arrays.copyOf(tasks, count));
+
+        for (int i = 0; i < count; i++) {
+            totals[tasks[i].hold] += tasks[i].total;
+        }
+
+        return totals;
+    }
+
+
+    /**
+     * Computes the total payout over all draws of each hold on the calling
+     * thread. Used when many hands are solved in parallel with each other.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @param totals array of length HOLDS receiving the total payout of each hold
+     * @throws IllegalArgumentException if invalid cards
+     */
+    public void payoutTotals(int[] cards, long[] totals) {
+        int[] rest = remainingCodes(cards);
+        int[] held = heldCodes(cards);
+
+        for (int hold = 0; hold < HOLDS; hold++) {
+            int drawn = Hand.CARDS_IN_HAND - Integer.bitCount(hold);
+            totals[hold] = sumDraws(rest, 0, drawn, held[3 * hold], held[3 * hold + 1],
+                                    held[3 * hold + 2]);
+        }
+    }
+
+
+    /**
+     * Returns the expected payout of each hold.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return expected payout indexed by hold mask
+     * @throws IllegalArgumentException if invalid cards
+     */
+    public double[] expectedValues(int[] cards) {
+        long[] totals = payoutTotals(cards);
+        double[] values = new double[HOLDS];
+
+        for (int hold = 0; hold < HOLDS; hold++) {
+            values[hold] = (double) totals[hold] / draws(hold);
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Returns the expected payout of each way to hold the cards of a hand.
+     *
+     * @param hand dealt hand
+     * @return expected payout indexed by hold mask
+     */
+    public double[] expectedValues(Hand hand) {
+        return expectedValues(ordinals(hand));
+    }
+
+
+    /**
+     * Returns the hold with the highest expected payout for a hand.
+     *
+     * @param hand dealt hand
+     * @return best hold mask
+     */
+    public int bestHold(Hand hand) {
+        return bestHold(expectedValues(hand));
+    }
+
+
+    /**
+     * Returns the hold with the highest expected payout, solving on the
+     * calling thread.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return best hold mask
+     */
+    public int chooseHold(int[] cards) {
+        long[] totals = new long[HOLDS];
+        payoutTotals(cards, totals);
+
+        double[] values = new double[HOLDS];
+        for (int hold = 0; hold < HOLDS; hold++) {
+            values[hold] = (double) totals[hold] / draws(hold);
+        }
+
+        return bestHold(values);
+    }
+
+
+    /**
+     * Returns the hold with the highest expected payout. Ties go to the
+     * hold keeping the fewest cards, then the lowest mask.
+     *
+     * @param values expected payout indexed by hold mask
+     * @return best hold mask
+     */
+    public static int bestHold(double[] values) {
+        int best = 0;
+
+        for (int hold = 1; hold < HOLDS; hold++) {
+            if (values[hold] > values[best]
+                || (values[hold] == values[best]
+                    && Integer.bitCount(hold) < Integer.bitCount(best))) {
+                best = hold;
+            }
+        }
+
+        return best;
+    }
+
+
+    /**
+     * Returns the ordinals of the cards in a hand.
+     *
+     * @param hand hand of cards
+     * @return card ordinals in hand order
+     */
+    public static int[] ordinals(Hand hand) {
+        int[] cards = new int[Hand.CARDS_IN_HAND];
+
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            cards[i] = hand.getCard(i).getOrdinal();
+        }
+
+        return cards;
+    }
+
+
+    /**
+     * Returns the encoded cards left in the deck after the deal.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return encoded cards not in the hand
+     * @throws IllegalArgumentException if invalid cards
+     */
+    private static int[] remainingCodes(int[] cards) {
+
+        // Parameter error checking - invalid cards
+        if (cards == null || cards.length != Hand.CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid cards");
+        }
+
+        long dealt = CardSet.EMPTY;
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            if (cards[i] < 0 || cards[i] >= Card.CARDS) {
+                throw new IllegalArgumentException("Invalid cards");
+            }
+            dealt |= CardSet.ofOrdinal(cards[i]);
+        }
+
+        if (CardSet.size(dealt) != Hand.CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid cards");
+        }
+
+        int[] rest = new int[CARDS_LEFT];
+        long left = CardSet.removeAll(CardSet.FULL_DECK, dealt);
+        for (int i = 0; i < CARDS_LEFT; i++) {
+            rest[i] = HandEvaluator.encode(Long.numberOfTrailingZeros(left));
+            left &= left - 1;
+        }
+
+        return rest;
+    }
+
+
+    /**
+     * Returns the held cards of every hold folded together, as triples of
+     * combined bits, common bits and rank key.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return folded held cards, three entries per hold mask
+     */
+    private static int[] heldCodes(int[] cards) {
+        int[] held = new int[3 * HOLDS];
+
+        for (int hold = 0; hold < HOLDS; hold++) {
+            int or = 0;
+            int and = -1;
+            int key = 0;
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                if ((hold & (1 << i)) != 0) {
+                    int code = HandEvaluator.encode(cards[i]);
+                    or |= code;
+                    and &= code;
+                    key += HandEvaluator.rankKey(code);
+                }
+            }
+            held[3 * hold] = or;
+            held[3 * hold + 1] = and;
+            held[3 * hold + 2] = key;
+        }
+
+        return held;
+    }
+
+
+    /**
+     * Returns the total payout of every draw of the given number of cards
+     * from rest[start] onward, added to the folded held cards.
+     *
+     * @param rest encoded cards left in the deck
+     * @param start index of the first card that may be drawn
+     * @param drawn number of cards to draw
+     * @param or held cards combined with |
+     * @param and held cards combined with &amp;
+     * @param key rank key of the held cards
+     * @return total payout
+     */
+    private long sumDraws(int[] rest, int start, int drawn, int or, int and, int key) {
+        int[] pay = payouts;
+        int n = rest.length;
+        long total = 0;
+
+        if (drawn == 0) {
+            return pay[HandEvaluator.category(HandEvaluator.evaluateFolded(or, and, key))];
+        }
+
+        if (drawn == 1) {
+            for (int a = start; a < n; a++) {
+                int c = rest[a];
+                total += pay[HandEvaluator.category(
+                    HandEvaluator.evaluateFolded(or | c, and & c, key + HandEvaluator.rankKey(c)))];
+            }
+            return total;
+        }
+
+        for (int a = start; a <= n - drawn; a++) {
+            int c = rest[a];
+            total += sumDraws(rest, a + 1, drawn - 1, or | c, and & c, key + HandEvaluator.rankKey(c));
+        }
+
+        return total;
+    }
+
+
+    /**
+     * Sums the draws of one hold whose first drawn card is fixed.
+     */
+    private class DrawTask extends RecursiveAction {
+
+        /** Serialization version, tasks are never serialized */
+        private static final long serialVersionUID = 1L;
+
+        /** Encoded cards left in the deck */
+        private final int[] rest;
+
+        /** Hold mask */
+        private final int hold;
+
+        /** Index of the first drawn card */
+        private final int first;
+
+        /** Number of cards drawn */
+        private final int drawn;
+
+        /** Folded held cards of every hold */
+        private final int[] held;
+
+        /** Total payout, set when the task completes */
+        private long total;
+
+        /**
+         * DrawTask constructor.
+         *
+         * @param rest encoded cards left in the deck
+         * @param hold hold mask
+         * @param first index of the first drawn card
+         * @param drawn number of cards drawn
+         * @param held folded held cards of every hold
+         */
+        DrawTask(int[] rest, int hold, int first, int drawn, int[] held) {
+            this.rest = rest;
+            this.hold = hold;
+            this.first = first;
+            this.drawn = drawn;
+            this.held = held;
+        }
+
+        /**
+         * Sums the draws starting with the first card.
+         */
+        protected void compute() {
+            int c = rest[first];
+            total = sumDraws(rest, first + 1, drawn - 1, held[3 * hold] | c,
+                             held[3 * hold + 1] & c, held[3 * hold + 2] + HandEvaluator.rankKey(c));
+        }
+    }
+}
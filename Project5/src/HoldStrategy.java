@@ -0,0 +1,15 @@
+/**
+ * Chooses which cards of a dealt hand to keep.
+ *
+ * @author Will Greene
+ */
+public interface HoldStrategy {
+
+    /**
+     * Returns the cards to keep from a dealt hand.
+     *
+     * @param cards ordinals of the five dealt cards; must not be changed
+     * @return hold mask, bit i set to keep the card at index i
+     */
+    int chooseHold(int[] cards);
+}
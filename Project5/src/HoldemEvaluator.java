@@ -0,0 +1,400 @@
+import java.util.Arrays;
+
+/**
+ * Finds the best five-card hand among seven cards, as in Texas Hold'em,
+ * with two table lookups instead of scoring the 21 five-card subsets.
+ *
+ * Cards are passed as a CardSet, so each suit's ranks are a 13-bit field of
+ * the set. Seven cards hold at most one suit of five or more, and when they
+ * do, no full house or four of a kind is possible, so the best hand is that
+ * suit's flush or straight flush, looked up by its rank bits. Otherwise the
+ * hand depends only on how many cards of each rank there are: the counts
+ * are packed three bits per rank into a key, built with one lookup per
+ * suit, and the key is found in an open addressing table of the 49,205
+ * possible rank multisets.
+ *
+ * Values use the layout of HandEvaluator: the category in the bits above
+ * HandEvaluator.CATEGORY_SHIFT and the strength within the category below,
+ * so larger values are better hands and HandEvaluator.category() reads the
+ * category. Unlike the video poker game, Hold'em counts the wheel (ace to
+ * five) as the lowest straight, so values are only comparable with other
+ * values from this class.
+ *
+ * @author Will Greene
+ */
+public class HoldemEvaluator {
+
+    /** Number of cards evaluated together */
+    public static final int CARDS_IN_HAND = 7;
+
+    /** Bits covering a single suit's 13 cards */
+    private static final int SUIT_BITS = (1 << Card.VALUES) - 1;
+
+    /** Number of suits, so the most cards of one rank */
+    private static final int SUITS = 4;
+
+    /** Bits per rank in a rank count key, enough for counts up to 4 */
+    private static final int COUNT_BITS = 3;
+
+    /** Number of bits of a table entry holding the hand value */
+    private static final int VALUE_BITS = 16;
+
+    /** log2 of the number of slots in the rank count table */
+    private static final int TABLE_BITS = 17;
+
+    /** Mask wrapping slot numbers around the rank count table */
+    private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+
+    /** Multiplier spreading rank count keys over the table (the golden ratio) */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** Rank pattern of five consecutive ranks starting at the lowest rank */
+    private static final int STRAIGHT_PATTERN = 0x1F;
+
+    /** Rank pattern of the wheel: ace, two, three, four and five */
+    private static final int WHEEL_PATTERN = 0x100F;
+
+    /** Rank count key of the ranks in each 13-bit suit pattern */
+    private static final long[] COUNT_KEYS = new long[1 << Card.VALUES];
+
+    /** Hand values of suits with five to seven cards indexed by rank pattern, 0 otherwise */
+    private static final char[] FLUSHES = new char[1 << Card.VALUES];
+
+    /** Rank count key shifted above the hand value of each rank multiset, 0 if empty */
+    private static final long[] RANKED = new long[1 << TABLE_BITS];
+
+    static {
+        for (int pattern = 0; pattern < COUNT_KEYS.length; pattern++) {
+            for (int r = 0; r < Card.VALUES; r++) {
+                if ((pattern & (1 << r)) != 0) {
+                    COUNT_KEYS[pattern] += 1L << (COUNT_BITS * r);
+                }
+            }
+        }
+        buildTables();
+    }
+
+
+    /**
+     * Prevents instantiation.
+     */
+    private HoldemEvaluator() {
+    }
+
+
+    /**
+     * Returns the value of the best five-card hand among seven cards.
+     *
+     * @param cards CardSet of seven cards
+     * @return hand value, larger is better
+     * @throws IllegalArgumentException if invalid card count
+     */
+    public static int evaluate(long cards) {
+
+        // Parameter error checking - invalid card count
+        if (Long.bitCount(cards) != CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid card count");
+        }
+
+        return evaluateFolded(cards, rankKey(cards));
+    }
+
+
+    /**
+     * Returns the rank count key of some cards. Keys add up, so the key of
+     * two disjoint sets of cards is the sum of their keys.
+     *
+     * @param cards CardSet
+     * @return rank count key
+     */
+    public static long rankKey(long cards) {
+        return COUNT_KEYS[(int) cards & SUIT_BITS]
+               + COUNT_KEYS[(int) (cards >>> Card.VALUES) & SUIT_BITS]
+               + COUNT_KEYS[(int) (cards >>> (2 * Card.VALUES)) & SUIT_BITS]
+               + COUNT_KEYS[(int) (cards >>> (3 * Card.VALUES))];
+    }
+
+
+    /**
+     * Returns the value of the best five-card hand among seven cards whose
+     * rank count key is already known. Callers that value many hands sharing
+     * some cards, such as every player's hand on one board, can add up the
+     * shared cards' key once. The cards are only checked as far as the
+     * lookup needs: a key no seven cards have ends the probe at an empty
+     * slot.
+     *
+     * @param cards CardSet of seven cards
+     * @param key rankKey() of the cards
+     * @return hand value, larger is better
+     * @throws IllegalArgumentException if the key is not that of seven cards
+     */
+    public static int evaluateFolded(long cards, long key) {
+
+        // At most one suit has a flush entry
+        int flush = FLUSHES[(int) cards & SUIT_BITS]
+                    | FLUSHES[(int) (cards >>> Card.VALUES) & SUIT_BITS]
+                    | FLUSHES[(int) (cards >>> (2 * Card.VALUES)) & SUIT_BITS]
+                    | FLUSHES[(int) (cards >>> (3 * Card.VALUES))];
+        if (flush != 0) {
+            return flush;
+        }
+
+        int slot = (int) ((key * HASH_MULTIPLIER) >>> (Long.SIZE - TABLE_BITS));
+        long entry;
+        while ((entry = RANKED[slot]) >>> VALUE_BITS != key) {
+
+            // Parameter error checking - invalid key
+            if (entry == 0) {
+                throw new IllegalArgumentException("Invalid key");
+            }
+            slot = (slot + 1) & TABLE_MASK;
+        }
+        return (int) entry & ((1 << VALUE_BITS) - 1);
+    }
+
+
+    /**
+     * Returns the value of the best five-card hand among seven cards.
+     *
+     * @param cards seven different cards
+     * @return hand value, larger is better
+     * @throws IllegalArgumentException if null array
+     * @throws IllegalArgumentException if invalid card count
+     * @throws IllegalArgumentException if null element
+     * @throws IllegalArgumentException if duplicate card
+     */
+    public static int evaluate(Card[] cards) {
+
+        // Parameter error checking - null array
+        if (cards == null) {
+            throw new IllegalArgumentException("Null array");
+        }
+
+        // Parameter error checking - invalid card count
+        if (cards.length != CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid card count");
+        }
+
+        long set = CardSet.of(cards);
+
+        // Parameter error checking - duplicate card
+        if (Long.bitCount(set) != CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Duplicate card");
+        }
+
+        return evaluate(set);
+    }
+
+
+    /**
+     * Fills the flush and rank count tables. Every suit pattern and rank
+     * multiset is scored once, as the best of its five-card subsets, and the
+     * scores are then numbered in order within each category.
+     */
+    private static void buildTables() {
+        long[] flushScores = new long[FLUSHES.length];
+        for (int pattern = 0; pattern < FLUSHES.length; pattern++) {
+            int size = Integer.bitCount(pattern);
+            if (size >= Hand.CARDS_IN_HAND && size <= CARDS_IN_HAND) {
+                int[] ranks = new int[size];
+                for (int r = 0, i = 0; r < Card.VALUES; r++) {
+                    if ((pattern & (1 << r)) != 0) {
+                        ranks[i++] = r;
+                    }
+                }
+                flushScores[pattern] = bestScore(ranks, true);
+            }
+        }
+
+        long[] keys = new long[RANKED.length];
+        long[] rankScores = new long[RANKED.length];
+        int multisets = addMultisets(new int[CARDS_IN_HAND], 0, 0, keys, rankScores, 0);
+
+        // Sorted distinct scores; a value's strength is its position in its category
+        long[] scores = new long[FLUSHES.length + multisets];
+        System.arraycopy(flushScores, 0, scores, 0, FLUSHES.length);
+        System.arraycopy(rankScores, 0, scores, FLUSHES.length, multisets);
+        Arrays.sort(scores);
+        int distinct = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] != 0 && (distinct == 0 || scores[i] != scores[distinct - 1])) {
+                scores[distinct++] = scores[i];
+            }
+        }
+        scores = Arrays.copyOf(scores, distinct);
+
+        int[] firstOfCategory = new int[HandEvaluator.CATEGORIES];
+        for (int i = distinct - 1; i >= 0; i--) {
+            firstOfCategory[(int) (scores[i] >>> Integer.SIZE)] = i;
+        }
+
+        for (int pattern = 0; pattern < FLUSHES.length; pattern++) {
+            if (flushScores[pattern] != 0) {
+                FLUSHES[pattern] = (char) value(scores, firstOfCategory, flushScores[pattern]);
+            }
+        }
+
+        for (int i = 0; i < multisets; i++) {
+            int slot = (int) ((keys[i] * HASH_MULTIPLIER) >>> (Long.SIZE - TABLE_BITS));
+            while (RANKED[slot] != 0) {
+                slot = (slot + 1) & TABLE_MASK;
+            }
+            RANKED[slot] = keys[i] << VALUE_BITS | value(scores, firstOfCategory, rankScores[i]);
+        }
+    }
+
+
+    /**
+     * Scores every multiset of seven ranks, no rank more than four times,
+     * visiting ranks in non-decreasing order.
+     *
+     * @param ranks ranks chosen so far
+     * @param chosen number of ranks chosen
+     * @param lowest lowest rank that may be chosen next
+     * @param keys receives the rank count key of each multiset
+     * @param scores receives the score of each multiset
+     * @param count number of multisets already stored
+     * @return number of multisets stored
+     */
+    private static int addMultisets(int[] ranks, int chosen, int lowest, long[] keys,
+                                    long[] scores, int count) {
+        if (chosen == CARDS_IN_HAND) {
+            long key = 0;
+            for (int r : ranks) {
+                key += 1L << (COUNT_BITS * r);
+            }
+            keys[count] = key;
+            scores[count] = bestScore(ranks, false);
+            return count + 1;
+        }
+
+        for (int r = lowest; r < Card.VALUES; r++) {
+            if (chosen < SUITS || ranks[chosen - SUITS] != r) {
+                ranks[chosen] = r;
+                count = addMultisets(ranks, chosen + 1, r, keys, scores, count);
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns the best score among the five-card subsets of some ranks.
+     *
+     * @param ranks five to seven ranks from 0 to 12
+     * @param suited whether the cards are all one suit
+     * @return best score
+     */
+    private static long bestScore(int[] ranks, boolean suited) {
+        long best = 0;
+        int[] five = new int[Hand.CARDS_IN_HAND];
+
+        // Each subset is a mask of five indexes into ranks, visited in
+        // increasing order by stepping to the next int with five bits set
+        for (int subset = (1 << Hand.CARDS_IN_HAND) - 1; subset < 1 << ranks.length; ) {
+            for (int i = 0, n = 0; i < ranks.length; i++) {
+                if ((subset & (1 << i)) != 0) {
+                    five[n++] = ranks[i];
+                }
+            }
+            best = Math.max(best, score(five, suited));
+
+            int lowest = subset & -subset;
+            int carried = subset + lowest;
+            subset = (((carried ^ subset) >>> 2) / lowest) | carried;
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns a score of five ranks, the category in the upper 32 bits and a
+     * key ordering hands of the category in the lower bits.
+     *
+     * @param five five ranks from 0 to 12
+     * @param suited whether the cards are all one suit
+     * @return score, larger is better
+     */
+    private static long score(int[] five, boolean suited) {
+        int[] counts = new int[Card.VALUES];
+        int pattern = 0;
+        for (int r : five) {
+            counts[r]++;
+            pattern |= 1 << r;
+        }
+
+        // A straight ranks only by its top card, so a wheel's ace counts low
+        int top = -1;
+        if (Integer.bitCount(pattern) == Hand.CARDS_IN_HAND) {
+            if (pattern >>> Integer.numberOfTrailingZeros(pattern) == STRAIGHT_PATTERN) {
+                top = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pattern);
+            } else if (pattern == WHEEL_PATTERN) {
+                top = 3;
+            }
+        }
+
+        int category;
+        if (top >= 0) {
+            category = !suited ? HandEvaluator.STRAIGHT
+                       : (top == Card.VALUES - 1 ? HandEvaluator.ROYAL_FLUSH
+                                                 : HandEvaluator.STRAIGHT_FLUSH);
+            return (long) category << Integer.SIZE | top;
+        }
+
+        int pairs = 0;
+        int trips = 0;
+        int quads = 0;
+        for (int count : counts) {
+            if (count == 2) {
+                pairs++;
+            } else if (count == 3) {
+                trips++;
+            } else if (count == 4) {
+                quads++;
+            }
+        }
+
+        if (suited) {
+            category = HandEvaluator.FLUSH;
+        } else if (quads == 1) {
+            category = HandEvaluator.FOUR_OF_A_KIND;
+        } else if (trips == 1 && pairs == 1) {
+            category = HandEvaluator.FULL_HOUSE;
+        } else if (trips == 1) {
+            category = HandEvaluator.THREE_OF_A_KIND;
+        } else if (pairs == 2) {
+            category = HandEvaluator.TWO_PAIRS;
+        } else if (pairs == 1) {
+            category = HandEvaluator.ONE_PAIR;
+        } else {
+            category = HandEvaluator.NO_PAIR;
+        }
+
+        // Ranks by how often they repeat and then by rank, highest first
+        long tiebreak = 0;
+        for (int count = SUITS; count >= 1; count--) {
+            for (int r = Card.VALUES - 1; r >= 0; r--) {
+                if (counts[r] == count) {
+                    tiebreak = (tiebreak << 4) | r;
+                }
+            }
+        }
+
+        return (long) category << Integer.SIZE | tiebreak;
+    }
+
+
+    /**
+     * Returns the hand value of a score.
+     *
+     * @param scores sorted distinct scores
+     * @param firstOfCategory index of the lowest score of each category
+     * @param score score to convert
+     * @return hand value
+     */
+    private static int value(long[] scores, int[] firstOfCategory, long score) {
+        int category = (int) (score >>> Integer.SIZE);
+        int strength = Arrays.binarySearch(scores, score) - firstOfCategory[category] + 1;
+        return category << HandEvaluator.CATEGORY_SHIFT | strength;
+    }
+}
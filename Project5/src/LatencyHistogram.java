@@ -0,0 +1,211 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies in nanoseconds with a bounded relative
+ * error, in the style of an HDR histogram.
+ *
+ * Values below 2 * SUB_BUCKETS each have their own bucket. Above that,
+ * every power of two is split into SUB_BUCKETS equal buckets, so a bucket
+ * is never wider than 1 / SUB_BUCKETS of the values in it (about 3%). A
+ * bucket index is found with a leading-zero count and two shifts, and every
+ * bucket is a LongAdder, so many threads record at once without sharing a
+ * contended counter. Any non-negative long can be recorded.
+ *
+ * @author Will Greene
+ */
+public class LatencyHistogram {
+
+    /** log2 of the number of buckets per power of two */
+    public static final int SUB_BUCKET_BITS = 5;
+
+    /** Number of buckets per power of two */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets, enough for every non-negative long */
+    public static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Count of values in each bucket */
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /** Sum of the recorded values */
+    private final LongAdder total = new LongAdder();
+
+
+    /**
+     * LatencyHistogram constructor.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+
+    /**
+     * Records one value.
+     *
+     * @param nanos latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[bucket(value)].increment();
+        total.add(value);
+    }
+
+
+    /**
+     * Removes every recorded value. Values recorded while the reset runs may
+     * or may not be kept.
+     */
+    public void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        total.reset();
+    }
+
+
+    /**
+     * Returns a copy of the counts for reading without further updates.
+     *
+     * @return snapshot of the histogram
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts[i].sum();
+        }
+        return new Snapshot(copy, total.sum());
+    }
+
+
+    /**
+     * Returns the bucket holding a value.
+     *
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucket(long value) {
+        int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+
+    /**
+     * Returns the largest value held by a bucket.
+     *
+     * @param bucket bucket index
+     * @return highest value in the bucket
+     */
+    static long highestValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        long sub = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+
+    /**
+     * Counts of a histogram at one moment.
+     */
+    public static class Snapshot {
+
+        /** Count of values in each bucket */
+        private final long[] counts;
+
+        /** Number of values */
+        private final long count;
+
+        /** Sum of the values */
+        private final long total;
+
+        /**
+         * Snapshot constructor.
+         *
+         * @param counts count of values in each bucket
+         * @param total sum of the values
+         */
+        Snapshot(long[] counts, long total) {
+            this.counts = counts;
+            this.total = total;
+
+            long sum = 0;
+            for (long c : counts) {
+                sum += c;
+            }
+            this.count = sum;
+        }
+
+        /**
+         * Returns the number of values recorded.
+         *
+         * @return number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the mean of the values recorded.
+         *
+         * @return mean in nanoseconds, or 0 if none
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) total / count;
+        }
+
+        /**
+         * Returns a value that the given fraction of the recorded values do
+         * not exceed, rounded up to the top of its bucket.
+         *
+         * @param percentile percentile, from 0 to 100
+         * @return value in nanoseconds, or 0 if none
+         * @throws IllegalArgumentException if invalid percentile
+         */
+        public long getPercentile(double percentile) {
+
+            // Parameter error checking - invalid percentile
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("Invalid percentile");
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the largest value recorded, rounded up to the top of its bucket.
+         *
+         * @return maximum in nanoseconds, or 0 if none
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValue(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Returns the count, mean and common percentiles.
+         *
+         * @return summary of the snapshot
+         */
+        public String toString() {
+            return String.format("count %d, mean %.1f ns, p50 %d ns, p99 %d ns, p99.9 %d ns, "
+                                 + "max %d ns", count, getMean(), getPercentile(50),
+                                 getPercentile(99), getPercentile(99.9), getMax());
+        }
+    }
+}
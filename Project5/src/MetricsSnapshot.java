@@ -0,0 +1,173 @@
+/**
+ * Values of the GameMetrics at one moment.
+ *
+ * @author Will Greene
+ */
+public class MetricsSnapshot {
+
+    /** Number of hands dealt */
+    private final long handsDealt;
+
+    /** Number of cards replaced */
+    private final long cardsReplaced;
+
+    /** Number of hands classified */
+    private final long handsEvaluated;
+
+    /** Points spent starting games */
+    private final long pointsWagered;
+
+    /** Points paid for scored hands */
+    private final long pointsPaid;
+
+    /** Number of scored hands in each category */
+    private final long[] categoryCounts;
+
+    /** Latency of scoring a hand */
+    private final LatencyHistogram.Snapshot scoreLatency;
+
+    /** Latency of shuffling a deck */
+    private final LatencyHistogram.Snapshot shuffleLatency;
+
+
+    /**
+     * MetricsSnapshot constructor.
+     *
+     * @param handsDealt number of hands dealt
+     * @param cardsReplaced number of cards replaced
+     * @param handsEvaluated number of hands classified
+     * @param pointsWagered points spent starting games
+     * @param pointsPaid points paid for scored hands
+     * @param categoryCounts number of scored hands in each category
+     * @param scoreLatency latency of scoring a hand
+     * @param shuffleLatency latency of shuffling a deck
+     */
+    MetricsSnapshot(long handsDealt, long cardsReplaced, long handsEvaluated, long pointsWagered,
+                    long pointsPaid, long[] categoryCounts, LatencyHistogram.Snapshot scoreLatency,
+                    LatencyHistogram.Snapshot shuffleLatency) {
+        this.handsDealt = handsDealt;
+        this.cardsReplaced = cardsReplaced;
+        this.handsEvaluated = handsEvaluated;
+        this.pointsWagered = pointsWagered;
+        this.pointsPaid = pointsPaid;
+        this.categoryCounts = categoryCounts;
+        this.scoreLatency = scoreLatency;
+        this.shuffleLatency = shuffleLatency;
+    }
+
+
+    /**
+     * Returns the number of hands dealt.
+     *
+     * @return hands dealt
+     */
+    public long getHandsDealt() {
+        return handsDealt;
+    }
+
+
+    /**
+     * Returns the number of cards replaced.
+     *
+     * @return cards replaced
+     */
+    public long getCardsReplaced() {
+        return cardsReplaced;
+    }
+
+
+    /**
+     * Returns the number of hands classified.
+     *
+     * @return hands evaluated
+     */
+    public long getHandsEvaluated() {
+        return handsEvaluated;
+    }
+
+
+    /**
+     * Returns the points spent starting games.
+     *
+     * @return points wagered
+     */
+    public long getPointsWagered() {
+        return pointsWagered;
+    }
+
+
+    /**
+     * Returns the points paid for scored hands.
+     *
+     * @return points paid
+     */
+    public long getPointsPaid() {
+        return pointsPaid;
+    }
+
+
+    /**
+     * Returns the number of scored hands in a category.
+     *
+     * @param category hand category
+     * @return hands scored in the category
+     */
+    public long getCategoryCount(HandCategory category) {
+        return categoryCounts[category.ordinal()];
+    }
+
+
+    /**
+     * Returns the fraction of scored hands in a category.
+     *
+     * @param category hand category
+     * @return hit rate, or 0 if no hands were scored
+     */
+    public double getHitRate(HandCategory category) {
+        long scored = 0;
+        for (long count : categoryCounts) {
+            scored += count;
+        }
+        return scored == 0 ? 0 : (double) categoryCounts[category.ordinal()] / scored;
+    }
+
+
+    /**
+     * Returns the latencies of scoring hands.
+     *
+     * @return score latency histogram
+     */
+    public LatencyHistogram.Snapshot getScoreLatency() {
+        return scoreLatency;
+    }
+
+
+    /**
+     * Returns the latencies of shuffling decks.
+     *
+     * @return shuffle latency histogram
+     */
+    public LatencyHistogram.Snapshot getShuffleLatency() {
+        return shuffleLatency;
+    }
+
+
+    /**
+     * Returns the metrics one per line, categories from highest to lowest.
+     *
+     * @return summary of the metrics
+     */
+    public String toString() {
+        String s = "hands dealt: " + handsDealt + "\ncards replaced: " + cardsReplaced
+                   + "\nhands evaluated: " + handsEvaluated + "\npoints wagered: " + pointsWagered
+                   + "\npoints paid: " + pointsPaid + "\n";
+
+        for (int i = HandEvaluator.CATEGORIES - 1; i >= 0; i--) {
+            HandCategory category = HandCategory.of(i);
+            s += category.getDisplayName() + ": " + categoryCounts[i]
+                 + String.format(" (%.5f)", getHitRate(category)) + "\n";
+        }
+
+        return s + "score latency: " + scoreLatency + "\nshuffle latency: " + shuffleLatency + "\n";
+    }
+}
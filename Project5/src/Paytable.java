@@ -0,0 +1,257 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Points paid for each hand category and the cost of a game.
+ *
+ * The payouts are held in a flat array indexed by HandEvaluator category,
+ * so scoring a classified hand is a single array read. Paytables are
+ * immutable, so any number of them can be used side by side.
+ *
+ * A paytable can be loaded from a properties file whose keys are the
+ * HandCategory names and COST, for example ROYAL_FLUSH=250. Keys that
+ * are left out keep the VideoPoker values.
+ *
+ * @author Will Greene
+ */
+public class Paytable {
+
+    /** Property key for the cost of a game */
+    public static final String COST = "COST";
+
+    /** Paytable of the VideoPoker constants */
+    private static final Paytable STANDARD = new Paytable(
+        new int[] {0, VideoPoker.ONE_PAIR, VideoPoker.TWO_PAIRS, VideoPoker.THREE_OF_A_KIND,
+                   VideoPoker.STRAIGHT, VideoPoker.FLUSH, VideoPoker.FULL_HOUSE,
+                   VideoPoker.FOUR_OF_A_KIND, VideoPoker.STRAIGHT_FLUSH, VideoPoker.ROYAL_FLUSH},
+        VideoPoker.POINTS_FOR_NEW_GAME);
+
+    /** Points paid indexed by category */
+    private final int[] payouts;
+
+    /** Points paid to play one game */
+    private final int cost;
+
+
+    /**
+     * Paytable constructor.
+     *
+     * @param payouts points paid for each category, indexed from
+     *        HandEvaluator.NO_PAIR to HandEvaluator.ROYAL_FLUSH
+     * @param cost points paid to play one game
+     * @throws IllegalArgumentException if null array
+     * @throws IllegalArgumentException if invalid array length
+     * @throws IllegalArgumentException if negative payout
+     * @throws IllegalArgumentException if invalid cost
+     */
+    public Paytable(int[] payouts, int cost) {
+
+        // Parameter error checking - null array
+        if (payouts == null) {
+            throw new IllegalArgumentException("Null array");
+        }
+
+        // Parameter error checking - invalid array length
+        if (payouts.length != HandEvaluator.CATEGORIES) {
+            throw new IllegalArgumentException("Invalid array length");
+        }
+
+        // Parameter error checking - negative payout
+        for (int i = 0; i < payouts.length; i++) {
+            if (payouts[i] < 0) {
+                throw new IllegalArgumentException("Negative payout");
+            }
+        }
+
+        // Parameter error checking - invalid cost
+        if (cost <= 0) {
+            throw new IllegalArgumentException("Invalid cost");
+        }
+
+        this.payouts = payouts.clone();
+        this.cost = cost;
+    }
+
+
+    /**
+     * Returns the paytable of the VideoPoker constants.
+     *
+     * @return standard paytable
+     */
+    public static Paytable standard() {
+        return STANDARD;
+    }
+
+
+    /**
+     * Returns a paytable read from properties. Missing keys keep the
+     * standard values.
+     *
+     * @param properties category names and COST mapped to points
+     * @return paytable
+     * @throws IllegalArgumentException if a value is not a number
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static Paytable fromProperties(Properties properties) {
+        int[] payouts = STANDARD.toArray();
+
+        for (HandCategory category : HandCategory.values()) {
+            int i = category.ordinal();
+            payouts[i] = parse(properties, category.name(), payouts[i]);
+        }
+
+        return new Paytable(payouts, parse(properties, COST, STANDARD.cost));
+    }
+
+
+    /**
+     * Returns a paytable read from a properties file.
+     *
+     * @param file properties file
+     * @return paytable
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if a value is not a number
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static Paytable load(Path file) throws IOException {
+        Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        return fromProperties(properties);
+    }
+
+
+    /**
+     * Returns the number held by a property.
+     *
+     * @param properties properties to read
+     * @param key property key
+     * @param fallback value used when the key is missing
+     * @return property value
+     * @throws IllegalArgumentException if the value is not a number
+     */
+    private static int parse(Properties properties, String key, int fallback) {
+        String value = properties.getProperty(key);
+
+        if (value == null) {
+            return fallback;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key);
+        }
+    }
+
+
+    /**
+     * Returns the points paid for a category.
+     *
+     * @param category hand category, from HandEvaluator.NO_PAIR to HandEvaluator.ROYAL_FLUSH
+     * @return points paid
+     */
+    public int payout(int category) {
+        return payouts[category];
+    }
+
+
+    /**
+     * Returns the points paid for a category.
+     *
+     * @param category hand category
+     * @return points paid
+     */
+    public int payout(HandCategory category) {
+        return payouts[category.ordinal()];
+    }
+
+
+    /**
+     * Returns the points paid to play one game.
+     *
+     * @return cost of a game
+     */
+    public int getCost() {
+        return cost;
+    }
+
+
+    /**
+     * Returns a copy of the payouts indexed by category.
+     *
+     * @return points paid for each category
+     */
+    public int[] toArray() {
+        return payouts.clone();
+    }
+
+
+    /**
+     * Returns whether this Paytable and "o" pay the same and cost the same.
+     *
+     * @param o object to be compared to
+     * @return true if equal
+               false if not
+     */
+    public boolean equals(Object o) {
+        if (o instanceof Paytable) {
+            Paytable p = (Paytable) o;
+            return cost == p.cost && Arrays.equals(payouts, p.payouts);
+        }
+
+        else {
+            return false;
+        }
+    }
+
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return hash code
+     */
+    public int hashCode() {
+        return 31 * Arrays.hashCode(payouts) + cost;
+    }
+
+
+    /**
+     * Returns a 64-bit hash of the payouts and cost that is the same in
+     * every run, so a file solved for one paytable can name it.
+     *
+     * @return paytable fingerprint
+     */
+    public long fingerprint() {
+        long hash = cost;
+
+        for (int payout : payouts) {
+            hash = (hash ^ payout) * 0x100000001B3L;
+        }
+
+        return hash ^ (hash >>> 31);
+    }
+
+
+    /**
+     * Returns the paytable in properties form.
+     *
+     * @return String representation of the paytable
+     */
+    public String toString() {
+        String s = "";
+
+        for (int i = payouts.length - 1; i >= 0; i--) {
+            s += HandCategory.of(i).name() + "=" + payouts[i] + "\n";
+        }
+
+        return s + COST + "=" + cost + "\n";
+    }
+}
@@ -0,0 +1,270 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Counters and mismatches collected while replaying an event journal.
+ * Each replay thread fills its own result and the results are merged when
+ * the threads finish.
+ *
+ * @author Will Greene
+ */
+public class ReplayResult {
+
+    /** Largest number of mismatches kept; later ones are only counted */
+    public static final int MAX_MISMATCHES = 100;
+
+    /** Number of records checked */
+    private long records;
+
+    /** Number of sessions opened */
+    private long sessions;
+
+    /** Number of hands dealt */
+    private long hands;
+
+    /** Number of records not checked because their session had already diverged */
+    private long skipped;
+
+    /** Number of mismatches found */
+    private long mismatchCount;
+
+    /** Earliest mismatches in journal order, at most MAX_MISMATCHES */
+    private List<Mismatch> mismatches = new ArrayList<Mismatch>();
+
+
+    /**
+     * A record that does not match the replayed game.
+     */
+    public static class Mismatch implements Comparable<Mismatch> {
+
+        /** File name of the segment holding the record */
+        private final String segment;
+
+        /** Index of the record in its segment, from 0 */
+        private final int record;
+
+        /** Session id of the record */
+        private final long sessionId;
+
+        /** What did not match */
+        private final String message;
+
+        /**
+         * Mismatch constructor.
+         *
+         * @param segment file name of the segment holding the record
+         * @param record index of the record in its segment
+         * @param sessionId session id of the record
+         * @param message what did not match
+         */
+        Mismatch(String segment, int record, long sessionId, String message) {
+            this.segment = segment;
+            this.record = record;
+            this.sessionId = sessionId;
+            this.message = message;
+        }
+
+        /**
+         * Returns the file name of the segment holding the record.
+         *
+         * @return segment file name
+         */
+        public String getSegment() {
+            return segment;
+        }
+
+        /**
+         * Returns the index of the record in its segment.
+         *
+         * @return record index, from 0
+         */
+        public int getRecord() {
+            return record;
+        }
+
+        /**
+         * Returns the session id of the record.
+         *
+         * @return session id
+         */
+        public long getSessionId() {
+            return sessionId;
+        }
+
+        /**
+         * Returns what did not match.
+         *
+         * @return description of the mismatch
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Orders mismatches by their position in the journal.
+         *
+         * @param other mismatch to compare with
+         * @return negative, zero or positive as this mismatch comes first, at
+         *         the same record or later
+         */
+        public int compareTo(Mismatch other) {
+            int c = segment.compareTo(other.segment);
+            return c != 0 ? c : Integer.compare(record, other.record);
+        }
+
+        /**
+         * Returns the position and description of the mismatch.
+         *
+         * @return mismatch as a String
+         */
+        public String toString() {
+            return segment + " record " + record + " session " + sessionId + ": " + message;
+        }
+    }
+
+
+    /**
+     * Records a checked record.
+     *
+     * @param type record type
+     */
+    void recordChecked(int type) {
+        records++;
+        if (type == EventJournal.OPEN) {
+            sessions++;
+        } else if (type == EventJournal.DEAL) {
+            hands++;
+        }
+    }
+
+
+    /**
+     * Records a record skipped because its session had diverged.
+     */
+    void recordSkipped() {
+        skipped++;
+    }
+
+
+    /**
+     * Records a mismatch, keeping it if it is among the first MAX_MISMATCHES.
+     *
+     * @param mismatch mismatch found
+     */
+    void recordMismatch(Mismatch mismatch) {
+        mismatchCount++;
+        if (mismatches.size() < MAX_MISMATCHES) {
+            mismatches.add(mismatch);
+        }
+    }
+
+
+    /**
+     * Adds another result's counters and mismatches to this result.
+     *
+     * @param other result to add
+     */
+    void merge(ReplayResult other) {
+        records += other.records;
+        sessions += other.sessions;
+        hands += other.hands;
+        skipped += other.skipped;
+        mismatchCount += other.mismatchCount;
+
+        mismatches.addAll(other.mismatches);
+        Collections.sort(mismatches);
+        if (mismatches.size() > MAX_MISMATCHES) {
+            mismatches = new ArrayList<Mismatch>(mismatches.subList(0, MAX_MISMATCHES));
+        }
+    }
+
+
+    /**
+     * Returns the number of records checked.
+     *
+     * @return number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+
+    /**
+     * Returns the number of sessions opened.
+     *
+     * @return number of sessions
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+
+    /**
+     * Returns the number of hands dealt.
+     *
+     * @return number of hands
+     */
+    public long getHands() {
+        return hands;
+    }
+
+
+    /**
+     * Returns the number of records not checked because their session had
+     * already diverged from the replay.
+     *
+     * @return number of skipped records
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+
+    /**
+     * Returns the number of mismatches found.
+     *
+     * @return number of mismatches
+     */
+    public long getMismatchCount() {
+        return mismatchCount;
+    }
+
+
+    /**
+     * Returns the earliest mismatches in journal order.
+     *
+     * @return at most MAX_MISMATCHES mismatches
+     */
+    public List<Mismatch> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+
+    /**
+     * Returns whether every checked record matched the replay.
+     *
+     * @return true if no mismatches
+               false if not
+     */
+    public boolean isVerified() {
+        return mismatchCount == 0;
+    }
+
+
+    /**
+     * Returns a summary of the counters followed by the kept mismatches.
+     *
+     * @return summary of the result
+     */
+    public String toString() {
+        String s = "records: " + records + ", sessions: " + sessions + ", hands: " + hands
+                   + ", skipped: " + skipped + ", mismatches: " + mismatchCount + "\n";
+
+        for (Mismatch mismatch : mismatches) {
+            s += mismatch + "\n";
+        }
+
+        return s;
+    }
+}
@@ -0,0 +1,322 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Replays an EventJournal through the game and checks that every dealt
+ * card, replaced card, category and points total in it is what the game
+ * produces.
+ *
+ * A session's OPEN record holds the key of its CounterRandom, so a
+ * VideoPoker built on a fresh deck with that stream deals the session's
+ * games again card for card. Each following record of the session is
+ * replayed on that game and compared field by field. The first record of
+ * a session that does not match is reported with its segment and record
+ * index; the session's later records are skipped, since they can no
+ * longer be expected to match.
+ *
+ * The work is sharded by session id. Every shard scans all segments,
+ * which are mapped once and shared, and replays only its own sessions, so
+ * sessions never move between threads and records of one session are
+ * replayed in journal order. Skipping another shard's record costs one
+ * read, so the shards run at the speed of the replay.
+ *
+ * java -cp bin ReplayVerifier &lt;journalDir&gt; [paytable]
+ *
+ * @author Will Greene
+ */
+public class ReplayVerifier {
+
+    /** Points paid for each hand category and for a game */
+    private final Paytable paytable;
+
+
+    /**
+     * ReplayVerifier constructor using the standard paytable.
+     */
+    public ReplayVerifier() {
+        this(Paytable.standard());
+    }
+
+
+    /**
+     * ReplayVerifier constructor.
+     *
+     * @param paytable paytable the journaled games were played with
+     * @throws IllegalArgumentException if null paytable
+     */
+    public ReplayVerifier(Paytable paytable) {
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        this.paytable = paytable;
+    }
+
+
+    /**
+     * Verifies a journal with one shard per available processor.
+     *
+     * @param directory journal directory
+     * @return merged counters and mismatches of every shard
+     * @throws IOException if a segment cannot be read
+     */
+    public ReplayResult verify(Path directory) throws IOException {
+        return verify(directory, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    /**
+     * Verifies a journal, replaying the shards in parallel.
+     *
+     * @param directory journal directory
+     * @param shards number of shards to split the sessions into
+     * @return merged counters and mismatches of every shard
+     * @throws IOException if a segment cannot be read
+     * @throws IllegalArgumentException if invalid shards
+     */
+    public ReplayResult verify(Path directory, int shards) throws IOException {
+
+        // Parameter error checking - invalid shards
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Invalid shards");
+        }
+
+        List<Path> files = EventJournal.segments(directory);
+        String[] names = new String[files.size()];
+        ByteBuffer[] segments = new ByteBuffer[files.size()];
+        for (int i = 0; i < segments.length; i++) {
+            names[i] = files.get(i).getFileName().toString();
+            segments[i] = EventJournal.read(files.get(i));
+        }
+
+        ReplayResult[] results = IntStream.range(0, shards).parallel()
+            .mapToObj(shard -> replayShard(names, segments, shard, shards))
+            .toArray(ReplayResult[]::new);
+
+        ReplayResult result = new ReplayResult();
+        for (ReplayResult shardResult : results) {
+            result.merge(shardResult);
+        }
+        return result;
+    }
+
+
+    /**
+     * Replays the sessions of one shard on the calling thread.
+     *
+     * @param names segment file names
+     * @param segments segment records, as returned by EventJournal.read()
+     * @param shard number of the shard
+     * @param shards number of shards
+     * @return counters and mismatches of the shard
+     */
+    private ReplayResult replayShard(String[] names, ByteBuffer[] segments, int shard,
+                                     int shards) {
+        ReplayResult result = new ReplayResult();
+        Map<Long, VideoPoker> games = new HashMap<Long, VideoPoker>();
+        Set<Long> diverged = new HashSet<Long>();
+
+        for (int s = 0; s < segments.length; s++) {
+            ByteBuffer records = segments[s];
+
+            for (int at = records.position(); at < records.limit(); at += EventJournal.RECORD_BYTES) {
+                long id = EventJournal.sessionId(records, at);
+                if (shard(id, shards) != shard) {
+                    continue;
+                }
+
+                int type = EventJournal.type(records, at);
+                if (diverged.contains(id)) {
+                    result.recordSkipped();
+                    if (type == EventJournal.CLOSE) {
+                        diverged.remove(id);
+                    }
+                    continue;
+                }
+
+                String message = replay(records, at, type, id, games);
+                result.recordChecked(type);
+                if (message != null) {
+                    result.recordMismatch(new ReplayResult.Mismatch(
+                        names[s], at / EventJournal.RECORD_BYTES - 1, id, message));
+                    games.remove(id);
+                    if (type != EventJournal.CLOSE) {
+                        diverged.add(id);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Replays one record on its session's game.
+     *
+     * @param records segment records
+     * @param at offset of the record
+     * @param type record type
+     * @param id session id
+     * @param games replayed games by session id
+     * @return description of the mismatch, or null if the record matches
+     */
+    private String replay(ByteBuffer records, int at, int type, long id,
+                          Map<Long, VideoPoker> games) {
+        if (type == EventJournal.OPEN) {
+            if (games.containsKey(id)) {
+                return "session opened twice";
+            }
+
+            CounterRandom random = CounterRandom.fromState(EventJournal.key(records, at), 0);
+            Deck deck = new Deck(VideoPoker.RANDOM_GAME, random);
+            deck.setLazyShuffle(true);
+            games.put(id, new VideoPoker(deck, paytable, VideoPoker.STARTING_POINTS, null));
+            return null;
+        }
+
+        VideoPoker game = games.get(id);
+        if (game == null) {
+            return "no OPEN record";
+        }
+
+        switch (type) {
+            case EventJournal.DEAL:
+                game.newGame();
+                for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                    int recorded = EventJournal.card(records, at, i);
+                    int replayed = game.getCard(i).getOrdinal();
+                    if (recorded != replayed) {
+                        return "card " + i + " recorded " + card(recorded)
+                               + " replayed " + card(replayed);
+                    }
+                }
+                return compare("cost", EventJournal.delta(records, at), -paytable.getCost(),
+                               EventJournal.points(records, at), game.getPoints());
+
+            case EventJournal.REPLACE:
+                int index = EventJournal.argument(records, at);
+                if (!game.hasHand()) {
+                    return "replace before deal";
+                }
+                if (index < 0 || index >= Hand.CARDS_IN_HAND) {
+                    return "invalid index " + index;
+                }
+
+                game.replaceCard(index);
+                int recorded = EventJournal.card(records, at, 0);
+                int replayed = game.getCard(index).getOrdinal();
+                if (recorded != replayed) {
+                    return "replaced card " + index + " recorded " + card(recorded)
+                           + " replayed " + card(replayed);
+                }
+                return compare("delta", EventJournal.delta(records, at), 0,
+                               EventJournal.points(records, at), game.getPoints());
+
+            case EventJournal.SCORE:
+                if (!game.hasHand()) {
+                    return "score before deal";
+                }
+
+                HandCategory category = game.score();
+                if (EventJournal.argument(records, at) != category.ordinal()) {
+                    return "category recorded " + EventJournal.argument(records, at)
+                           + " replayed " + category.ordinal() + " (" + category + ")";
+                }
+                return compare("payout", EventJournal.delta(records, at),
+                               paytable.payout(category), EventJournal.points(records, at),
+                               game.getPoints());
+
+            case EventJournal.CLOSE:
+                games.remove(id);
+                return compare("delta", 0, 0, EventJournal.points(records, at), game.getPoints());
+
+            default:
+                return "unknown record type " + type;
+        }
+    }
+
+
+    /**
+     * Compares the points of a record with the replayed game.
+     *
+     * @param name name of the points change
+     * @param recordedDelta points change in the record
+     * @param replayedDelta points change in the replay
+     * @param recordedPoints points in the record
+     * @param replayedPoints points in the replay
+     * @return description of the mismatch, or null if both match
+     */
+    private static String compare(String name, int recordedDelta, int replayedDelta,
+                                  int recordedPoints, int replayedPoints) {
+        if (recordedDelta != replayedDelta) {
+            return name + " recorded " + recordedDelta + " replayed " + replayedDelta;
+        }
+        if (recordedPoints != replayedPoints) {
+            return "points recorded " + recordedPoints + " replayed " + replayedPoints;
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns a card ordinal as in Card.toString(), or the number itself if
+     * it is not a card.
+     *
+     * @param ordinal card ordinal
+     * @return card name
+     */
+    private static String card(int ordinal) {
+        return ordinal >= 0 && ordinal < Deck.CARDS_IN_DECK
+               ? Card.fromOrdinal(ordinal).toString() : "#" + ordinal;
+    }
+
+
+    /**
+     * Returns the shard of a session.
+     *
+     * @param id session id
+     * @param shards number of shards
+     * @return shard number
+     */
+    private static int shard(long id, int shards) {
+        return Math.floorMod(Long.hashCode(id), shards);
+    }
+
+
+    /**
+     * Verifies a journal and prints the result.
+     *
+     * @param args args[0] journal directory, args[1] optional paytable properties file
+     * @throws IOException if the journal or paytable cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java -cp bin ReplayVerifier <journalDir> [paytable]");
+            return;
+        }
+
+        Paytable paytable = args.length == 2 ? Paytable.load(Paths.get(args[1]))
+                                             : Paytable.standard();
+
+        long start = System.nanoTime();
+        ReplayResult result = new ReplayVerifier(paytable).verify(Paths.get(args[0]));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(result);
+        System.out.printf("%.2f s, %.0f hands/s%n", seconds, result.getHands() / seconds);
+        if (!result.isVerified()) {
+            System.exit(1);
+        }
+    }
+}
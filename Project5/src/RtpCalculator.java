@@ -0,0 +1,171 @@
+import java.util.stream.IntStream;
+
+/**
+ * Computes the exact long-run return of Video Poker under optimal play.
+ *
+ * Every deal belongs to one of the 134,459 suit-isomorphic classes from
+ * SuitCanonicalizer, and all deals in a class have the same best hold and
+ * expected payout. The calculator solves each class once with HoldSolver,
+ * weights it by the number of deals in the class and divides by the number
+ * of deals and the cost of a game. Classes are solved in parallel.
+ *
+ * The expected payout of a hold is its payout total divided by its number
+ * of draws, so every value is scaled to the least common multiple of the
+ * draw counts (7,669,695) and the whole sum stays an exact long.
+ *
+ * @author Will Greene
+ */
+public class RtpCalculator {
+
+    /** Number of five card deals */
+    public static final long DEALS = 2598960;
+
+    /** Least common multiple of the number of draws of every hold */
+    private static final long COMMON_DRAWS;
+
+    static {
+        long common = 1;
+        for (int hold = 0; hold < HoldSolver.HOLDS; hold++) {
+            long draws = HoldSolver.draws(hold);
+            common = common / gcd(common, draws) * draws;
+        }
+        COMMON_DRAWS = common;
+    }
+
+    /** Solver using the paytable being measured */
+    private final HoldSolver solver;
+
+    /** Points paid to play one game */
+    private final int cost;
+
+
+    /**
+     * RtpCalculator constructor using the standard paytable.
+     */
+    public RtpCalculator() {
+        this(Paytable.standard());
+    }
+
+
+    /**
+     * RtpCalculator constructor.
+     *
+     * @param paytable points paid for each hand category and for a game
+     * @throws IllegalArgumentException if null paytable
+     */
+    public RtpCalculator(Paytable paytable) {
+        this.solver = new HoldSolver(paytable);
+        this.cost = paytable.getCost();
+    }
+
+
+    /**
+     * Returns the return to player under optimal play.
+     *
+     * @return points returned per point wagered
+     */
+    public double calculate() {
+        long[] exact = exactReturn();
+        return (double) exact[0] / exact[1];
+    }
+
+
+    /**
+     * Returns the return to player under optimal play as a reduced fraction.
+     *
+     * @return numerator and denominator
+     */
+    public long[] exactReturn() {
+        return exactReturn(SuitCanonicalizer.classes(Hand.CARDS_IN_HAND));
+    }
+
+
+    /**
+     * Returns the return over the deals of the given classes as a reduced fraction.
+     *
+     * @param classes canonical five card sets
+     * @return numerator and denominator
+     */
+    long[] exactReturn(long[] classes) {
+        long numerator = IntStream.range(0, classes.length).parallel()
+            .mapToLong(i -> SuitCanonicalizer.weight(classes[i]) * scaledBestValue(classes[i]))
+            .sum();
+
+        long deals = 0;
+        for (int i = 0; i < classes.length; i++) {
+            deals += SuitCanonicalizer.weight(classes[i]);
+        }
+
+        long denominator = deals * COMMON_DRAWS * cost;
+        long divisor = gcd(numerator, denominator);
+        return new long[] {numerator / divisor, denominator / divisor};
+    }
+
+
+    /**
+     * Returns the expected payout of the best hold of a hand, multiplied by
+     * the common number of draws so that it is a whole number.
+     *
+     * @param set five card set
+     * @return scaled expected payout of the best hold
+     */
+    long scaledBestValue(long set) {
+        int[] cards = new int[Hand.CARDS_IN_HAND];
+        long rest = set;
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            cards[i] = Long.numberOfTrailingZeros(rest);
+            rest &= rest - 1;
+        }
+
+        long[] totals = new long[HoldSolver.HOLDS];
+        solver.payoutTotals(cards, totals);
+
+        long best = 0;
+        for (int hold = 0; hold < HoldSolver.HOLDS; hold++) {
+            best = Math.max(best, totals[hold] * (COMMON_DRAWS / HoldSolver.draws(hold)));
+        }
+        return best;
+    }
+
+
+    /**
+     * Returns the greatest common divisor of two numbers.
+     *
+     * @param a first number
+     * @param b second number
+     * @return greatest common divisor
+     */
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+
+    /**
+     * Computes and prints the return of a paytable.
+     *
+     * @param args args[0] optional paytable properties file (the standard
+     *        paytable is used without one)
+     * @throws java.io.IOException if the paytable cannot be read
+     */
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length > 1) {
+            System.out.println("Usage: java -cp bin RtpCalculator [paytable]");
+            return;
+        }
+
+        Paytable paytable = args.length == 1 ? Paytable.load(java.nio.file.Paths.get(args[0]))
+                                             : Paytable.standard();
+
+        long start = System.nanoTime();
+        long[] exact = new RtpCalculator(paytable).exactReturn();
+
+        System.out.printf("Return to player: %.8f (%d/%d)%n", (double) exact[0] / exact[1],
+                          exact[0], exact[1]);
+        System.out.printf("%.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+}
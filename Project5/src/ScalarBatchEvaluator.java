@@ -0,0 +1,92 @@
+/**
+ * Batch evaluator classifying one hand at a time with plain int
+ * arithmetic. Used where the Vector API is not available, and as the
+ * reference for the vector implementation: both compute the same
+ * quantities in the same order.
+ *
+ * @author Will Greene
+ */
+public class ScalarBatchEvaluator implements BatchEvaluator {
+
+    /**
+     * Sets the category of every hand in a batch.
+     *
+     * @param batch hands to classify
+     */
+    public void evaluate(HandBatch batch) {
+        int capacity = batch.getCapacity();
+        int[] ranks = batch.ranks;
+        int[] suits = batch.suits;
+
+        for (int h = 0; h < batch.size(); h++) {
+            batch.categories[h] = category(
+                ranks[h], ranks[capacity + h], ranks[2 * capacity + h], ranks[3 * capacity + h],
+                ranks[4 * capacity + h], suits[h], suits[capacity + h], suits[2 * capacity + h],
+                suits[3 * capacity + h], suits[4 * capacity + h]);
+        }
+    }
+
+
+    /**
+     * Returns the category of one hand.
+     *
+     * Equal rank pairs among the ten pairs of cards identify the made
+     * hands: 1 for one pair, 2 for two pairs, 3 for three of a kind, 4 for
+     * a full house and 6 for four of a kind. With no equal pair, five
+     * ranks spanning four are a straight.
+     *
+     * @param r0 rank of card 0
+     * @param r1 rank of card 1
+     * @param r2 rank of card 2
+     * @param r3 rank of card 3
+     * @param r4 rank of card 4
+     * @param s0 suit of card 0
+     * @param s1 suit of card 1
+     * @param s2 suit of card 2
+     * @param s3 suit of card 3
+     * @param s4 suit of card 4
+     * @return hand category
+     */
+    static int category(int r0, int r1, int r2, int r3, int r4,
+                        int s0, int s1, int s2, int s3, int s4) {
+        int pairs = eq(r0, r1) + eq(r0, r2) + eq(r0, r3) + eq(r0, r4) + eq(r1, r2)
+                    + eq(r1, r3) + eq(r1, r4) + eq(r2, r3) + eq(r2, r4) + eq(r3, r4);
+        boolean flush = s0 == s1 && s0 == s2 && s0 == s3 && s0 == s4;
+        int max = Math.max(Math.max(Math.max(r0, r1), Math.max(r2, r3)), r4);
+        int min = Math.min(Math.min(Math.min(r0, r1), Math.min(r2, r3)), r4);
+        boolean straight = pairs == 0 && max - min == Hand.CARDS_IN_HAND - 1;
+
+        if (straight && flush) {
+            return max == Card.HIGHEST_VALUE ? HandEvaluator.ROYAL_FLUSH
+                                             : HandEvaluator.STRAIGHT_FLUSH;
+        }
+        if (pairs == 6) {
+            return HandEvaluator.FOUR_OF_A_KIND;
+        }
+        if (pairs == 4) {
+            return HandEvaluator.FULL_HOUSE;
+        }
+        if (flush) {
+            return HandEvaluator.FLUSH;
+        }
+        if (straight) {
+            return HandEvaluator.STRAIGHT;
+        }
+        if (pairs == 3) {
+            return HandEvaluator.THREE_OF_A_KIND;
+        }
+        return pairs; // NO_PAIR, ONE_PAIR or TWO_PAIRS
+    }
+
+
+    /**
+     * Returns 1 if two ranks are equal.
+     *
+     * @param a first rank
+     * @param b second rank
+     * @return 1 if equal, 0 if not
+     */
+    private static int eq(int a, int b) {
+        return a == b ? 1 : 0;
+    }
+}
@@ -0,0 +1,260 @@
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays complete sessions of Video Poker without the GUI.
+ *
+ * A session starts with VideoPoker.STARTING_POINTS, pays the paytable's
+ * cost for each game and ends when it cannot pay
+ * for another game or reaches the game limit. Each game deals five cards,
+ * asks the hold strategy which to keep, draws the rest and scores the hand.
+ *
+ * Sessions are split across the common fork/join pool. Session i deals
+ * from stream i of a CounterRandom seeded with the master seed, so a
+ * simulation gives the same result for the same seed no matter how the
+ * sessions are split into tasks or scheduled, and any single session can
+ * be replayed on its own. Each task counts into its own SimulationResult
+ * and the results are merged as the tasks are joined.
+ *
+ * @author Will Greene
+ */
+public class SessionSimulator {
+
+    /** Largest number of sessions played by one task */
+    public static final int SESSIONS_PER_TASK = 4096;
+
+    /** Hold strategy used for every game */
+    private final HoldStrategy strategy;
+
+    /** Points paid for each hand category */
+    private final int[] payouts;
+
+    /** Points paid to play one game */
+    private final int cost;
+
+
+    /**
+     * SessionSimulator constructor using the standard paytable.
+     *
+     * @param strategy hold strategy used for every game
+     * @throws IllegalArgumentException if null strategy
+     */
+    public SessionSimulator(HoldStrategy strategy) {
+        this(strategy, Paytable.standard());
+    }
+
+
+    /**
+     * SessionSimulator constructor.
+     *
+     * @param strategy hold strategy used for every game
+     * @param paytable points paid for each hand category and for a game
+     * @throws IllegalArgumentException if null strategy
+     * @throws IllegalArgumentException if null paytable
+     */
+    public SessionSimulator(HoldStrategy strategy, Paytable paytable) {
+
+        // Parameter error checking - null strategy
+        if (strategy == null) {
+            throw new IllegalArgumentException("Null strategy");
+        }
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        this.strategy = strategy;
+        this.payouts = paytable.toArray();
+        this.cost = paytable.getCost();
+    }
+
+
+    /**
+     * Plays sessions in parallel and returns the merged counters.
+     *
+     * @param sessions number of sessions to play
+     * @param maxGames largest number of games in one session
+     * @param seed seed of the master random stream
+     * @return merged counters of every session
+     * @throws IllegalArgumentException if invalid sessions
+     * @throws IllegalArgumentException if invalid maxGames
+     */
+    public SimulationResult simulate(long sessions, int maxGames, long seed) {
+
+        // Parameter error checking - invalid sessions
+        if (sessions < 0) {
+            throw new IllegalArgumentException("Invalid sessions");
+        }
+
+        // Parameter error checking - invalid maxGames
+        if (maxGames < 0) {
+            throw new IllegalArgumentException("Invalid maxGames");
+        }
+
+        return new SessionTask(0, sessions, maxGames, new CounterRandom(seed)).invoke();
+    }
+
+
+    /**
+     * Plays sessions on the calling thread.
+     *
+     * @param first number of the first session
+     * @param sessions number of sessions to play
+     * @param maxGames largest number of games in one session
+     * @param master random stream whose numbered streams deal the sessions
+     * @param result counters to add to
+     */
+    private void playSessions(long first, long sessions, int maxGames, CounterRandom master,
+                              SimulationResult result) {
+        int[] deck = new int[Deck.CARDS_IN_DECK];
+        int[] hand = new int[Hand.CARDS_IN_HAND];
+
+        for (long session = first; session < first + sessions; session++) {
+            CounterRandom random = master.stream(session);
+
+            // Every session starts from an ordered deck so that it depends only on its stream
+            for (int i = 0; i < Deck.CARDS_IN_DECK; i++) {
+                deck[i] = i;
+            }
+
+            int points = VideoPoker.STARTING_POINTS;
+            int games = 0;
+
+            while (points >= cost && games < maxGames) {
+                points -= cost;
+                games++;
+
+                // Deal by partial Fisher-Yates; the deck stays a permutation between games
+                int next = 0;
+                for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                    hand[i] = draw(deck, next++, random);
+                }
+
+                int hold = strategy.chooseHold(hand);
+                for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                    if ((hold & (1 << i)) == 0) {
+                        hand[i] = draw(deck, next++, random);
+                    }
+                }
+
+                int category = HandEvaluator.category(HandEvaluator.evaluate(
+                    HandEvaluator.encode(hand[0]), HandEvaluator.encode(hand[1]),
+                    HandEvaluator.encode(hand[2]), HandEvaluator.encode(hand[3]),
+                    HandEvaluator.encode(hand[4])));
+                points += payouts[category];
+                result.recordGame(category, payouts[category], cost);
+            }
+
+            result.recordSession(points, points < cost);
+        }
+    }
+
+
+    /**
+     * Swaps a uniformly chosen card from the undealt part of the deck into
+     * the next position and returns it.
+     *
+     * @param deck card ordinals
+     * @param next index of the next card to deal
+     * @param random random stream
+     * @return dealt card ordinal
+     */
+    private static int draw(int[] deck, int next, CounterRandom random) {
+        int chosen = next + random.nextInt(Deck.CARDS_IN_DECK - next);
+        int card = deck[chosen];
+        deck[chosen] = deck[next];
+        deck[next] = card;
+        return card;
+    }
+
+
+    /**
+     * Plays a range of sessions, splitting it in half until it is small.
+     */
+    private class SessionTask extends RecursiveTask<SimulationResult> {
+
+        /** Serialization version of the task */
+        private static final long serialVersionUID = 1L;
+
+        /** Number of the first session */
+        private final long first;
+
+        /** Number of sessions to play */
+        private final long sessions;
+
+        /** Largest number of games in one session */
+        private final int maxGames;
+
+        /** Random stream whose numbered streams deal the sessions */
+        private final CounterRandom master;
+
+        /**
+         * SessionTask constructor.
+         *
+         * @param first number of the first session
+         * @param sessions number of sessions to play
+         * @param maxGames largest number of games in one session
+         * @param master random stream whose numbered streams deal the sessions
+         */
+        SessionTask(long first, long sessions, int maxGames, CounterRandom master) {
+            this.first = first;
+            this.sessions = sessions;
+            this.maxGames = maxGames;
+            this.master = master;
+        }
+
+        /**
+         * Plays the sessions or splits them between two subtasks.
+         *
+         * @return counters of the sessions
+         */
+        protected SimulationResult compute() {
+            if (sessions <= SESSIONS_PER_TASK) {
+                SimulationResult result = new SimulationResult();
+                playSessions(first, sessions, maxGames, master, result);
+                return result;
+            }
+
+            long half = sessions / 2;
+            SessionTask left = new SessionTask(first, half, maxGames, master);
+            SessionTask right = new SessionTask(first + half, sessions - half, maxGames, master);
+            left.fork();
+            SimulationResult result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+    }
+
+
+    /**
+     * Runs a simulation and prints the result.
+     *
+     * @param args sessions, maximum games per session, optional seed,
+     *        optional strategy table file (the simple strategy is used without one)
+     *        and optional paytable properties file, which the strategy table
+     *        must have been generated for
+     * @throws java.io.IOException if the strategy table or paytable cannot be read
+     */
+    public static void main(String[] args) throws java.io.IOException {
+        if (args.length < 2 || args.length > 5) {
+            System.out.println("Usage: java -cp bin SessionSimulator <sessions> <maxGames> "
+                               + "[seed] [strategyTable] [paytable]");
+            return;
+        }
+
+        long seed = args.length >= 3 ? Long.parseLong(args[2]) : System.nanoTime();
+        Paytable paytable = args.length == 5 ? Paytable.load(java.nio.file.Paths.get(args[4]))
+                                             : Paytable.standard();
+        HoldStrategy strategy = args.length >= 4
+                                ? new StrategyTable(java.nio.file.Paths.get(args[3]), paytable)
+                                : new SimpleHoldStrategy();
+
+        long start = System.nanoTime();
+        SimulationResult result = new SessionSimulator(strategy, paytable)
+            .simulate(Long.parseLong(args[0]), Integer.parseInt(args[1]), seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.print(result);
+        System.out.printf("%.2f s, %.0f games/s%n", seconds, result.getGames() / seconds);
+    }
+}
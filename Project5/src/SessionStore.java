@@ -0,0 +1,329 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Parks idle Video Poker sessions in fixed-size slots outside the Java heap.
+ *
+ * A live VideoPoker game is a deck of 52 Card references, a Hand and a
+ * random stream. Parked in the store it is 104 bytes of a direct buffer: the
+ * CounterRandom key and counter, the points, the seed, the deck order as 52
+ * ordinals with the index of the next card, the five hand ordinals, one
+ * byte of caller state and the session's id in an EventJournal. The heap holds only the buffer and the free list,
+ * so a store of millions of sessions adds almost nothing for the garbage
+ * collector to trace. A session is turned back into a VideoPoker with
+ * load() while a request runs and written back with save().
+ *
+ * Sessions are named by handles that combine the slot with a generation
+ * number bumped each time the slot is reused, so a handle to a freed
+ * session is rejected instead of reaching the slot's next owner.
+ *
+ * allocate() and free() may be called from any thread. A session must not
+ * be saved or loaded by two threads at once; different sessions may.
+ *
+ * Slot layout, little-endian: random key (long), random counter (long),
+ * points (int), seed (int), generation (int), next card (byte), flags
+ * (byte), caller state (byte), live (byte), journal id (long), hand
+ * (5 bytes), deck (52 bytes) and padding.
+ *
+ * @author Will Greene
+ */
+public class SessionStore {
+
+    /** Bytes in each slot */
+    public static final int SLOT_BYTES = 104;
+
+    /** Offset of the random stream key */
+    private static final int KEY = 0;
+
+    /** Offset of the random stream counter */
+    private static final int COUNTER = 8;
+
+    /** Offset of the points */
+    private static final int POINTS = 16;
+
+    /** Offset of the deck seed */
+    private static final int SEED = 20;
+
+    /** Offset of the generation */
+    private static final int GENERATION = 24;
+
+    /** Offset of the index of the next card */
+    private static final int NEXT = 28;
+
+    /** Offset of the flags */
+    private static final int FLAGS = 29;
+
+    /** Offset of the caller state */
+    private static final int STATE = 30;
+
+    /** Offset of the live marker */
+    private static final int LIVE = 31;
+
+    /** Offset of the journal id */
+    private static final int JOURNAL = 32;
+
+    /** Offset of the hand ordinals */
+    private static final int HAND = 40;
+
+    /** Offset of the deck ordinals, followed by padding to SLOT_BYTES */
+    private static final int DECK = HAND + Hand.CARDS_IN_HAND;
+
+    /** Flag set when the deck shuffles lazily */
+    private static final int LAZY_FLAG = 1;
+
+    /** Flag set when a hand has been dealt */
+    private static final int HAND_FLAG = 2;
+
+    /** Slots */
+    private final ByteBuffer slots;
+
+    /** Points paid for each hand category and for a game, shared by every session */
+    private final Paytable paytable;
+
+    /** Stack of free slot numbers */
+    private final int[] free;
+
+    /** Number of free slots on the stack */
+    private int freeCount;
+
+
+    /**
+     * SessionStore constructor. Reserves the memory for every slot up front.
+     *
+     * @param capacity largest number of sessions held at once
+     * @param paytable paytable of the restored games
+     * @throws IllegalArgumentException if invalid capacity
+     * @throws IllegalArgumentException if null paytable
+     */
+    public SessionStore(int capacity, Paytable paytable) {
+
+        // Parameter error checking - invalid capacity
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / SLOT_BYTES) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        this.slots = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.paytable = paytable;
+        this.free = new int[capacity];
+
+        // Hand out the lowest slots first
+        for (int i = 0; i < capacity; i++) {
+            free[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+
+    /**
+     * Returns the largest number of sessions held at once.
+     *
+     * @return capacity
+     */
+    public int getCapacity() {
+        return free.length;
+    }
+
+
+    /**
+     * Returns the number of sessions held.
+     *
+     * @return sessions held
+     */
+    public synchronized int size() {
+        return free.length - freeCount;
+    }
+
+
+    /**
+     * Reserves a slot for a new session.
+     *
+     * @return handle of the session, never 0
+     * @throws IllegalStateException if store full
+     */
+    public synchronized long allocate() {
+        if (freeCount == 0) {
+            throw new IllegalStateException("Store full");
+        }
+
+        int slot = free[--freeCount];
+        int base = slot * SLOT_BYTES;
+        int generation = slots.getInt(base + GENERATION) + 1;
+        slots.putInt(base + GENERATION, generation);
+        slots.put(base + LIVE, (byte) 1);
+        slots.putLong(base + JOURNAL, 0);
+
+        return (long) generation << 32 | slot;
+    }
+
+
+    /**
+     * Releases a session's slot.
+     *
+     * @param handle session handle
+     * @throws IllegalStateException if unknown session
+     */
+    public synchronized void free(long handle) {
+        int base = base(handle);
+        slots.put(base + LIVE, (byte) 0);
+        free[freeCount++] = base / SLOT_BYTES;
+    }
+
+
+    /**
+     * Returns whether a handle names a session held by the store.
+     *
+     * @param handle session handle
+     * @return true if held
+               false if not
+     */
+    public boolean contains(long handle) {
+        int slot = (int) handle;
+        if (slot < 0 || slot >= free.length) {
+            return false;
+        }
+
+        int base = slot * SLOT_BYTES;
+        return slots.get(base + LIVE) != 0
+               && slots.getInt(base + GENERATION) == (int) (handle >>> 32);
+    }
+
+
+    /**
+     * Writes a game into a session's slot.
+     *
+     * @param handle session handle
+     * @param game game to save; its deck must use a CounterRandom
+     * @param state caller state kept with the game, from 0 to 255
+     * @throws IllegalStateException if unknown session
+     * @throws IllegalArgumentException if the game's random stream cannot be saved
+     */
+    public void save(long handle, VideoPoker game, int state) {
+        int base = base(handle);
+        Deck deck = game.getDeck();
+
+        // Parameter error checking - random stream that cannot be saved
+        if (!(deck.getRandom() instanceof CounterRandom)) {
+            throw new IllegalArgumentException("Unsupported generator");
+        }
+
+        CounterRandom random = (CounterRandom) deck.getRandom();
+        slots.putLong(base + KEY, random.getKey());
+        slots.putLong(base + COUNTER, random.getCounter());
+        slots.putInt(base + POINTS, game.getPoints());
+        slots.putInt(base + SEED, deck.getSeed());
+        slots.put(base + NEXT, (byte) deck.getNext());
+        slots.put(base + FLAGS, (byte) ((deck.isLazyShuffle() ? LAZY_FLAG : 0)
+                                        | (game.hasHand() ? HAND_FLAG : 0)));
+        slots.put(base + STATE, (byte) state);
+
+        if (game.hasHand()) {
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                slots.put(base + HAND + i, (byte) game.getCard(i).getOrdinal());
+            }
+        }
+
+        for (int i = 0; i < Deck.CARDS_IN_DECK; i++) {
+            slots.put(base + DECK + i, (byte) deck.ordinalAt(i));
+        }
+    }
+
+
+    /**
+     * Rebuilds the game saved in a session's slot. The game continues
+     * exactly as the saved game would have, without a journal.
+     *
+     * @param handle session handle
+     * @return restored game
+     * @throws IllegalStateException if unknown session
+     */
+    public VideoPoker load(long handle) {
+        int base = base(handle);
+        int flags = slots.get(base + FLAGS);
+
+        CounterRandom random = CounterRandom.fromState(slots.getLong(base + KEY),
+                                                       slots.getLong(base + COUNTER));
+        Deck deck = new Deck(slots.getInt(base + SEED), random);
+        deck.setLazyShuffle((flags & LAZY_FLAG) != 0);
+        deck.restore(slots, base + DECK, slots.get(base + NEXT));
+
+        Card[] hand = null;
+        if ((flags & HAND_FLAG) != 0) {
+            hand = new Card[Hand.CARDS_IN_HAND];
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                hand[i] = Card.fromOrdinal(slots.get(base + HAND + i));
+            }
+        }
+
+        return new VideoPoker(deck, paytable, slots.getInt(base + POINTS), hand);
+    }
+
+
+    /**
+     * Returns the caller state saved with a session.
+     *
+     * @param handle session handle
+     * @return caller state, from 0 to 255
+     * @throws IllegalStateException if unknown session
+     */
+    public int getState(long handle) {
+        return slots.get(base(handle) + STATE) & 0xFF;
+    }
+
+
+    /**
+     * Sets the id naming a session in an EventJournal. Handles restart with
+     * every store, so a journal kept across runs needs ids of its own.
+     *
+     * @param handle session handle
+     * @param journalId journal session id, or 0 if the session is not journaled
+     * @throws IllegalStateException if unknown session
+     */
+    public void setJournalId(long handle, long journalId) {
+        slots.putLong(base(handle) + JOURNAL, journalId);
+    }
+
+
+    /**
+     * Returns the id naming a session in an EventJournal.
+     *
+     * @param handle session handle
+     * @return journal session id, or 0 if the session is not journaled
+     * @throws IllegalStateException if unknown session
+     */
+    public long getJournalId(long handle) {
+        return slots.getLong(base(handle) + JOURNAL);
+    }
+
+
+    /**
+     * Returns the points saved with a session without restoring the game.
+     *
+     * @param handle session handle
+     * @return points
+     * @throws IllegalStateException if unknown session
+     */
+    public int getPoints(long handle) {
+        return slots.getInt(base(handle) + POINTS);
+    }
+
+
+    /**
+     * Returns the offset of a session's slot.
+     *
+     * @param handle session handle
+     * @return slot offset in the buffer
+     * @throws IllegalStateException if unknown session
+     */
+    private int base(long handle) {
+        if (!contains(handle)) {
+            throw new IllegalStateException("Unknown session");
+        }
+
+        return (int) handle * SLOT_BYTES;
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Quick hold strategy for simulations that do not need optimal play.
+ * Keeps a made straight or better, otherwise any cards whose value is
+ * repeated, otherwise four cards to a flush, otherwise nothing.
+ *
+ * @author Will Greene
+ */
+public class SimpleHoldStrategy implements HoldStrategy {
+
+    /** Hold mask keeping every card */
+    private static final int HOLD_ALL = (1 << Hand.CARDS_IN_HAND) - 1;
+
+
+    /**
+     * Returns the cards to keep from a dealt hand.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return hold mask, bit i set to keep the card at index i
+     */
+    public int chooseHold(int[] cards) {
+        int category = HandEvaluator.category(HandEvaluator.evaluate(
+            HandEvaluator.encode(cards[0]), HandEvaluator.encode(cards[1]),
+            HandEvaluator.encode(cards[2]), HandEvaluator.encode(cards[3]),
+            HandEvaluator.encode(cards[4])));
+
+        if (category >= HandEvaluator.STRAIGHT) {
+            return HOLD_ALL;
+        }
+
+        int hold = 0;
+        int[] suitCounts = new int[SuitCanonicalizer.SUITS];
+
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            suitCounts[cards[i] / Card.VALUES]++;
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                if (i != j && cards[i] % Card.VALUES == cards[j] % Card.VALUES) {
+                    hold |= 1 << i;
+                }
+            }
+        }
+
+        if (hold != 0) {
+            return hold;
+        }
+
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            if (suitCounts[cards[i] / Card.VALUES] == Hand.CARDS_IN_HAND - 1) {
+                hold |= 1 << i;
+            }
+        }
+
+        return hold;
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Counters collected while simulating sessions of Video Poker.
+ * Each simulation thread fills its own result and the results are
+ * merged when the threads finish.
+ *
+ * @author Will Greene
+ */
+public class SimulationResult {
+
+    /** Number of sessions played */
+    private long sessions;
+
+    /** Number of sessions that ran out of points */
+    private long busted;
+
+    /** Number of games played */
+    private long games;
+
+    /** Points spent starting games */
+    private long pointsWagered;
+
+    /** Points won from scored hands */
+    private long pointsWon;
+
+    /** Sum of the points held at the end of each session */
+    private long finalPoints;
+
+    /** Number of scored hands in each category */
+    private final long[] categoryCounts = new long[HandEvaluator.CATEGORIES];
+
+
+    /**
+     * Records a scored hand.
+     *
+     * @param category hand category
+     * @param payout points paid
+     * @param cost points spent on the game
+     */
+    void recordGame(int category, int payout, int cost) {
+        games++;
+        categoryCounts[category]++;
+        pointsWon += payout;
+        pointsWagered += cost;
+    }
+
+
+    /**
+     * Records the end of a session.
+     *
+     * @param points points held at the end of the session
+     * @param bust whether the session ended because it ran out of points
+     */
+    void recordSession(int points, boolean bust) {
+        sessions++;
+        finalPoints += points;
+        if (bust) {
+            busted++;
+        }
+    }
+
+
+    /**
+     * Adds another result's counters to this result.
+     *
+     * @param other result to add
+     */
+    void merge(SimulationResult other) {
+        sessions += other.sessions;
+        busted += other.busted;
+        games += other.games;
+        pointsWagered += other.pointsWagered;
+        pointsWon += other.pointsWon;
+        finalPoints += other.finalPoints;
+        for (int i = 0; i < HandEvaluator.CATEGORIES; i++) {
+            categoryCounts[i] += other.categoryCounts[i];
+        }
+    }
+
+
+    /**
+     * Returns the number of sessions played.
+     *
+     * @return number of sessions
+     */
+    public long getSessions() {
+        return sessions;
+    }
+
+
+    /**
+     * Returns the number of sessions that ran out of points.
+     *
+     * @return number of busted sessions
+     */
+    public long getBusted() {
+        return busted;
+    }
+
+
+    /**
+     * Returns the number of games played.
+     *
+     * @return number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+
+    /**
+     * Returns the points spent starting games.
+     *
+     * @return points wagered
+     */
+    public long getPointsWagered() {
+        return pointsWagered;
+    }
+
+
+    /**
+     * Returns the points won from scored hands.
+     *
+     * @return points won
+     */
+    public long getPointsWon() {
+        return pointsWon;
+    }
+
+
+    /**
+     * Returns the sum of the points held at the end of each session.
+     *
+     * @return total final points
+     */
+    public long getFinalPoints() {
+        return finalPoints;
+    }
+
+
+    /**
+     * Returns the number of scored hands in a category.
+     *
+     * @param category hand category, from HandEvaluator.NO_PAIR to HandEvaluator.ROYAL_FLUSH
+     * @return number of hands
+     */
+    public long getCategoryCount(int category) {
+        return categoryCounts[category];
+    }
+
+
+    /**
+     * Returns the points won per point wagered.
+     *
+     * @return observed return to player
+     */
+    public double getReturn() {
+        return pointsWagered == 0 ? 0 : (double) pointsWon / pointsWagered;
+    }
+
+
+    /**
+     * Returns a summary of the counters.
+     *
+     * @return summary of the result
+     */
+    public String toString() {
+        String s = "sessions: " + sessions + ", busted: " + busted + ", games: " + games
+                   + ", wagered: " + pointsWagered + ", won: " + pointsWon
+                   + String.format(", return: %.5f", getReturn()) + "\n";
+
+        for (int i = HandEvaluator.CATEGORIES - 1; i >= 0; i--) {
+            s += HandCategory.of(i).getDisplayName() + ": " + categoryCounts[i] + "\n";
+        }
+
+        return s;
+    }
+}
@@ -0,0 +1,338 @@
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed best hold for every starting hand, read from a memory-mapped file.
+ *
+ * Hands that differ only by a permutation of suits share the same best hold,
+ * so the table stores one entry per suit-isomorphic class (134,459 classes
+ * for the 2,598,960 deals). A class is represented by its canonical CardSet
+ * from SuitCanonicalizer. The file is an open-addressing hash table keyed by that set, so
+ * a lookup is a constant number of reads from the mapped file and does not
+ * allocate.
+ *
+ * File layout, little-endian: a header of magic, version, slot count and
+ * class count (four ints) and the fingerprint of the paytable the holds
+ * were solved for (long), followed by the slots. Each slot is the canonical
+ * set (long, 0 when empty), the expected payout of the best hold (float),
+ * the best hold (byte) and three bytes of padding. The hold is a mask over
+ * the cards of the canonical set in ascending ordinal order.
+ *
+ * A table is only opened for the paytable it was solved for, since the best
+ * holds change with the payouts.
+ *
+ * Generate a table with: java -cp bin StrategyTable &lt;file&gt; [paytable]
+ * VideoPokerGUI's turbo mode reads VideoPokerGUI.DEFAULT_STRATEGY_TABLE
+ * from the working directory when no table is given.
+ *
+ * @author Will Greene
+ */
+public class StrategyTable implements HoldStrategy {
+
+    /** Marks a strategy table file ("VPST") */
+    public static final int MAGIC = 0x56505354;
+
+    /** File format version */
+    public static final int VERSION = 2;
+
+    /** Bytes in the file header */
+    private static final int HEADER_BYTES = 24;
+
+    /** Bytes in each slot */
+    private static final int SLOT_BYTES = 16;
+
+    /** Multiplier used to hash canonical sets */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    /** Mapped table file */
+    private final MappedByteBuffer buffer;
+
+    /** Number of bits in a slot index */
+    private final int slotBits;
+
+    /** Mask selecting a slot index */
+    private final int slotMask;
+
+    /** Number of classes in the table */
+    private final int classes;
+
+
+    /**
+     * Maps a strategy table file solved for the standard paytable.
+     *
+     * @param file table file written by generate()
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a strategy table
+     * @throws IllegalArgumentException if the table is for another paytable
+     */
+    public StrategyTable(Path file) throws IOException {
+        this(file, Paytable.standard());
+    }
+
+
+    /**
+     * Maps a strategy table file.
+     *
+     * @param file table file written by generate()
+     * @param paytable paytable the table must have been solved for
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if null paytable
+     * @throws IllegalArgumentException if the file is not a strategy table
+     * @throws IllegalArgumentException if the table is for another paytable
+     */
+    public StrategyTable(Path file, Paytable paytable) throws IOException {
+
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r");
+             FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+            || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Invalid strategy table");
+        }
+
+        int slots = buffer.getInt(8);
+        if (Integer.bitCount(slots) != 1
+            || buffer.capacity() != HEADER_BYTES + (long) slots * SLOT_BYTES) {
+            throw new IllegalArgumentException("Invalid strategy table");
+        }
+
+        // Parameter error checking - no empty slot to end a probe
+        classes = buffer.getInt(12);
+        if (classes < 0 || classes >= slots) {
+            throw new IllegalArgumentException("Invalid strategy table");
+        }
+
+        // Parameter error checking - holds solved for other payouts
+        if (buffer.getLong(16) != paytable.fingerprint()) {
+            throw new IllegalArgumentException("Strategy table for another paytable");
+        }
+
+        slotBits = Integer.numberOfTrailingZeros(slots);
+        slotMask = slots - 1;
+    }
+
+
+    /**
+     * Returns the number of hand classes in the table.
+     *
+     * @return number of classes
+     */
+    public int getClasses() {
+        return classes;
+    }
+
+
+    /**
+     * Returns the best hold for a hand.
+     *
+     * @param hand dealt hand
+     * @return hold mask, bit i set to keep the card at index i
+     * @throws IllegalStateException if the hand's class is not in the table
+     */
+    public int bestHold(Hand hand) {
+        return bestHold(hand.getCard(0).getOrdinal(), hand.getCard(1).getOrdinal(),
+                        hand.getCard(2).getOrdinal(), hand.getCard(3).getOrdinal(),
+                        hand.getCard(4).getOrdinal());
+    }
+
+
+    /**
+     * Returns the best hold for five card ordinals.
+     *
+     * @param c0 ordinal of the card at index 0
+     * @param c1 ordinal of the card at index 1
+     * @param c2 ordinal of the card at index 2
+     * @param c3 ordinal of the card at index 3
+     * @param c4 ordinal of the card at index 4
+     * @return hold mask, bit i set to keep the card at index i
+     * @throws IllegalStateException if the hand's class is not in the table
+     */
+    public int bestHold(int c0, int c1, int c2, int c3, int c4) {
+        long set = 1L << c0 | 1L << c1 | 1L << c2 | 1L << c3 | 1L << c4;
+        int permutation = SuitCanonicalizer.suitPermutation(set);
+        long canonical = SuitCanonicalizer.permute(set, permutation);
+        int stored = buffer.get(find(canonical) + 12);
+
+        return heldBit(stored, canonical, SuitCanonicalizer.permute(c0, permutation))
+               | heldBit(stored, canonical, SuitCanonicalizer.permute(c1, permutation)) << 1
+               | heldBit(stored, canonical, SuitCanonicalizer.permute(c2, permutation)) << 2
+               | heldBit(stored, canonical, SuitCanonicalizer.permute(c3, permutation)) << 3
+               | heldBit(stored, canonical, SuitCanonicalizer.permute(c4, permutation)) << 4;
+    }
+
+
+    /**
+     * Returns the best hold for five card ordinals.
+     *
+     * @param cards ordinals of the five dealt cards
+     * @return hold mask, bit i set to keep the card at index i
+     * @throws IllegalStateException if the hand's class is not in the table
+     */
+    public int chooseHold(int[] cards) {
+        return bestHold(cards[0], cards[1], cards[2], cards[3], cards[4]);
+    }
+
+
+    /**
+     * Returns the expected payout of the best hold for a hand.
+     *
+     * @param hand dealt hand
+     * @return expected payout, not counting the cost of the game
+     * @throws IllegalStateException if the hand's class is not in the table
+     */
+    public double expectedValue(Hand hand) {
+        return buffer.getFloat(find(SuitCanonicalizer.canonicalize(hand)) + 8);
+    }
+
+
+    /**
+     * Returns the byte offset of the slot holding a canonical set. The probe
+     * visits each slot at most once, so a damaged file without an empty slot
+     * fails instead of looping.
+     *
+     * @param canonical canonical card set
+     * @return slot offset in the file
+     * @throws IllegalStateException if the set is not in the table
+     */
+    private int find(long canonical) {
+        int slot = (int) ((canonical * HASH_MULTIPLIER) >>> (64 - slotBits));
+
+        for (int probe = 0; probe <= slotMask; probe++) {
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            long key = buffer.getLong(offset);
+            if (key == canonical) {
+                return offset;
+            }
+            if (key == 0) {
+                throw new IllegalStateException("Hand not in table");
+            }
+            slot = (slot + 1) & slotMask;
+        }
+
+        throw new IllegalStateException("Hand not in table");
+    }
+
+
+    /**
+     * Returns 1 if the stored hold keeps a canonical card.
+     *
+     * @param stored hold mask over the canonical set in ordinal order
+     * @param canonical canonical card set
+     * @param ordinal canonical ordinal of the card
+     * @return 1 if held, 0 if not
+     */
+    private static int heldBit(int stored, long canonical, int ordinal) {
+        int position = Long.bitCount(canonical & ((1L << ordinal) - 1));
+        return (stored >>> position) & 1;
+    }
+
+
+    /**
+     * Solves every class of five card hands and writes the table.
+     *
+     * @param file file to write
+     * @param solver solver giving the payout of each hold
+     * @throws IOException if the file cannot be written
+     */
+    public static void generate(Path file, HoldSolver solver) throws IOException {
+        write(file, solver, SuitCanonicalizer.classes(Hand.CARDS_IN_HAND));
+    }
+
+
+    /**
+     * Solves the given classes in parallel and writes them as a table.
+     *
+     * @param file file to write
+     * @param solver solver giving the payout of each hold
+     * @param hands canonical sets to include
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, HoldSolver solver, long[] hands) throws IOException {
+        float[] values = new float[hands.length];
+        byte[] holds = new byte[hands.length];
+
+        IntStream.range(0, hands.length).parallel().forEach(i -> {
+            int[] cards = new int[Hand.CARDS_IN_HAND];
+            long rest = hands[i];
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                cards[j] = Long.numberOfTrailingZeros(rest);
+                rest &= rest - 1;
+            }
+
+            long[] totals = new long[HoldSolver.HOLDS];
+            solver.payoutTotals(cards, totals);
+            double[] ev = new double[HoldSolver.HOLDS];
+            for (int hold = 0; hold < HoldSolver.HOLDS; hold++) {
+                ev[hold] = (double) totals[hold] / HoldSolver.draws(hold);
+            }
+
+            int best = HoldSolver.bestHold(ev);
+            holds[i] = (byte) best;
+            values[i] = (float) ev[best];
+        });
+
+        // Keep the load factor at or below one half
+        int slots = Integer.highestOneBit(Math.max(hands.length, 1)) * 4;
+        int slotBits = Integer.numberOfTrailingZeros(slots);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + slots * SLOT_BYTES);
+        out.order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(0, MAGIC);
+        out.putInt(4, VERSION);
+        out.putInt(8, slots);
+        out.putInt(12, hands.length);
+        out.putLong(16, solver.getPaytable().fingerprint());
+
+        for (int i = 0; i < hands.length; i++) {
+            int slot = (int) ((hands[i] * HASH_MULTIPLIER) >>> (64 - slotBits));
+            while (out.getLong(HEADER_BYTES + slot * SLOT_BYTES) != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            int offset = HEADER_BYTES + slot * SLOT_BYTES;
+            out.putLong(offset, hands[i]);
+            out.putFloat(offset + 8, values[i]);
+            out.put(offset + 12, holds[i]);
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             FileChannel channel = raf.getChannel()) {
+            channel.truncate(0);
+            channel.write(out);
+        }
+    }
+
+
+    /**
+     * Generates a strategy table.
+     *
+     * @param args args[0] file to write and args[1] optional paytable
+     *        properties file (the VideoPoker payouts are used without one)
+     * @throws IOException if the paytable cannot be read or the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java -cp bin StrategyTable <file> [paytable]");
+            return;
+        }
+
+        Paytable paytable = args.length == 2 ? Paytable.load(Paths.get(args[1]))
+                                             : Paytable.standard();
+        long start = System.nanoTime();
+        generate(Paths.get(args[0]), new HoldSolver(paytable));
+        System.out.printf("Wrote %s in %.1f s%n", args[0], (System.nanoTime() - start) / 1e9);
+    }
+}
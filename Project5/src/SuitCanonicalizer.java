@@ -0,0 +1,284 @@
+import java.util.Arrays;
+
+/**
+ * Maps card sets that differ only by a permutation of suits to one
+ * canonical set, and numbers the canonical sets densely.
+ *
+ * The canonical set renumbers the suits in decreasing order of their
+ * 13-bit rank patterns, so c2 d3 s4 h5 c6 and h2 s3 d4 c5 h6 both become
+ * the same set. Works for full hands and for held subsets of any size.
+ *
+ * For sets of up to five cards, classes(size) lists the canonical sets in
+ * increasing order, index() gives a set's position in that list and
+ * weight() gives how many raw sets belong to its class. There are 1, 13,
+ * 169, 1755, 16432 and 134459 classes of 0 to 5 cards.
+ *
+ * @author Will Greene
+ */
+public class SuitCanonicalizer {
+
+    /** Number of suits */
+    public static final int SUITS = 4;
+
+    /** Largest set size with a dense index */
+    public static final int MAX_INDEXED_SIZE = Hand.CARDS_IN_HAND;
+
+    /** Number of suit permutations */
+    private static final int PERMUTATIONS = 24;
+
+
+    /**
+     * Holds the canonical sets of each size. The JVM builds them once when
+     * classes() first uses this class, so reading them takes no lock.
+     */
+    private static class Classes {
+
+        /** Canonical sets of each size in increasing order */
+        static final long[][] BY_SIZE = new long[MAX_INDEXED_SIZE + 1][];
+
+        static {
+            for (int size = 0; size <= MAX_INDEXED_SIZE; size++) {
+                BY_SIZE[size] = enumerate(size);
+            }
+        }
+    }
+
+
+    /**
+     * Prevents instantiation.
+     */
+    private SuitCanonicalizer() {
+    }
+
+
+    /**
+     * Returns the new index of each suit, packed two bits per suit, that
+     * orders the suits by decreasing rank pattern. Ties keep suit order.
+     *
+     * @param set card set
+     * @return packed suit permutation
+     */
+    public static int suitPermutation(long set) {
+        int permutation = 0;
+
+        for (int s = 0; s < SUITS; s++) {
+            int pattern = CardSet.suitRanks(set, s);
+            int index = 0;
+            for (int t = 0; t < SUITS; t++) {
+                int other = CardSet.suitRanks(set, t);
+                if (other > pattern || (other == pattern && t < s)) {
+                    index++;
+                }
+            }
+            permutation |= index << (2 * s);
+        }
+
+        return permutation;
+    }
+
+
+    /**
+     * Returns a card set with its suits renumbered.
+     *
+     * @param set card set
+     * @param permutation packed suit permutation
+     * @return renumbered card set
+     */
+    public static long permute(long set, int permutation) {
+        long result = CardSet.EMPTY;
+
+        for (int s = 0; s < SUITS; s++) {
+            int index = (permutation >>> (2 * s)) & 3;
+            result |= (long) CardSet.suitRanks(set, s) << (index * Card.VALUES);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Returns a card ordinal with its suit renumbered.
+     *
+     * @param ordinal card ordinal
+     * @param permutation packed suit permutation
+     * @return renumbered card ordinal
+     */
+    public static int permute(int ordinal, int permutation) {
+        int suit = ordinal / Card.VALUES;
+        return ((permutation >>> (2 * suit)) & 3) * Card.VALUES + ordinal % Card.VALUES;
+    }
+
+
+    /**
+     * Returns the canonical set of the class holding a card set.
+     *
+     * @param set card set of any size
+     * @return canonical card set
+     */
+    public static long canonicalize(long set) {
+        return permute(set, suitPermutation(set));
+    }
+
+
+    /**
+     * Returns the canonical set of the class holding a hand.
+     *
+     * @param hand hand of cards
+     * @return canonical card set
+     */
+    public static long canonicalize(Hand hand) {
+        return canonicalize(hand.toCardSet());
+    }
+
+
+    /**
+     * Returns the canonical set of the cards a hold keeps from a hand.
+     *
+     * @param hand hand of cards
+     * @param hold hold mask, bit i set to keep the card at index i
+     * @return canonical card set of the held cards
+     */
+    public static long canonicalize(Hand hand, int hold) {
+        long held = CardSet.EMPTY;
+
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            if ((hold & (1 << i)) != 0) {
+                held = CardSet.add(held, hand.getCard(i));
+            }
+        }
+
+        return canonicalize(held);
+    }
+
+
+    /**
+     * Returns whether a card set is the canonical set of its class.
+     *
+     * @param set card set
+     * @return true if canonical
+               false if not
+     */
+    public static boolean isCanonical(long set) {
+        return canonicalize(set) == set;
+    }
+
+
+    /**
+     * Returns the number of raw card sets in the class of a set, which is
+     * 24 divided by the number of suit permutations that leave it unchanged.
+     *
+     * @param set card set
+     * @return class size
+     */
+    public static int weight(long set) {
+        int symmetries = 1;
+
+        for (int s = 0; s < SUITS; s++) {
+            int same = 0;
+            for (int t = 0; t < s; t++) {
+                if (CardSet.suitRanks(set, t) == CardSet.suitRanks(set, s)) {
+                    same++;
+                }
+            }
+            symmetries *= same + 1;
+        }
+
+        return PERMUTATIONS / symmetries;
+    }
+
+
+    /**
+     * Returns the canonical sets of a size in increasing order. The
+     * returned array is shared and must not be changed.
+     *
+     * @param size number of cards, from 0 to MAX_INDEXED_SIZE
+     * @return canonical sets
+     * @throws IllegalArgumentException if invalid size
+     */
+    public static long[] classes(int size) {
+
+        // Parameter error checking - invalid size
+        if (size < 0 || size > MAX_INDEXED_SIZE) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+
+        return Classes.BY_SIZE[size];
+    }
+
+
+    /**
+     * Returns the dense index of a canonical set among the sets of its size.
+     *
+     * @param canonical canonical card set of at most MAX_INDEXED_SIZE cards
+     * @return index from 0 to classes(size).length - 1
+     * @throws IllegalArgumentException if not a canonical set
+     */
+    public static int index(long canonical) {
+        int size = CardSet.size(canonical);
+
+        // Parameter error checking - not a canonical set
+        if (size > MAX_INDEXED_SIZE || !isCanonical(canonical)) {
+            throw new IllegalArgumentException("Not a canonical set");
+        }
+
+        return Arrays.binarySearch(classes(size), canonical);
+    }
+
+
+    /**
+     * Returns the dense index of the class holding a card set.
+     *
+     * @param set card set of at most MAX_INDEXED_SIZE cards
+     * @return index from 0 to classes(size).length - 1
+     */
+    public static int classIndex(long set) {
+        return index(canonicalize(set));
+    }
+
+
+    /**
+     * Lists the canonical sets of a size.
+     *
+     * @param size number of cards
+     * @return canonical sets in increasing order
+     */
+    private static long[] enumerate(int size) {
+        long[] found = new long[64];
+        int count = 0;
+        int[] cards = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            cards[i] = i;
+        }
+
+        while (true) {
+            long set = CardSet.EMPTY;
+            for (int i = 0; i < size; i++) {
+                set |= CardSet.ofOrdinal(cards[i]);
+            }
+            if (isCanonical(set)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, 2 * count);
+                }
+                found[count++] = set;
+            }
+
+            // Advance to the next combination in lexicographic order
+            int i = size - 1;
+            while (i >= 0 && cards[i] == Card.CARDS - size + i) {
+                i--;
+            }
+            if (i < 0) {
+                break;
+            }
+            cards[i]++;
+            for (int j = i + 1; j < size; j++) {
+                cards[j] = cards[j - 1] + 1;
+            }
+        }
+
+        long[] classes = Arrays.copyOf(found, count);
+        Arrays.sort(classes);
+        return classes;
+    }
+}
@@ -1,6 +1,12 @@
 /**
  * Handles the logic behind a game of Video Poker.
  * 
+ * In multi-hand play (setHandCount() above 1) each game costs one game per
+ * hand. The player holds cards of the base hand, and drawHands() copies
+ * them into every other hand, draws each hand's replacements from its own
+ * deck of the cards not dealt to the base hand (47 when only drawHands()
+ * replaces cards), and scores and pays every hand. The hand count is fixed for each game when it is dealt.
+ * 
  * @author Will Greene
  */
 public class VideoPoker {
@@ -43,6 +49,12 @@ public class VideoPoker {
     
     /** points earned for a one pair */
     public static final int ONE_PAIR = 7;
+    
+    /** largest number of hands played at once in multi-hand play */
+    public static final int MAX_HANDS = 100;
+    
+    /** number of the random stream dealing the extra hands of multi-hand play */
+    private static final long EXTRA_HANDS_STREAM = 1;
         
     /** reference to a deck of 52 cards */
     private Deck deck;
@@ -53,17 +65,211 @@ public class VideoPoker {
     /** points a player earns or spends */
     private int points;
     
+    /** points paid for each hand category and for a game */
+    private final Paytable paytable;
+    
+    /** journal recording each event of the game, or null */
+    private EventJournal journal;
+    
+    /** session id of the game's journal records */
+    private long sessionId;
+    
+    /** number of hands played at once from the next newGame() */
+    private int handCount = 1;
+    
+    /** number of hands paid for by the current game */
+    private int dealtHands = 1;
+    
+    /** whether drawHands() has dealt the extra hands of the current game */
+    private boolean extraDrawn;
+    
+    /** random stream dealing the extra hands, never drawing from the deck's so the base hand is unchanged */
+    private CounterRandom extraRandom;
+    
+    /** cards left for the extra hands: the deck less the dealt cards, reused for every draw */
+    private int[] extraDeck;
+    
+    /** ordinals of the extra hands, CARDS_IN_HAND per hand, reused for every draw */
+    private int[] extraCards;
+    
+    /** categories of the extra hands, reused for every draw */
+    private int[] extraCategories;
+    
     
     /**
-     * Video poker constructor.
+     * Video poker constructor using the standard paytable.
      * Creates a deck using the seed.
      * Sets points to STARTING_POINTS.
      * 
      * @param seed random seed provided for testing
      */
     public VideoPoker(int seed) {
+        this(seed, Paytable.standard());
+    }
+    
+    
+    /**
+     * Video poker constructor.
+     * Creates a deck using the seed that shuffles lazily, since a game
+     * deals at most 2 * CARDS_IN_HAND cards.
+     * Sets points to STARTING_POINTS.
+     * 
+     * @param seed random seed provided for testing
+     * @param paytable points paid for each hand category and for a game
+     * @throws IllegalArgumentException if null paytable
+     */
+    public VideoPoker(int seed, Paytable paytable) {
+        
+        // Parameter error checking - null paytable
+        if (paytable == null) {
+            throw new IllegalArgumentException("Null paytable");
+        }
+        
         deck = new Deck(seed);
+        deck.setLazyShuffle(true);
         points = STARTING_POINTS;
+        this.paytable = paytable;
+    }
+    
+    
+    /**
+     * Video poker constructor restoring a saved game.
+     * 
+     * @param deck deck in its saved state
+     * @param paytable points paid for each hand category and for a game
+     * @param points points held
+     * @param hand cards in the hand, or null before the first game
+     */
+    VideoPoker(Deck deck, Paytable paytable, int points, Card[] hand) {
+        this.deck = deck;
+        this.paytable = paytable;
+        this.points = points;
+        this.hand = hand == null ? null : new Hand(hand);
+    }
+    
+    
+    /**
+     * Returns the deck the game deals from.
+     * 
+     * @return deck
+     */
+    Deck getDeck() {
+        return deck;
+    }
+    
+    
+    /**
+     * Returns whether a hand has been dealt.
+     * 
+     * @return true after the first newGame()
+               false before it
+     */
+    boolean hasHand() {
+        return hand != null;
+    }
+    
+    
+    /**
+     * Returns whether the game's events are recorded in a journal.
+     * 
+     * @return true if journaled
+               false if not
+     */
+    boolean isJournaled() {
+        return journal != null;
+    }
+    
+    
+    /**
+     * Records every later deal, replace and score of this game in a journal.
+     * Writes an OPEN record holding the key of the game's random stream, so
+     * the journal alone is enough to play the game again.
+     * 
+     * @param journal journal to append to
+     * @param sessionId id of the game's records
+     * @throws IllegalArgumentException if null journal
+     * @throws IllegalArgumentException if the game's random stream cannot be recorded
+     * @throws IllegalStateException if a hand has been dealt
+     */
+    public void setJournal(EventJournal journal, long sessionId) {
+        
+        // Parameter error checking - null journal
+        if (journal == null) {
+            throw new IllegalArgumentException("Null journal");
+        }
+        
+        // Parameter error checking - random stream that cannot be recorded
+        if (!(deck.getRandom() instanceof CounterRandom)) {
+            throw new IllegalArgumentException("Unsupported generator");
+        }
+        
+        if (hand != null) {
+            throw new IllegalStateException("Game already started");
+        }
+        
+        if (handCount > 1) {
+            throw new IllegalStateException("Multi-hand games are not journaled");
+        }
+        
+        journal.open(sessionId, ((CounterRandom) deck.getRandom()).getKey());
+        attachJournal(journal, sessionId);
+    }
+    
+    
+    /**
+     * Records every later event of a game whose session is already open in
+     * the journal, such as a game restored from a SessionStore.
+     * 
+     * @param journal journal to append to, or null to stop recording
+     * @param sessionId id of the game's records
+     */
+    void attachJournal(EventJournal journal, long sessionId) {
+        this.journal = journal;
+        this.sessionId = sessionId;
+    }
+    
+    
+    /**
+     * Sets the number of hands played at once. Takes effect at the next
+     * newGame(), so a hand in play is drawn and paid as it was dealt.
+     * 
+     * @param handCount number of hands, from 1 to MAX_HANDS
+     * @throws IllegalArgumentException if invalid hand count
+     * @throws IllegalStateException if the game is journaled and handCount is above 1
+     */
+    public void setHandCount(int handCount) {
+        
+        // Parameter error checking - invalid hand count
+        if (handCount < 1 || handCount > MAX_HANDS) {
+            throw new IllegalArgumentException("Invalid hand count");
+        }
+        
+        if (handCount > 1 && journal != null) {
+            throw new IllegalStateException("Multi-hand games are not journaled");
+        }
+        
+        this.handCount = handCount;
+    }
+    
+    
+    /**
+     * Returns the number of hands played at once from the next newGame(),
+     * which is also the number in play unless it was changed since the deal.
+     * 
+     * @return number of hands
+     */
+    public int getHandCount() {
+        return handCount;
+    }
+    
+    
+    /**
+     * Returns the paytable used to score hands.
+     * 
+     * @return paytable
+     */
+    public Paytable getPaytable() {
+        return paytable;
     }
     
     
@@ -101,20 +307,105 @@ public class VideoPoker {
     
     
     /**
-     * Starts a new game.
-     * Subtracts POINTS_FOR_NEW_GAME from points and shuffles the deck.
-     * A new array of CARDS_IN_HAND Cards is created and filled.
+     * Returns a card of one hand of multi-hand play after drawHands().
+     * 
+     * @param hand hand number, 0 for the base hand
+     * @param index index of the card in the hand
+     * @return card at given index in the hand
+     * @throws IllegalArgumentException if invalid hand
+     * @throws IllegalStateException if the extra hands are not drawn yet
+     */
+    public Card getCard(int hand, int index) {
+        checkHand(hand);
+        return hand == 0 ? getCard(index)
+                         : Card.fromOrdinal(extraCards[(hand - 1) * CARDS_IN_HAND + index]);
+    }
+    
+    
+    /**
+     * Returns the category of one hand of multi-hand play after drawHands().
+     * 
+     * @param hand hand number, 0 for the base hand
+     * @return category of the hand
+     * @throws IllegalArgumentException if invalid hand
+     * @throws IllegalStateException if the extra hands are not drawn yet
+     */
+    public HandCategory getCategory(int hand) {
+        checkHand(hand);
+        return HandCategory.of(hand == 0 ? this.hand.getCategory() : extraCategories[hand - 1]);
+    }
+    
+    
+    /**
+     * Checks a hand number of the current game.
+     * 
+     * @param hand hand number, 0 for the base hand
+     * @throws IllegalArgumentException if invalid hand
+     * @throws IllegalStateException if the extra hands are not drawn yet
+     */
+    private void checkHand(int hand) {
+        
+        // Parameter error checking - invalid hand
+        if (hand < 0 || hand >= dealtHands) {
+            throw new IllegalArgumentException("Invalid hand");
+        }
+        
+        if (hand > 0 && !extraDrawn) {
+            throw new IllegalStateException("Hands not drawn");
+        }
+    }
+    
+    
+    /**
+     * Starts a new game with the hand count last set.
+     * Subtracts the paytable's cost of a game for each hand from points and shuffles the deck.
+     * The first game creates a hand of CARDS_IN_HAND Cards; later games
+     * refill the same hand, so playing a game does not allocate.
      */
     public void newGame() {
-        points = points - POINTS_FOR_NEW_GAME;
+        dealtHands = handCount;
+        extraDrawn = false;
+        
+        if (dealtHands > 1 && (extraCards == null || extraCategories.length < dealtHands - 1)) {
+            extraDeck = new int[Deck.CARDS_IN_DECK];
+            extraCards = new int[(dealtHands - 1) * CARDS_IN_HAND];
+            extraCategories = new int[dealtHands - 1];
+        }
+        
+        if (dealtHands > 1 && extraRandom == null) {
+            // Any other generator gets an unrelated stream rather than one seeded from its own output
+            extraRandom = deck.getRandom() instanceof CounterRandom
+                          ? ((CounterRandom) deck.getRandom()).stream(EXTRA_HANDS_STREAM)
+                          : new CounterRandom();
+        }
+        
+        points = points - paytable.getCost() * dealtHands;
         deck.shuffle();
         
-        Card[] newHand = new Card[CARDS_IN_HAND];
-        for (int i = 0; i < CARDS_IN_HAND; i++) {
-            newHand[i] = deck.nextCard();
+        if (hand == null) {
+            Card[] newHand = new Card[CARDS_IN_HAND];
+            for (int i = 0; i < CARDS_IN_HAND; i++) {
+                newHand[i] = deck.nextCard();
+            }
+            
+            hand = new Hand(newHand);
+        }
+        
+        else {
+            for (int i = 0; i < CARDS_IN_HAND; i++) {
+                hand.replace(i, deck.nextCard());
+            }
         }
         
-        hand = new Hand(newHand);
+        if (GameMetrics.ENABLED) {
+            GameMetrics.recordDeal(paytable.getCost() * dealtHands);
+        }
+        
+        if (journal != null) {
+            journal.deal(sessionId, hand.getCard(0).getOrdinal(), hand.getCard(1).getOrdinal(),
+                         hand.getCard(2).getOrdinal(), hand.getCard(3).getOrdinal(),
+                         hand.getCard(4).getOrdinal(), -paytable.getCost(), points);
+        }
     }
     
     
@@ -125,7 +416,152 @@ public class VideoPoker {
      * @param index index of the card in the hand
      */
     public void replaceCard(int index) {
-        hand.replace(index, deck.nextCard());
+        Card card = deck.nextCard();
+        hand.replace(index, card);
+        
+        if (GameMetrics.ENABLED) {
+            GameMetrics.recordReplace();
+        }
+        
+        if (journal != null) {
+            journal.replace(sessionId, index, card.getOrdinal(), points);
+        }
+    }
+    
+    
+    /**
+     * Scores the hand and adds the paytable's payout for its category to
+     * the total points. Classifies the hand once and does not allocate.
+     * Leaves the cards of the scored hand sorted by value for display.
+     * 
+     * @return category of the scored hand
+     */
+    public HandCategory score() {
+        long start = GameMetrics.ENABLED ? System.nanoTime() : 0;
+        hand.sort();
+        HandCategory category = HandCategory.of(hand.getCategory());
+        int payout = paytable.payout(category);
+        points += payout;
+        
+        if (GameMetrics.ENABLED) {
+            GameMetrics.recordScore(category, payout, System.nanoTime() - start);
+        }
+        
+        if (journal != null) {
+            journal.score(sessionId, category.ordinal(), payout, points);
+        }
+        return category;
+    }
+    
+    
+    /**
+     * Draws and scores every hand of multi-hand play. Replaces the cards
+     * of the base hand that are not held from the deck, then fills each
+     * other hand with the held cards and replacements drawn from its own
+     * deck of the cards not dealt to the base hand. Plays the number of
+     * hands the game was dealt with. Adds the payouts of every hand to the
+     * points.
+     * 
+     * The extra hands are dealt into reused arrays and classified in one
+     * batch without building Hand objects, so a round of MAX_HANDS hands
+     * does not allocate.
+     * 
+     * @param hold hold mask, bit i set to keep the card at index i of the base hand
+     * @return total payout of every hand
+     * @throws IllegalArgumentException if invalid hold
+     * @throws IllegalStateException if no hand dealt
+     * @throws IllegalStateException if too few cards are left for the extra hands
+     */
+    public int drawHands(int hold) {
+        
+        // Parameter error checking - invalid hold
+        if (hold < 0 || hold >= 1 << CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Invalid hold");
+        }
+        
+        if (hand == null) {
+            throw new IllegalStateException("No hand dealt");
+        }
+        
+        for (int i = 0; i < CARDS_IN_HAND; i++) {
+            if ((hold & (1 << i)) == 0) {
+                replaceCard(i);
+            }
+        }
+        
+        // The extra hands take the held cards by index, so deal them before scoring sorts the hand
+        if (dealtHands > 1) {
+            dealExtraHands(hold);
+        }
+        
+        int before = points;
+        score();
+        
+        if (dealtHands > 1) {
+            for (int h = 0; h < dealtHands - 1; h++) {
+                int at = h * CARDS_IN_HAND;
+                int category = HandEvaluator.category(HandEvaluator.evaluate(
+                    HandEvaluator.encode(extraCards[at]), HandEvaluator.encode(extraCards[at + 1]),
+                    HandEvaluator.encode(extraCards[at + 2]), HandEvaluator.encode(extraCards[at + 3]),
+                    HandEvaluator.encode(extraCards[at + 4])));
+                extraCategories[h] = category;
+                points += paytable.payout(category);
+                
+                if (GameMetrics.ENABLED) {
+                    GameMetrics.recordHand(HandCategory.of(category), paytable.payout(category));
+                }
+            }
+            extraDrawn = true;
+        }
+        
+        return points - before;
+    }
+    
+    
+    /**
+     * Deals the extra hands of multi-hand play, each from its own deck of
+     * the cards not dealt to the base hand. The cards the player threw
+     * away are not dealt again, as on a multi-hand machine. The base hand's
+     * cards of this game, from the deal and every replacement, are the ones
+     * before the deck's next card.
+     * 
+     * @param hold hold mask of the base hand
+     * @throws IllegalStateException if too few cards are left for the extra hands
+     */
+    private void dealExtraHands(int hold) {
+        long used = 0;
+        for (int i = 0; i < deck.getNext(); i++) {
+            used |= 1L << deck.ordinalAt(i);
+        }
+        
+        int size = 0;
+        for (int ordinal = 0; ordinal < Deck.CARDS_IN_DECK; ordinal++) {
+            if ((used & (1L << ordinal)) == 0) {
+                extraDeck[size++] = ordinal;
+            }
+        }
+        
+        if (size < CARDS_IN_HAND - Integer.bitCount(hold)) {
+            throw new IllegalStateException("No more cards");
+        }
+        
+        for (int h = 0; h < dealtHands - 1; h++) {
+            int at = h * CARDS_IN_HAND;
+            int next = 0;
+            
+            // Partial Fisher-Yates: any order of the remaining cards is a fresh deck for each hand
+            for (int i = 0; i < CARDS_IN_HAND; i++) {
+                if ((hold & (1 << i)) != 0) {
+                    extraCards[at + i] = hand.getCard(i).getOrdinal();
+                } else {
+                    int chosen = next + extraRandom.nextInt(size - next);
+                    int card = extraDeck[chosen];
+                    extraDeck[chosen] = extraDeck[next];
+                    extraDeck[next++] = card;
+                    extraCards[at + i] = card;
+                }
+            }
+        }
     }
     
     
@@ -136,36 +572,6 @@ public class VideoPoker {
      * @return String representation of scored hand
      */
     public String scoreHand() {
-        
-        if (hand.isRoyalFlush()) {
-            points += ROYAL_FLUSH;
-            return "Royal Flush";
-        } else if (hand.isStraightFlush()) {
-            points += STRAIGHT_FLUSH;
-            return "Straight Flush";
-        } else if (hand.hasFourOfAKind()) {
-            points += FOUR_OF_A_KIND;
-            return "Four of a Kind";
-        } else if (hand.isFullHouse()) {
-            points += FULL_HOUSE;
-            return "Full House";
-        } else if (hand.isFlush()) {
-            points += FLUSH;
-            return "Flush";
-        } else if (hand.isStraight()) {
-            points += STRAIGHT;
-            return "Straight";
-        } else if (hand.hasThreeOfAKind()) {
-            points += THREE_OF_A_KIND;
-            return "Three of a Kind";
-        } else if (hand.hasTwoPairs()) {
-            points += TWO_PAIRS;
-            return "Two Pairs";
-        } else if (hand.hasOnePair()) {
-            points += ONE_PAIR;
-            return "One Pair";
-        } else {
-            return "No Pair";
-        }
-    }
-}
\ No newline at end of file
+        return score().getDisplayName();
+    }
+}
@@ -1,6 +1,10 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Video Poker Game Graphical User Interface
@@ -28,6 +32,12 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
     /** Width of text */
     public static final int TEXT_WIDTH = 10;
 
+    /** Shortest time between screen updates in turbo mode, in nanoseconds (60 per second) */
+    public static final long FRAME_NANOS = 16_666_667L;
+
+    /** Strategy table file used by turbo mode when it exists in the working directory */
+    public static final String DEFAULT_STRATEGY_TABLE = "strategy.table";
+
     /** Displays number of points */
     private JLabel lblPoints;
     
@@ -37,8 +47,8 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
     /** Cards to be displayed */
     private JLabel[] cards;
     
-    /** Icons (images) for cards */
-    private ImageIcon[] icons;
+    /** Decoded card images, loaded once in the background */
+    private CardImageCache images;
     
     /** Replace buttons for cards */
     private JButton[] btnCards;
@@ -52,17 +62,193 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
     /** Quit button */
     private JButton btnQuit;
 
+    /** Turbo button, starting and stopping automatic play */
+    private JButton btnTurbo;
+
     /** Video Poker game model */
     private VideoPoker pm;
 
+    /** Strategy choosing the cards to keep in turbo mode */
+    private HoldStrategy strategy;
+
+    /** Worker playing in turbo mode, or null once it has finished */
+    private TurboWorker turbo;
+
     /**
-     * Creates instance of PokerGUI class
+     * What turbo mode shows after a batch of hands: copied from the game
+     * on the worker thread, so the EDT never reads the game while it plays.
+     */
+    private static class Frame {
+
+        /** Marker published last, once the worker no longer touches the game */
+        private static final Frame FINISHED = new Frame();
+
+        /** Cards of the last hand */
+        private final Card[] hand = new Card[VideoPoker.CARDS_IN_HAND];
+
+        /** Points after the last hand */
+        private final int points;
+
+        /** Category of the last hand */
+        private final HandCategory category;
+
+        /** Hands played since turbo mode started */
+        private final long hands;
+
+        /**
+         * Frame constructor.
+         * @param game game after the last hand
+         * @param category category of the last hand
+         * @param hands hands played since turbo mode started
+         */
+        Frame(VideoPoker game, HandCategory category, long hands) {
+            for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                hand[i] = game.getCard(i);
+            }
+            this.points = game.getPoints();
+            this.category = category;
+            this.hands = hands;
+        }
+
+        /**
+         * Frame constructor for the FINISHED marker.
+         */
+        private Frame() {
+            this.points = 0;
+            this.category = null;
+            this.hands = 0;
+        }
+    }
+
+    /**
+     * Plays hands on a background thread until stopped or out of points,
+     * publishing at most one Frame per FRAME_NANOS.
+     *
+     * Stop only sets a flag; the worker is never cancelled, because a
+     * cancelled SwingWorker runs done() while doInBackground() may still be
+     * playing. The buttons are given back when Frame.FINISHED arrives, which
+     * is published after the last hand whichever way play ends.
+     */
+    private class TurboWorker extends SwingWorker<Void, Frame> {
+
+        /** Whether the player pressed Stop */
+        private volatile boolean stopRequested;
+
+        /**
+         * Asks the worker to stop after the hand it is playing.
+         */
+        void requestStop() {
+            stopRequested = true;
+        }
+
+        /**
+         * Plays hands, publishing the latest one once per frame and, unless
+         * stopped, at the end.
+         * @return null
+         */
+        protected Void doInBackground() {
+            try {
+                AutoPlayer player = new AutoPlayer(pm, strategy);
+                long lastFrame = System.nanoTime();
+                HandCategory category = null;
+
+                while (!stopRequested && player.canPlay()) {
+                    category = player.playHand();
+                    long now = System.nanoTime();
+                    if (now - lastFrame >= FRAME_NANOS) {
+                        publish(new Frame(pm, category, player.getHandsPlayed()));
+                        lastFrame = now;
+                    }
+                }
+
+                if (category != null && !stopRequested) {
+                    publish(new Frame(pm, category, player.getHandsPlayed()));
+                }
+            } finally {
+                publish(Frame.FINISHED);
+            }
+            return null;
+        }
+
+        /**
+         * Shows only the newest of the frames published since the last call,
+         * and gives the game back to the buttons once the worker has finished.
+         * @param frames frames published, oldest first
+         */
+        protected void process(List<Frame> frames) {
+            boolean finished = frames.get(frames.size() - 1) == Frame.FINISHED;
+            int newest = frames.size() - (finished ? 2 : 1);
+
+            if (newest >= 0) {
+                Frame frame = frames.get(newest);
+                for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                    cards[i].setIcon(images.getIcon(frame.hand[i]));
+                }
+                txtScore.setText(frame.hands + " hands: " + frame.category.getDisplayName());
+                lblPoints.setText("Points: " + frame.points);
+            }
+
+            if (finished) {
+                turbo = null;
+                btnTurbo.setText("Turbo");
+                btnTurbo.setEnabled(true);
+                btnNewGame.setEnabled(true);
+            }
+        }
+
+        /**
+         * Reports an error that stopped play. Runs only after doInBackground()
+         * has returned, since the worker is never cancelled.
+         */
+        protected void done() {
+            try {
+                get();
+            } catch (InterruptedException | ExecutionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                txtScore.setText("Turbo stopped: " + cause);
+                JOptionPane.showMessageDialog(VideoPokerGUI.this, "Turbo stopped: " + cause,
+                                              "Video Poker", JOptionPane.ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Creates instance of PokerGUI class. Turbo mode reads DEFAULT_STRATEGY_TABLE
+     * when it exists, and otherwise solves each hand across every core.
      * @param seed if -1, a random game is played, otherwise the same game is played, in that
      * the deck will be shuffled the same way, whenever the seed is the same.
      */
     public VideoPokerGUI(int seed) {
+        this(seed, defaultStrategy());
+    }
+
+    /**
+     * Returns the fastest strategy available without setup: the default
+     * strategy table if it can be read, or else the exact solver splitting
+     * each hand across the common fork/join pool.
+     * @return strategy for turbo mode
+     */
+    private static HoldStrategy defaultStrategy() {
+        try {
+            return new StrategyTable(Paths.get(DEFAULT_STRATEGY_TABLE));
+        } catch (IOException | IllegalArgumentException e) {
+            HoldSolver solver = new HoldSolver();
+            return cards -> HoldSolver.bestHold(solver.expectedValues(cards));
+        }
+    }
+
+    /**
+     * Creates instance of PokerGUI class
+     * @param seed if -1, a random game is played, otherwise the same game is played, in that
+     * the deck will be shuffled the same way, whenever the seed is the same.
+     * @param strategy strategy choosing the cards to keep in turbo mode
+     */
+    public VideoPokerGUI(int seed, HoldStrategy strategy) {
 
         pm = new VideoPoker(seed);
+        this.strategy = strategy;
+        images = new CardImageCache(Paths.get(CardImageCache.DEFAULT_DIRECTORY));
+        images.preload();
 
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setSize(WIDTH, HEIGHT);
@@ -87,14 +273,12 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
         JPanel pnlCards = new JPanel();
         pnlCards.setLayout(new GridLayout(2,VideoPoker.CARDS_IN_HAND));
         cards = new JLabel[VideoPoker.CARDS_IN_HAND];
-        icons = new ImageIcon[VideoPoker.CARDS_IN_HAND];
         btnCards = new JButton[VideoPoker.CARDS_IN_HAND];
 
         for(int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
 
-            icons[i] = new ImageIcon("cards/h" + (i + 10) + ".gif");
             cards[i] = new JLabel();
-            cards[i].setIcon(icons[i]);
+            cards[i].setIcon(images.getIcon(new Card(i + 10, 'h')));
             JPanel panel = new JPanel();
             panel.add(cards[i]);
             pnlCards.add(panel);
@@ -111,7 +295,7 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
         }
 
         JPanel pnlButtons = new JPanel();
-        pnlButtons.setLayout(new GridLayout(1,3));
+        pnlButtons.setLayout(new GridLayout(1,4));
         btnScoreHand = new JButton("Score Hand");
         btnScoreHand.setFont(new Font("SansSerif",Font.BOLD,FONT_SIZE));
         btnScoreHand.addActionListener(this);
@@ -119,11 +303,15 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
         btnNewGame = new JButton("New Game");
         btnNewGame.setFont(new Font("SansSerif",Font.BOLD,FONT_SIZE));
         btnNewGame.addActionListener(this);
+        btnTurbo = new JButton("Turbo");
+        btnTurbo.setFont(new Font("SansSerif",Font.BOLD,FONT_SIZE));
+        btnTurbo.addActionListener(this);
         btnQuit = new JButton("Quit");
         btnQuit.setFont(new Font("SansSerif",Font.BOLD,FONT_SIZE));
         btnQuit.addActionListener (this);
         pnlButtons.add(btnScoreHand);
         pnlButtons.add(btnNewGame);
+        pnlButtons.add(btnTurbo);
         pnlButtons.add(btnQuit);
 
         c.add(pnlScore,BorderLayout.NORTH);
@@ -145,11 +333,12 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
 
             pm.newGame();
 
+            // Turbo would throw away the hand just paid for, so it waits for the score
+            btnTurbo.setEnabled(false);
             btnScoreHand.setEnabled(true);
 
             for(int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
-                icons[i] = new ImageIcon(pm.getCardFileName(i));
-                cards[i].setIcon(icons[i]);
+                cards[i].setIcon(images.getIcon(pm.getCard(i)));
                 btnCards[i].setEnabled(true);
             }
 
@@ -162,14 +351,34 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
             }
 
             btnScoreHand.setEnabled(false);
+            btnTurbo.setEnabled(true);
 
             for(int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
-                icons[i] = new ImageIcon(pm.getCardFileName(i));
-                cards[i].setIcon(icons[i]);
+                cards[i].setIcon(images.getIcon(pm.getCard(i)));
             }
-            txtScore.setText(pm.scoreHand());
+            txtScore.setText(pm.score().getDisplayName());
             lblPoints.setText("Points: " + pm.getPoints());
         }
+        else if (e.getSource() == btnTurbo) {
+            if (turbo != null) {
+                // The worker still owns the game until it publishes Frame.FINISHED
+                turbo.requestStop();
+                btnTurbo.setText("Stopping");
+                btnTurbo.setEnabled(false);
+            }
+            else {
+                // The worker owns the game until Frame.FINISHED, so nothing else may touch it
+                btnNewGame.setEnabled(false);
+                btnScoreHand.setEnabled(false);
+                for(int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                    btnCards[i].setEnabled(false);
+                }
+                btnTurbo.setText("Stop");
+                txtScore.setText("");
+                turbo = new TurboWorker();
+                turbo.execute();
+            }
+        }
         else if (e.getSource() == btnQuit) {
             System.exit(1);
         }
@@ -185,11 +394,18 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
 
     /**
      * Starts up Video Poker game
-     * @param args args[0] optional seed used for testing which determines how the deck is shuffled
+     * @param args args[0] optional seed used for testing which determines how the deck is shuffled,
+     * args[1] optional strategy table file used by turbo mode instead of solving each hand
      */
     public static void main(String[] args) {
 
-        if (args.length == 1) {
+        if (args.length == 2) {
+            try {
+                new VideoPokerGUI(Integer.parseInt(args[0]), new StrategyTable(Paths.get(args[1])));
+            } catch (NumberFormatException | IOException e) {
+                System.out.println("Usage: java -cp bin VideoPokerGUI <seed> <strategyTable>");
+            }
+        } else if (args.length == 1) {
             try {
                 new VideoPokerGUI(Integer.parseInt(args[0]));
             } catch (NumberFormatException e) {
@@ -198,7 +414,7 @@ public class VideoPokerGUI extends JFrame implements ActionListener {
         } else if (args.length == 0) {
             new VideoPokerGUI(VideoPoker.RANDOM_GAME);
         } else {
-            System.out.println("Usage: java -cp bin VideoPokerGUI <seed>");
+            System.out.println("Usage: java -cp bin VideoPokerGUI <seed> <strategyTable>");
         }
     }
 }
@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests AutoPlayer class
+ * @author Will Greene
+ */
+public class AutoPlayerTest {
+
+    /**
+     * Tests that a played hand follows the strategy's hold
+     */
+    @Test
+    public void testPlayHand() {
+        VideoPoker game = new VideoPoker(8);
+        VideoPoker same = new VideoPoker(8);
+        int[] seen = new int[Hand.CARDS_IN_HAND];
+
+        // Keep the first and last cards
+        AutoPlayer player = new AutoPlayer(game, cards -> {
+            System.arraycopy(cards, 0, seen, 0, cards.length);
+            return 0b10001;
+        });
+        HandCategory category = player.playHand();
+
+        same.newGame();
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            assertEquals(same.getCard(i).getOrdinal(), seen[i], "dealt card " + i);
+        }
+        for (int i = 1; i < Hand.CARDS_IN_HAND - 1; i++) {
+            same.replaceCard(i);
+        }
+        assertEquals(same.score(), category, "category");
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            assertEquals(same.getCard(i), game.getCard(i), "final card " + i);
+        }
+        assertEquals(same.getPoints(), game.getPoints(), "points");
+        assertEquals(1, player.getHandsPlayed(), "hands played");
+    }
+
+    /**
+     * Tests that play stops when the points run out
+     */
+    @Test
+    public void testOutOfPoints() {
+        VideoPoker game = new VideoPoker(2);
+        AutoPlayer player = new AutoPlayer(game, new SimpleHoldStrategy());
+
+        while (player.canPlay()) {
+            player.playHand();
+        }
+        assertTrue(game.getPoints() < VideoPoker.POINTS_FOR_NEW_GAME, "out of points");
+        assertTrue(player.getHandsPlayed() >= VideoPoker.STARTING_POINTS
+                                             / VideoPoker.POINTS_FOR_NEW_GAME, "hands played");
+
+        Exception e = assertThrows(IllegalStateException.class, () -> player.playHand());
+        assertEquals("Not enough points", e.getMessage());
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception e = assertThrows(IllegalArgumentException.class,
+            () -> new AutoPlayer(null, new SimpleHoldStrategy()));
+        assertEquals("Null game", e.getMessage());
+
+        e = assertThrows(IllegalArgumentException.class, () -> new AutoPlayer(new VideoPoker(1), null));
+        assertEquals("Null strategy", e.getMessage());
+    }
+}
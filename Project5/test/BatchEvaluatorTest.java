@@ -0,0 +1,156 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests BatchEvaluator, ScalarBatchEvaluator, VectorBatchEvaluator and HandBatch classes
+ * @author Will Greene
+ */
+public class BatchEvaluatorTest {
+
+    /** batch size that is not a multiple of any vector length, so the scalar tail runs */
+    private static final int CAPACITY = 1021;
+
+    /**
+     * Classifies every five card hand with a batch evaluator and checks each against
+     * HandEvaluator, which is tested against the Hand predicates
+     * @param evaluator evaluator to test
+     * @return number of hands in each category
+     */
+    private static int[] checkAllHands(BatchEvaluator evaluator) {
+        HandBatch batch = new HandBatch(CAPACITY);
+        int[][] hands = new int[CAPACITY][];
+        int[] categoryCounts = new int[HandEvaluator.CATEGORIES];
+
+        for (int a = 0; a < 52; a++) {
+            for (int b = a + 1; b < 52; b++) {
+                for (int c = b + 1; c < 52; c++) {
+                    for (int d = c + 1; d < 52; d++) {
+                        for (int e = d + 1; e < 52; e++) {
+                            hands[batch.add(a, b, c, d, e)] = new int[] {a, b, c, d, e};
+                            if (batch.size() == CAPACITY) {
+                                check(evaluator, batch, hands, categoryCounts);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        check(evaluator, batch, hands, categoryCounts);
+        return categoryCounts;
+    }
+
+    /**
+     * Evaluates a batch, checks it and clears it
+     * @param evaluator evaluator to test
+     * @param batch hands to evaluate
+     * @param hands ordinals of the hands in the batch
+     * @param categoryCounts number of hands in each category, updated
+     */
+    private static void check(BatchEvaluator evaluator, HandBatch batch, int[][] hands,
+                              int[] categoryCounts) {
+        evaluator.evaluate(batch);
+        for (int h = 0; h < batch.size(); h++) {
+            int[] o = hands[h];
+            int expected = HandEvaluator.category(HandEvaluator.evaluate(
+                HandEvaluator.encode(o[0]), HandEvaluator.encode(o[1]), HandEvaluator.encode(o[2]),
+                HandEvaluator.encode(o[3]), HandEvaluator.encode(o[4])));
+            if (batch.getCategory(h) != expected) {
+                fail("category of " + java.util.Arrays.toString(o));
+            }
+            categoryCounts[expected]++;
+        }
+        batch.clear();
+    }
+
+    /**
+     * Tests that the scalar evaluator classifies every hand like HandEvaluator
+     */
+    @Test
+    public void testScalarAllHands() {
+        int[] counts = checkAllHands(new ScalarBatchEvaluator());
+        assertEquals(2598960, java.util.Arrays.stream(counts).sum(), "All hands");
+        assertEquals(4, counts[HandEvaluator.ROYAL_FLUSH], "Royal flush");
+    }
+
+    /**
+     * Tests that the evaluator from create() classifies every hand like HandEvaluator
+     */
+    @Test
+    public void testCreatedAllHands() {
+        int[] counts = checkAllHands(BatchEvaluator.create());
+        assertEquals(9180, counts[HandEvaluator.STRAIGHT], "Straight");
+        assertEquals(32, counts[HandEvaluator.STRAIGHT_FLUSH], "Straight flush");
+    }
+
+    /**
+     * Tests that create() uses the Vector API when its module is present
+     */
+    @Test
+    public void testCreate() {
+        boolean vector = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        String expected = vector ? BatchEvaluator.VECTOR_IMPLEMENTATION : "ScalarBatchEvaluator";
+        assertEquals(expected, BatchEvaluator.create().getClass().getName(), "Implementation");
+    }
+
+    /**
+     * Tests random hands against the Hand predicates, cards in any order
+     */
+    @Test
+    public void testMatchesHand() {
+        BatchEvaluator evaluator = BatchEvaluator.create();
+        HandBatch batch = new HandBatch(100);
+        Hand[] hands = new Hand[100];
+        Deck deck = new Deck(7);
+        for (int round = 0; round < 100; round++) {
+            batch.clear();
+            for (int h = 0; h < 100; h++) {
+                deck.shuffle();
+                Card[] cards = new Card[Hand.CARDS_IN_HAND];
+                for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                    cards[i] = deck.nextCard();
+                }
+                hands[h] = new Hand(cards);
+                batch.add(cards[0].getOrdinal(), cards[1].getOrdinal(), cards[2].getOrdinal(),
+                          cards[3].getOrdinal(), cards[4].getOrdinal());
+            }
+            evaluator.evaluate(batch);
+            for (int h = 0; h < 100; h++) {
+                assertEquals(hands[h].getCategory(), batch.getCategory(h), hands[h].toString());
+            }
+        }
+    }
+
+    /**
+     * Tests that set() replaces a card of a hand already in the batch
+     */
+    @Test
+    public void testSet() {
+        HandBatch batch = new HandBatch(2);
+        // 10h Jh Qh Kh 2c, then 2c becomes Ah
+        int h = 2 * Card.VALUES;
+        batch.add(h + 8, h + 9, h + 10, h + 11, 0);
+        batch.add(0, 1, 2, 3, 5);
+        BatchEvaluator evaluator = BatchEvaluator.create();
+        evaluator.evaluate(batch);
+        assertEquals(HandEvaluator.NO_PAIR, batch.getCategory(0), "Four to a royal");
+        assertEquals(HandEvaluator.FLUSH, batch.getCategory(1), "Flush");
+        batch.set(0, 4, h + 12);
+        evaluator.evaluate(batch);
+        assertEquals(HandEvaluator.ROYAL_FLUSH, batch.getCategory(0), "Royal flush");
+    }
+
+    /**
+     * Tests HandBatch exceptions
+     */
+    @Test
+    public void testExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> new HandBatch(0), "Invalid capacity");
+        HandBatch batch = new HandBatch(1);
+        assertThrows(IllegalArgumentException.class, () -> batch.getCategory(0), "Invalid hand");
+        assertEquals(0, batch.add(0, 1, 2, 3, 4), "First hand");
+        assertThrows(IllegalStateException.class, () -> batch.add(0, 1, 2, 3, 4), "Batch full");
+        batch.clear();
+        assertEquals(0, batch.size(), "Cleared");
+    }
+}
@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.MediaTracker;
+import java.nio.file.Paths;
+
+import javax.swing.ImageIcon;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CardImageCache class
+ * @author Will Greene
+ */
+public class CardImageCacheTest {
+
+    /**
+     * Tests that preloading decodes every card and the back once
+     */
+    @Test
+    public void testPreload() {
+        CardImageCache cache = new CardImageCache(Paths.get(CardImageCache.DEFAULT_DIRECTORY));
+        cache.preload().join();
+
+        for (int i = 0; i < Card.CARDS; i++) {
+            Card card = Card.fromOrdinal(i);
+            assertTrue(cache.isLoaded(card), "loaded " + card);
+            ImageIcon icon = cache.getIcon(card);
+            assertEquals(MediaTracker.COMPLETE, icon.getImageLoadStatus(), "decoded " + card);
+            assertSame(icon, cache.getIcon(card), "reused " + card);
+        }
+
+        assertEquals(MediaTracker.COMPLETE, cache.getBack().getImageLoadStatus(), "back");
+        assertSame(cache.getBack(), cache.getBack(), "back reused");
+    }
+
+    /**
+     * Tests that an image asked for before preloading is loaded on demand and kept
+     */
+    @Test
+    public void testOnDemand() {
+        CardImageCache cache = new CardImageCache(Paths.get(CardImageCache.DEFAULT_DIRECTORY));
+        Card card = new Card(12, 'h');
+        assertFalse(cache.isLoaded(card), "not loaded yet");
+
+        ImageIcon icon = cache.getIcon(card);
+        assertTrue(cache.isLoaded(card), "loaded");
+        assertTrue(icon.getIconWidth() > 0, "width");
+        cache.preload().join();
+        assertSame(icon, cache.getIcon(card), "preload keeps the loaded image");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new CardImageCache(null));
+        assertEquals("Null directory", e.getMessage());
+
+        CardImageCache cache = new CardImageCache(Paths.get(CardImageCache.DEFAULT_DIRECTORY));
+        e = assertThrows(IllegalArgumentException.class, () -> cache.getIcon(null));
+        assertEquals("Null card", e.getMessage());
+    }
+}
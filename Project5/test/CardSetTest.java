@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CardSet class
+ * @author Will Greene
+ */
+public class CardSetTest {
+
+    /**
+     * Tests add, remove, contains and size
+     */
+    @Test
+    public void testAddRemoveContains() {
+        long set = CardSet.add(CardSet.EMPTY, Card.of(2, 'h'));
+        set = CardSet.add(set, Card.of(13, 'c'));
+        assertEquals(2, CardSet.size(set), "size after adding two cards");
+        assertTrue(CardSet.contains(set, Card.of(2, 'h')), "contains two of hearts");
+        assertFalse(CardSet.contains(set, Card.of(2, 'd')), "does not contain two of diamonds");
+        set = CardSet.remove(set, Card.of(2, 'h'));
+        assertFalse(CardSet.contains(set, Card.of(2, 'h')), "two of hearts removed");
+        assertEquals(1, CardSet.size(set), "size after removing");
+        assertEquals(52, CardSet.size(CardSet.FULL_DECK), "full deck size");
+    }
+
+    /**
+     * Tests union and removeAll
+     */
+    @Test
+    public void testUnionRemoveAll() {
+        long a = CardSet.of(Card.of(2, 'c'), Card.of(3, 'c'));
+        long b = CardSet.of(Card.of(3, 'c'), Card.of(4, 'c'));
+        assertEquals(3, CardSet.size(CardSet.union(a, b)), "union size");
+        assertEquals(CardSet.of(Card.of(2, 'c')), CardSet.removeAll(a, b), "removeAll");
+        assertEquals("[c2, c3]", CardSet.toString(a), "toString");
+    }
+
+    /**
+     * Tests suit and rank masks
+     */
+    @Test
+    public void testMasks() {
+        assertEquals(13, CardSet.size(CardSet.suitMask('d')), "diamonds size");
+        assertTrue(CardSet.contains(CardSet.suitMask('d'), Card.of(14, 'd')), "ace of diamonds");
+        assertFalse(CardSet.contains(CardSet.suitMask('d'), Card.of(14, 's')), "ace of spades");
+        long kings = CardSet.rankMask(13);
+        assertEquals(4, CardSet.size(kings), "kings size");
+        assertTrue(CardSet.contains(kings, Card.of(13, 's')), "king of spades");
+        assertEquals(1 << 11, CardSet.ranks(kings), "kings rank pattern");
+        assertEquals(1 << 11, CardSet.suitRanks(kings, Card.suitIndex('h')), "king of hearts");
+    }
+
+    /**
+     * Tests isFlush and isStraight
+     */
+    @Test
+    public void testFlushAndStraight() {
+        long flush = CardSet.of(Card.of(2, 'c'), Card.of(3, 'c'), Card.of(10, 'c'),
+                                Card.of(12, 'c'), Card.of(6, 'c'));
+        long straight = CardSet.of(Card.of(10, 'c'), Card.of(11, 'd'), Card.of(12, 'h'),
+                                   Card.of(13, 's'), Card.of(14, 'c'));
+        long wheel = CardSet.of(Card.of(14, 'c'), Card.of(2, 'd'), Card.of(3, 'h'),
+                                Card.of(4, 's'), Card.of(5, 'c'));
+        assertTrue(CardSet.isFlush(flush), "flush");
+        assertFalse(CardSet.isFlush(straight), "straight is not a flush");
+        assertFalse(CardSet.isStraight(flush), "flush is not a straight");
+        assertTrue(CardSet.isStraight(straight), "ace high straight");
+        assertFalse(CardSet.isStraight(wheel), "ace is not low");
+        assertFalse(CardSet.isFlush(CardSet.EMPTY), "empty set");
+    }
+}
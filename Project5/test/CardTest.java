@@ -119,6 +119,32 @@ public class CardTest {
         assertFalse(kingOfClubs.equals("kingOfClubs"), "kingOfClubs compared to String");
     }    
     
+    /**
+     * Tests of() returns the shared card instance
+     */
+    @Test
+    public void testOf() {
+        assertSame(Card.of(2, 'h'), Card.of(2, 'h'), "same instance for two of hearts");
+        assertEquals(twoOfHearts, Card.of(2, 'h'), "of equals constructed card");
+        assertSame(Card.of(13, 'c'), Card.fromOrdinal(kingOfClubs.getOrdinal()),
+                   "fromOrdinal matches of");
+    }
+    
+    /**
+     * Tests getOrdinal and hashCode
+     */
+    @Test
+    public void testOrdinal() {
+        assertEquals(0, Card.of(2, 'c').getOrdinal(), "two of clubs ordinal");
+        assertEquals(11, kingOfClubs.getOrdinal(), "kingOfClubs ordinal");
+        assertEquals(26, twoOfHearts.getOrdinal(), "twoOfHearts ordinal");
+        assertEquals(51, Card.of(14, 's').getOrdinal(), "ace of spades ordinal");
+        assertEquals(twoOfHearts.hashCode(), new Card(2, 'h').hashCode(), "equal cards hash");
+        for (int i = 0; i < Card.CARDS; i++) {
+            assertEquals(i, Card.fromOrdinal(i).getOrdinal(), "ordinal " + i);
+        }
+    }
+    
     /** 
      * Tests compareTo() method - you do not need to add any additional tests
      */
@@ -167,5 +193,17 @@ public class CardTest {
             () -> new Card(5, 'D'), "Constructor suit D");
         assertEquals("Invalid suit", exception.getMessage(),
                 "Testing suit D message");
+                
+        // Testing of() with invalid value
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> Card.of(15, 's'), "of() value 15");
+        assertEquals("Invalid value", exception.getMessage(),
+                "Testing of() value 15 message");
+                
+        // Testing fromOrdinal() with invalid ordinal
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> Card.fromOrdinal(52), "fromOrdinal() 52");
+        assertEquals("Invalid ordinal", exception.getMessage(),
+                "Testing fromOrdinal() 52 message");
     }
 }
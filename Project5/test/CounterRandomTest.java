@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests CounterRandom class
+ * @author Will Greene
+ */
+public class CounterRandomTest {
+
+    /**
+     * Tests that a seed always gives the same stream
+     */
+    @Test
+    public void testSeeded() {
+        CounterRandom a = new CounterRandom(42);
+        CounterRandom b = new CounterRandom(42);
+        CounterRandom c = new CounterRandom(43);
+        long first = a.nextLong();
+        assertEquals(first, b.nextLong(), "same seed");
+        assertNotEquals(first, c.nextLong(), "different seed");
+        assertEquals(1, a.getCounter(), "counter");
+    }
+
+    /**
+     * Tests saving and restoring the state
+     */
+    @Test
+    public void testFromState() {
+        CounterRandom random = new CounterRandom(7);
+        random.nextLong();
+        random.nextLong();
+        CounterRandom restored = CounterRandom.fromState(random.getKey(), random.getCounter());
+        assertEquals(random.nextLong(), restored.nextLong(), "restored stream");
+    }
+
+    /**
+     * Tests that advance and jump skip outputs
+     */
+    @Test
+    public void testAdvanceAndJump() {
+        CounterRandom random = new CounterRandom(7);
+        CounterRandom skipped = random.copy();
+        for (int i = 0; i < 1000; i++) {
+            random.nextLong();
+        }
+        skipped.advance(1000);
+        assertEquals(random.nextLong(), skipped.nextLong(), "advance");
+
+        CounterRandom jumped = random.copy();
+        jumped.jump();
+        random.advance(CounterRandom.JUMP_DISTANCE);
+        assertEquals(random.nextLong(), jumped.nextLong(), "jump");
+        assertEquals(CounterRandom.JUMP_DISTANCE, jumped.jumpDistance(), 0, "jump distance");
+    }
+
+    /**
+     * Tests that numbered streams are fixed by the key and differ from each other
+     */
+    @Test
+    public void testStreams() {
+        CounterRandom master = new CounterRandom(1);
+        long zero = master.stream(0).nextLong();
+        master.nextLong();
+        assertEquals(zero, master.stream(0).nextLong(), "independent of position");
+        assertNotEquals(zero, master.stream(1).nextLong(), "different streams");
+        assertNotEquals(master.stream(0).getKey(), master.split().getKey(), "split");
+    }
+
+    /**
+     * Tests that bounded ints are roughly uniform
+     */
+    @Test
+    public void testUniform() {
+        CounterRandom random = new CounterRandom(3);
+        int[] counts = new int[Deck.CARDS_IN_DECK];
+        for (int i = 0; i < 520000; i++) {
+            counts[random.nextInt(Deck.CARDS_IN_DECK)]++;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            assertTrue(Math.abs(counts[i] - 10000) < 500, "count " + i + ": " + counts[i]);
+        }
+    }
+}
@@ -73,6 +73,146 @@ public class DeckTest {
         assertNotSame(deckString, deck.toString(), "deck should change when shuffled");
     }
 
+    /**
+     * Tests that a seeded deck gives different games that repeat for the seed
+     */
+    @Test
+    public void testSeededShuffles() {
+        Deck same = new Deck(1);
+        deck.shuffle();
+        same.shuffle();
+        String first = deck.toString();
+        assertEquals(first, same.toString(), "same seed, first shuffle");
+        deck.shuffle();
+        same.shuffle();
+        assertNotEquals(first, deck.toString(), "stream advances between shuffles");
+        assertEquals(deck.toString(), same.toString(), "same seed, second shuffle");
+    }
+
+    /**
+     * Tests a deck shuffled with a given random stream
+     */
+    @Test
+    public void testGenerator() {
+        CounterRandom random = new CounterRandom(9);
+        Deck withStream = new Deck(random.copy());
+        Deck withSameStream = new Deck(random.copy());
+        withStream.shuffle();
+        withSameStream.shuffle();
+        assertEquals(withStream.toString(), withSameStream.toString(), "same stream");
+        assertEquals(Deck.CARDS_IN_DECK - 1,
+                     ((CounterRandom) withStream.getRandom()).getCounter(), "one draw per swap");
+    }
+
+    /**
+     * Tests lazy shuffle mode
+     */
+    @Test
+    public void testLazyShuffle() {
+        CounterRandom random = new CounterRandom(5);
+        Deck lazy = new Deck(random);
+        lazy.setLazyShuffle(true);
+        assertTrue(lazy.isLazyShuffle(), "lazy mode set");
+        lazy.shuffle();
+        assertEquals(deckString, lazy.toString(), "shuffle does not move cards");
+        assertEquals(0, random.getCounter(), "shuffle does not draw");
+
+        long dealt = 0;
+        for (int i = 0; i < 10; i++) {
+            dealt |= 1L << lazy.nextCard().getOrdinal();
+        }
+        assertEquals(10, Long.bitCount(dealt), "distinct cards");
+        assertEquals(10, random.getCounter(), "one draw per card");
+
+        Deck same = new Deck(5);
+        Deck other = new Deck(5);
+        same.setLazyShuffle(true);
+        other.setLazyShuffle(true);
+        same.shuffle();
+        other.shuffle();
+        assertEquals(same.nextCard(), other.nextCard(), "seeded lazy deck");
+    }
+
+    /**
+     * Tests that changing the shuffle mode only affects the next deal
+     */
+    @Test
+    public void testLazyShuffleChange() {
+        Deck full = new Deck(7);
+        Deck changed = new Deck(7);
+        full.shuffle();
+        changed.shuffle();
+        changed.setLazyShuffle(true);
+        for (int i = 0; i < Deck.CARDS_IN_DECK; i++) {
+            assertEquals(full.nextCard(), changed.nextCard(), "full deal card " + i);
+        }
+
+        Deck lazy = new Deck(7);
+        Deck unset = new Deck(7);
+        lazy.setLazyShuffle(true);
+        unset.setLazyShuffle(true);
+        lazy.shuffle();
+        unset.shuffle();
+        unset.setLazyShuffle(false);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(lazy.nextCard(), unset.nextCard(), "lazy deal card " + i);
+        }
+    }
+
+    /**
+     * Tests that every card is equally likely in every position of a lazy deal
+     */
+    @Test
+    public void testLazyShuffleUniform() {
+        Deck lazy = new Deck(3);
+        lazy.setLazyShuffle(true);
+        int[][] counts = new int[2][Deck.CARDS_IN_DECK];
+        for (int i = 0; i < 104000; i++) {
+            lazy.shuffle();
+            counts[0][lazy.nextCard().getOrdinal()]++;
+            counts[1][lazy.nextCard().getOrdinal()]++;
+        }
+        for (int position = 0; position < 2; position++) {
+            for (int card = 0; card < Deck.CARDS_IN_DECK; card++) {
+                assertTrue(Math.abs(counts[position][card] - 2000) < 250,
+                           "position " + position + " card " + card);
+            }
+        }
+    }
+
+    /**
+     * Tests that batch deals match dealing one card at a time
+     */
+    @Test
+    public void testDeal() {
+        Deck single = new Deck(4);
+        Deck batch = new Deck(4);
+        Deck buffered = new Deck(4);
+        single.setLazyShuffle(true);
+        batch.setLazyShuffle(true);
+        buffered.setLazyShuffle(true);
+
+        int[] expected = new int[3 * 10];
+        for (int d = 0; d < 3; d++) {
+            single.shuffle();
+            for (int i = 0; i < 10; i++) {
+                expected[10 * d + i] = single.nextOrdinal();
+            }
+        }
+
+        int[] out = new int[2 + expected.length];
+        batch.deal(3, 10, out, 2);
+        assertArrayEquals(expected, java.util.Arrays.copyOfRange(out, 2, out.length), "int[]");
+
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(expected.length);
+        buffered.deal(3, 10, buffer);
+        assertEquals(expected.length, buffer.position(), "buffer position");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer.get(i), "buffer card " + i);
+        }
+        assertEquals(single.nextCard(), batch.nextCard(), "deck continues after batch");
+    }
+
     /**
      * Tests the deck equals() method for different scenarios
      */
@@ -102,5 +242,25 @@ public class DeckTest {
             () -> deck.nextCard(), "nextCard() no more cards");
         assertEquals("No more cards", exception.getMessage(),
                 "nextCard() no more cards message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new Deck(null), "null generator");
+        assertEquals("Null generator", exception.getMessage(), "null generator message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> deck.deal(-1, 5, new int[5], 0), "negative deals");
+        assertEquals("Invalid deals", exception.getMessage(), "negative deals message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> deck.deal(1, 53, new int[53], 0), "too many cards");
+        assertEquals("Invalid cards per deal", exception.getMessage(), "too many cards message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> deck.deal(2, 5, new int[12], 3), "small array");
+        assertEquals("Array too small", exception.getMessage(), "small array message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> deck.deal(2, 5, java.nio.ByteBuffer.allocate(9)), "small buffer");
+        assertEquals("Buffer too small", exception.getMessage(), "small buffer message");
     }
 }
@@ -0,0 +1,183 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests EquityCalculator and EquityResult classes
+ * @author Will Greene
+ */
+public class EquityCalculatorTest {
+
+    /**
+     * Returns the cards written like "Ah Kd 5c"
+     * @param cards cards separated by spaces, value 2-9, T, J, Q, K or A then suit
+     * @return cards
+     */
+    private static Card[] cards(String cards) {
+        String[] names = cards.split(" ");
+        Card[] parsed = new Card[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int value = "23456789TJQKA".indexOf(names[i].charAt(0)) + Card.LOWEST_VALUE;
+            parsed[i] = Card.of(value, names[i].charAt(1));
+        }
+        return parsed;
+    }
+
+    /**
+     * Tests exhaustive counts on the flop against valuing every board directly
+     */
+    @Test
+    public void testFlopMatchesDirectCount() {
+        Card[][] holes = {cards("Ah Kh"), cards("9c 9d"), cards("7h 8h")};
+        Card[] flop = cards("9h Th 2c");
+        EquityResult result = new EquityCalculator(holes, flop).exhaustive();
+
+        long dead = CardSet.of(flop) | CardSet.of(holes[0]) | CardSet.of(holes[1])
+                    | CardSet.of(holes[2]);
+        long[] wins = new long[holes.length];
+        long[] ties = new long[holes.length];
+        long boards = 0;
+        for (int a = 0; a < Card.CARDS; a++) {
+            for (int b = a + 1; b < Card.CARDS; b++) {
+                long turnRiver = CardSet.ofOrdinal(a) | CardSet.ofOrdinal(b);
+                if ((turnRiver & dead) != 0) {
+                    continue;
+                }
+                boards++;
+                int[] values = new int[holes.length];
+                int best = 0;
+                for (int p = 0; p < holes.length; p++) {
+                    values[p] = HoldemEvaluator.evaluate(CardSet.of(holes[p]) | CardSet.of(flop)
+                                                         | turnRiver);
+                    best = Math.max(best, values[p]);
+                }
+                int winners = 0;
+                for (int value : values) {
+                    winners += value == best ? 1 : 0;
+                }
+                for (int p = 0; p < holes.length; p++) {
+                    if (values[p] == best) {
+                        if (winners == 1) {
+                            wins[p]++;
+                        } else {
+                            ties[p]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        assertTrue(result.isExact(), "Exact");
+        assertEquals(903, boards, "Boards left");
+        assertEquals(boards, result.getBoards(), "Boards");
+        for (int p = 0; p < holes.length; p++) {
+            assertEquals(wins[p], result.getWins(p), "Wins of player " + p);
+            assertEquals(ties[p], result.getTies(p), "Ties of player " + p);
+        }
+    }
+
+    /**
+     * Tests exhaustive preflop equities, split across fork/join tasks
+     */
+    @Test
+    public void testPreflop() {
+        EquityCalculator calculator =
+            new EquityCalculator(new Card[][] {cards("As Ah"), cards("Kd Kc")}, null);
+        assertEquals(1712304, calculator.getBoardCount(), "Board count");
+        EquityResult result = calculator.exhaustive();
+        assertEquals(1712304, result.getBoards(), "Boards");
+        assertEquals(1.0, result.getEquity(0) + result.getEquity(1), 1e-12, "Equities add up");
+        assertEquals(0.82, result.getEquity(0), 0.01, "Aces against kings");
+        assertEquals(result.getTies(0), result.getTies(1), "Ties are shared");
+
+        // Same ranks in other suits only split when a flush does not decide
+        EquityResult mirror = new EquityCalculator(new Card[][] {cards("As Ah"), cards("Ad Ac")},
+                                                   null).exhaustive();
+        assertEquals(0.5, mirror.getEquity(0), 1e-12, "Mirrored aces");
+        assertEquals(mirror.getWins(0), mirror.getWins(1), "Mirrored wins");
+    }
+
+    /**
+     * Tests that a board that plays for everyone splits the pot evenly
+     */
+    @Test
+    public void testSplitPot() {
+        // The same ranks without a spade can only tie
+        Card[][] sameRanks = {cards("2c 3c"), cards("2d 3d")};
+        EquityResult turn = new EquityCalculator(sameRanks, cards("As Ks Qs Js")).exhaustive();
+        assertEquals(44, turn.getBoards(), "Rivers left");
+        assertEquals(0.5, turn.getEquity(0), 1e-12, "Half the pot");
+        assertEquals(1, turn.getTieProbability(1), 1e-12, "Tie every time");
+        assertEquals(0, turn.getHalfWidth(0, EquityCalculator.CONFIDENCE_Z), "Exact");
+
+        Card[][] holes = {cards("2c 3c"), cards("4d 5d"), cards("6h 7d")};
+        EquityResult river = new EquityCalculator(holes, cards("As Ks Qs Js Ts")).exhaustive();
+        assertEquals(1, river.getBoards(), "Complete board");
+        for (int p = 0; p < holes.length; p++) {
+            assertEquals(1.0 / 3, river.getEquity(p), 1e-12, "Royal flush on board, player " + p);
+        }
+    }
+
+    /**
+     * Tests that Monte Carlo stops at the requested interval and is repeatable
+     */
+    @Test
+    public void testMonteCarlo() {
+        Card[][] holes = {cards("As Ah"), cards("Kd Qd"), cards("7c 6c")};
+        EquityCalculator calculator = new EquityCalculator(holes, null);
+        EquityResult exact = calculator.exhaustive();
+
+        EquityResult sampled = calculator.monteCarlo(0.005, Long.MAX_VALUE, 25);
+        assertFalse(sampled.isExact(), "Sampled");
+        assertEquals(0, sampled.getBoards() % EquityCalculator.BATCH_BOARDS, "Whole batches");
+        double total = 0;
+        for (int p = 0; p < holes.length; p++) {
+            double halfWidth = sampled.getHalfWidth(p, EquityCalculator.CONFIDENCE_Z);
+            assertTrue(halfWidth <= 0.005, "Interval reached for player " + p);
+            // Twice the 95% half-width makes a false failure very unlikely
+            assertEquals(exact.getEquity(p), sampled.getEquity(p), 2 * halfWidth,
+                         "Estimate of player " + p);
+            total += sampled.getEquity(p);
+        }
+        assertEquals(1.0, total, 1e-12, "Equities add up");
+
+        EquityResult again = calculator.monteCarlo(0.005, Long.MAX_VALUE, 25);
+        assertEquals(sampled.getBoards(), again.getBoards(), "Same boards");
+        assertEquals(sampled.getWins(1), again.getWins(1), "Same seed, same result");
+
+        EquityResult capped = calculator.monteCarlo(1e-6, 5000, 25);
+        assertEquals(5000, capped.getBoards(), "Stopped at maxBoards");
+        assertTrue(capped.getHalfWidth(0, EquityCalculator.CONFIDENCE_Z) > 1e-6, "Not converged");
+    }
+
+    /**
+     * Tests EquityCalculator exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Card[] aces = cards("As Ah");
+        Card[] kings = cards("Kd Kc");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator((Card[][]) null, null), "Null hole cards");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[][] {aces}, null), "Invalid player count");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[11][], null), "Invalid player count");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[][] {aces, cards("Kd")}, null),
+            "Invalid hole cards");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[][] {aces, kings}, cards("2c 3c")), "Invalid board");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[][] {aces, cards("As Kc")}, null), "Duplicate card");
+        assertThrows(IllegalArgumentException.class,
+            () -> new EquityCalculator(new Card[][] {aces, kings}, cards("Kc 2c 3c")),
+            "Duplicate card");
+
+        EquityCalculator calculator = new EquityCalculator(new Card[][] {aces, kings}, null);
+        assertThrows(IllegalArgumentException.class, () -> calculator.monteCarlo(0, 100, 1),
+                     "Invalid halfWidth");
+        assertThrows(IllegalArgumentException.class, () -> calculator.monteCarlo(0.01, 0, 1),
+                     "Invalid maxBoards");
+    }
+}
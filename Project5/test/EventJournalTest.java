@@ -0,0 +1,280 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests EventJournal class
+ * @author Will Greene
+ */
+public class EventJournalTest {
+
+    /** directory for journal segments */
+    @TempDir
+    public Path directory;
+
+    /**
+     * Tests that every field of each record type reads back
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testRecords() throws Exception {
+        try (EventJournal journal = new EventJournal(directory)) {
+            assertEquals(1, journal.open(7, 0x123456789ABCDEFL), "first sequence");
+            journal.deal(7, 0, 12, 13, 50, 51, -10, 90);
+            journal.replace(7, 4, 25, 90);
+            journal.score(7, HandCategory.FLUSH.ordinal(), 30, 120);
+            long last = journal.close(7, 120);
+            assertEquals(5, last, "last sequence");
+            journal.commit(last);
+        }
+
+        List<Path> segments = EventJournal.segments(directory);
+        assertEquals(1, segments.size(), "one segment");
+        ByteBuffer records = EventJournal.read(segments.get(0));
+        assertEquals(5 * EventJournal.RECORD_BYTES, records.remaining(), "five records");
+
+        int at = records.position();
+        assertEquals(EventJournal.OPEN, EventJournal.type(records, at));
+        assertEquals(7, EventJournal.sessionId(records, at));
+        assertEquals(0x123456789ABCDEFL, EventJournal.key(records, at));
+        assertTrue(EventJournal.time(records, at) > 0, "time");
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(EventJournal.DEAL, EventJournal.type(records, at));
+        int[] dealt = {0, 12, 13, 50, 51};
+        for (int i = 0; i < dealt.length; i++) {
+            assertEquals(dealt[i], EventJournal.card(records, at, i), "dealt " + i);
+        }
+        assertEquals(-10, EventJournal.delta(records, at));
+        assertEquals(90, EventJournal.points(records, at));
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(EventJournal.REPLACE, EventJournal.type(records, at));
+        assertEquals(4, EventJournal.argument(records, at));
+        assertEquals(25, EventJournal.card(records, at, 0));
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(EventJournal.SCORE, EventJournal.type(records, at));
+        assertEquals(HandCategory.FLUSH.ordinal(), EventJournal.argument(records, at));
+        assertEquals(30, EventJournal.delta(records, at));
+        assertEquals(120, EventJournal.points(records, at));
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(EventJournal.CLOSE, EventJournal.type(records, at));
+        assertEquals(120, EventJournal.points(records, at));
+    }
+
+    /**
+     * Tests rolling to new segments and appending after existing ones
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testSegments() throws Exception {
+        int perSegment = 3;
+        try (EventJournal journal = new EventJournal(directory,
+                                                     (perSegment + 1) * EventJournal.RECORD_BYTES, 1)) {
+            for (int i = 0; i < 10; i++) {
+                journal.close(i, i);
+            }
+        }
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.close(10, 10);
+        }
+
+        List<Path> segments = EventJournal.segments(directory);
+        assertEquals(5, segments.size(), "four rolled segments and one reopened");
+
+        long expected = 0;
+        for (Path segment : segments) {
+            ByteBuffer records = EventJournal.read(segment);
+            for (int at = records.position(); at < records.limit(); at += EventJournal.RECORD_BYTES) {
+                assertEquals(expected, EventJournal.sessionId(records, at), "record order");
+                assertEquals(expected, EventJournal.points(records, at), "record points");
+                expected++;
+            }
+        }
+        assertEquals(11, expected, "every record read back");
+    }
+
+    /**
+     * Tests that many threads appending and committing are all recorded
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testConcurrentCommits() throws Exception {
+        int threads = 4;
+        int records = 500;
+        Thread[] writers = new Thread[threads];
+        Exception[] failure = new Exception[1];
+
+        try (EventJournal journal = new EventJournal(directory, 64 * EventJournal.RECORD_BYTES, 1)) {
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                writers[t] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < records; i++) {
+                            long sequence = journal.replace(id, 0, 0, i);
+                            if (i % 50 == 0) {
+                                journal.commit(sequence);
+                            }
+                        }
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertNull(failure[0], "no failure");
+            assertEquals(threads * records, journal.getSequence(), "sequence");
+        }
+
+        int[] next = new int[threads];
+        for (Path segment : EventJournal.segments(directory)) {
+            ByteBuffer buffer = EventJournal.read(segment);
+            for (int at = buffer.position(); at < buffer.limit(); at += EventJournal.RECORD_BYTES) {
+                int id = (int) EventJournal.sessionId(buffer, at);
+                assertEquals(next[id]++, EventJournal.points(buffer, at), "order within thread");
+            }
+        }
+        for (int t = 0; t < threads; t++) {
+            assertEquals(records, next[t], "records of thread " + t);
+        }
+    }
+
+    /**
+     * Tests that segments rolled while the commit thread is forcing leave
+     * every committed record in order
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testRollDuringCommit() throws Exception {
+        int threads = 3;
+        int records = 300;
+        Thread[] writers = new Thread[threads];
+        Exception[] failure = new Exception[1];
+
+        // Two records per segment, so appends roll while group commits are forcing
+        try (EventJournal journal = new EventJournal(directory, 3 * EventJournal.RECORD_BYTES, 1)) {
+            for (int t = 0; t < threads; t++) {
+                int id = t;
+                writers[t] = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < records; i++) {
+                            journal.commit(journal.replace(id, 0, 0, i));
+                        }
+                    } catch (Exception e) {
+                        failure[0] = e;
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertNull(failure[0], "no failure");
+        }
+
+        List<Path> segments = EventJournal.segments(directory);
+        assertEquals(threads * records / 2, segments.size(), "segments rolled");
+
+        int[] next = new int[threads];
+        for (Path segment : segments) {
+            ByteBuffer buffer = EventJournal.read(segment);
+            for (int at = buffer.position(); at < buffer.limit(); at += EventJournal.RECORD_BYTES) {
+                int id = (int) EventJournal.sessionId(buffer, at);
+                assertEquals(next[id]++, EventJournal.points(buffer, at), "order within thread");
+            }
+        }
+        for (int t = 0; t < threads; t++) {
+            assertEquals(records, next[t], "records of thread " + t);
+        }
+    }
+
+    /**
+     * Tests that a journaled game records what it deals, replaces and scores
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testVideoPoker() throws Exception {
+        VideoPoker game = new VideoPoker(3);
+        HandCategory category;
+        int[] cards = new int[Hand.CARDS_IN_HAND];
+
+        try (EventJournal journal = new EventJournal(directory)) {
+            game.setJournal(journal, 42);
+            game.newGame();
+            game.replaceCard(2);
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                cards[i] = game.getCard(i).getOrdinal();
+            }
+            category = game.score();
+            assertThrows(IllegalStateException.class, () -> game.setJournal(journal, 43),
+                         "game already started");
+            assertThrows(IllegalArgumentException.class, () -> new VideoPoker(3).setJournal(null, 1),
+                         "null journal");
+        }
+
+        ByteBuffer records = EventJournal.read(EventJournal.segments(directory).get(0));
+        int at = records.position();
+        assertEquals(EventJournal.OPEN, EventJournal.type(records, at));
+        assertEquals(((CounterRandom) new Deck(3).getRandom()).getKey(),
+                     EventJournal.key(records, at), "stream key");
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(EventJournal.DEAL, EventJournal.type(records, at));
+        assertEquals(VideoPoker.STARTING_POINTS - VideoPoker.POINTS_FOR_NEW_GAME,
+                     EventJournal.points(records, at));
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            if (i != 2) {
+                assertEquals(cards[i], EventJournal.card(records, at, i));
+            }
+        }
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(42, EventJournal.sessionId(records, at));
+        assertEquals(2, EventJournal.argument(records, at));
+        assertEquals(cards[2], EventJournal.card(records, at, 0));
+
+        at += EventJournal.RECORD_BYTES;
+        assertEquals(category.ordinal(), EventJournal.argument(records, at));
+        assertEquals(game.getPoints(), EventJournal.points(records, at));
+        assertEquals(at + EventJournal.RECORD_BYTES, records.limit(), "four records");
+    }
+
+    /**
+     * Tests exceptions
+     * @throws IOException if the test file cannot be written
+     */
+    @Test
+    public void testExceptions() throws IOException {
+        Exception e = assertThrows(IllegalArgumentException.class,
+            () -> new EventJournal(directory, EventJournal.RECORD_BYTES * 3 + 1, 1));
+        assertEquals("Invalid segment size", e.getMessage());
+
+        e = assertThrows(IllegalArgumentException.class,
+            () -> new EventJournal(directory, EventJournal.RECORD_BYTES * 4, 0));
+        assertEquals("Invalid commit interval", e.getMessage());
+
+        Path bogus = Files.write(directory.resolve("00000009.journal"), new byte[64]);
+        e = assertThrows(IllegalArgumentException.class, () -> EventJournal.read(bogus));
+        assertEquals("Invalid journal segment", e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> new EventJournal(directory));
+        assertEquals("Invalid journal segment", e.getMessage());
+        Files.delete(bogus);
+
+        EventJournal journal = new EventJournal(directory);
+        journal.close();
+        e = assertThrows(IllegalStateException.class, () -> journal.close(1, 0));
+        assertEquals("Journal closed", e.getMessage());
+    }
+}
@@ -0,0 +1,83 @@
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests GameMetrics and MetricsSnapshot classes
+ * @author Will Greene
+ */
+public class GameMetricsTest {
+
+    /**
+     * Clears the metrics
+     */
+    @BeforeEach
+    public void setUp() {
+        GameMetrics.reset();
+    }
+
+    /**
+     * Tests that recorded events show in the getters and snapshots
+     */
+    @Test
+    public void testRecord() {
+        GameMetrics.recordDeal(10);
+        GameMetrics.recordDeal(10);
+        GameMetrics.recordReplace();
+        GameMetrics.recordEvaluation();
+        GameMetrics.recordScore(HandCategory.FLUSH, 30, 100);
+        GameMetrics.recordScore(HandCategory.NO_PAIR, 0, 200);
+        GameMetrics.recordShuffle(50);
+
+        assertEquals(2, GameMetrics.getHandsDealt(), "hands dealt");
+        assertEquals(1, GameMetrics.getCardsReplaced(), "cards replaced");
+        assertEquals(20, GameMetrics.getPointsWagered(), "points wagered");
+
+        MetricsSnapshot snapshot = GameMetrics.snapshot();
+        assertEquals(1, snapshot.getHandsEvaluated(), "hands evaluated");
+        assertEquals(30, snapshot.getPointsPaid(), "points paid");
+        assertEquals(1, snapshot.getCategoryCount(HandCategory.FLUSH), "flushes");
+        assertEquals(0.5, snapshot.getHitRate(HandCategory.NO_PAIR), "no pair rate");
+        assertEquals(0, snapshot.getHitRate(HandCategory.ROYAL_FLUSH), "royal flush rate");
+        assertEquals(2, snapshot.getScoreLatency().getCount(), "scores timed");
+        assertEquals(1, snapshot.getShuffleLatency().getCount(), "shuffles timed");
+        assertTrue(snapshot.toString().contains("Flush: 1 (0.50000)"), snapshot.toString());
+
+        GameMetrics.reset();
+        assertEquals(0, GameMetrics.getHandsDealt(), "reset");
+        assertEquals(2, snapshot.getHandsDealt(), "snapshot unchanged");
+    }
+
+    /**
+     * Tests that games record metrics only when enabled
+     */
+    @Test
+    public void testGames() {
+        VideoPoker game = new VideoPoker(5);
+        game.newGame();
+        game.replaceCard(0);
+        HandCategory category = game.score();
+
+        if (GameMetrics.ENABLED) {
+            assertTrue(GameMetrics.getHandsDealt() >= 1, "hands dealt");
+            assertTrue(GameMetrics.getCategoryCount(category) >= 1, "category counted");
+        } else {
+            MetricsSnapshot snapshot = GameMetrics.snapshot();
+            assertEquals(0, snapshot.getHandsDealt(), "hands dealt");
+            assertEquals(0, snapshot.getCardsReplaced(), "cards replaced");
+            assertEquals(0, snapshot.getScoreLatency().getCount(), "scores timed");
+            assertEquals(0, snapshot.getShuffleLatency().getCount(), "shuffles timed");
+        }
+    }
+
+    /**
+     * Tests that metrics are off unless the property is set
+     */
+    @Test
+    public void testDisabledByDefault() {
+        assumeTrue(System.getProperty(GameMetrics.PROPERTY) == null);
+        assertFalse(GameMetrics.ENABLED, "disabled");
+    }
+}
@@ -0,0 +1,291 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests GameServer class
+ * @author Will Greene
+ */
+public class GameServerTest {
+
+    /** server on a free port */
+    private GameServer server;
+
+    /**
+     * Creates server for testing
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new GameServer(0, Paytable.standard());
+    }
+
+    /**
+     * Closes the server
+     */
+    @AfterEach
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    /**
+     * Tests a full game through execute()
+     */
+    @Test
+    public void testGame() {
+        String[] open = server.execute("OPEN 1").split(" ");
+        assertEquals("OK", open[0], "open");
+        assertEquals("100", open[2], "starting points");
+        String id = open[1];
+        assertEquals(1, server.getSessionCount(), "one session");
+
+        String[] dealt = server.execute("NEW " + id).split(" ");
+        assertEquals(7, dealt.length, "points and five cards");
+        assertEquals("90", dealt[1], "points after paying");
+
+        VideoPoker same = new VideoPoker(1);
+        same.newGame();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(same.getCard(i).toString(), dealt[2 + i], "card " + i);
+        }
+
+        same.replaceCard(3);
+        assertEquals("OK " + same.getCard(3), server.execute("replace " + id + " 3"), "replace");
+        HandCategory category = same.score();
+        assertEquals("OK " + category.name() + " " + Paytable.standard().payout(category) + " "
+                     + same.getPoints(), server.execute("SCORE " + id), "score");
+
+        assertEquals("OK", server.execute("CLOSE " + id), "close");
+        assertEquals(0, server.getSessionCount(), "no sessions");
+    }
+
+    /**
+     * Tests that a journaling server records every event of heap and parked sessions
+     */
+    @Test
+    public void testJournal(@TempDir Path directory) throws Exception {
+        try (EventJournal journal = new EventJournal(directory);
+             GameServer parked = new GameServer(0, Paytable.standard(),
+                                                new SessionStore(8, Paytable.standard()))) {
+            server.setJournal(journal);
+            parked.setJournal(journal);
+
+            for (GameServer s : new GameServer[] {server, parked}) {
+                String id = s.execute("OPEN 4").split(" ")[1];
+                s.execute("NEW " + id);
+                s.execute("REPLACE " + id + " 1");
+                s.execute("SCORE " + id);
+                s.execute("CLOSE " + id);
+            }
+        }
+
+        int[] types = {EventJournal.OPEN, EventJournal.DEAL, EventJournal.REPLACE,
+                       EventJournal.SCORE, EventJournal.CLOSE};
+        ByteBuffer records = EventJournal.read(EventJournal.segments(directory).get(0));
+        assertEquals(2 * types.length * EventJournal.RECORD_BYTES, records.remaining(), "records");
+
+        for (int i = 0; i < 2 * types.length; i++) {
+            int at = records.position() + i * EventJournal.RECORD_BYTES;
+            assertEquals(types[i % types.length], EventJournal.type(records, at), "type " + i);
+        }
+    }
+
+    /**
+     * Tests that sessions opened before the journal are not recorded and
+     * that a reused journal directory gets new session ids
+     */
+    @Test
+    public void testJournalLater(@TempDir Path directory) throws Exception {
+        try (GameServer parked = new GameServer(0, Paytable.standard(),
+                                                new SessionStore(8, Paytable.standard()))) {
+            String early = server.execute("OPEN 2").split(" ")[1];
+            String parkedEarly = parked.execute("OPEN 2").split(" ")[1];
+
+            try (EventJournal journal = new EventJournal(directory)) {
+                server.setJournal(journal);
+                parked.setJournal(journal);
+
+                for (GameServer s : new GameServer[] {server, parked}) {
+                    String id = s == server ? early : parkedEarly;
+                    s.execute("NEW " + id);
+                    s.execute("SCORE " + id);
+                    s.execute("CLOSE " + id);
+                }
+                String id = server.execute("OPEN 3").split(" ")[1];
+                assertEquals("2", id, "ids continue in the server");
+                server.execute("NEW " + id);
+            }
+        }
+
+        try (EventJournal journal = new EventJournal(directory);
+             GameServer restarted = new GameServer(0, Paytable.standard())) {
+            assertEquals(2, journal.getHighestSessionId(), "highest id in the journal");
+            restarted.setJournal(journal);
+            String id = restarted.execute("OPEN 3").split(" ")[1];
+            assertEquals("3", id, "ids continue after the journal");
+            restarted.execute("NEW " + id);
+            restarted.execute("SCORE " + id);
+        }
+
+        ReplayResult result = new ReplayVerifier().verify(directory);
+        assertTrue(result.isVerified(), result.toString());
+        assertEquals(2, result.getSessions(), "only sessions opened with the journal");
+    }
+
+    /**
+     * Tests that parked sessions of a later run get journal ids after the
+     * earlier run's, although the store hands out the same handles again
+     */
+    @Test
+    public void testJournalLaterStore(@TempDir Path directory) throws Exception {
+        String[] handles = new String[2];
+
+        for (int run = 0; run < 2; run++) {
+            try (EventJournal journal = new EventJournal(directory);
+                 GameServer parked = new GameServer(0, Paytable.standard(),
+                                                    new SessionStore(8, Paytable.standard()))) {
+                parked.setJournal(journal);
+                String open = parked.execute("OPEN 4").split(" ")[1];
+                String closed = parked.execute("OPEN 5").split(" ")[1];
+                if (run == 0) {
+                    handles[0] = open;
+                    handles[1] = closed;
+                } else {
+                    assertEquals(handles[0], open, "handles restart with the store");
+                    assertEquals(handles[1], closed, "handles restart with the store");
+                }
+
+                for (int game = 0; game < 2; game++) {
+                    for (String id : new String[] {open, closed}) {
+                        parked.execute("NEW " + id);
+                        parked.execute("REPLACE " + id + " " + game);
+                        parked.execute("SCORE " + id);
+                    }
+                }
+                parked.execute("CLOSE " + closed);
+                assertEquals(2 * run + 2, journal.getHighestSessionId(), "journal ids continue");
+            }
+        }
+
+        ReplayResult result = new ReplayVerifier().verify(directory);
+        assertTrue(result.isVerified(), result.toString());
+        assertEquals(4, result.getSessions(), "every run's sessions kept apart");
+    }
+
+    /**
+     * Tests that a server parking sessions in a store plays the same games
+     */
+    @Test
+    public void testStore() throws Exception {
+        try (GameServer parked = new GameServer(0, Paytable.standard(),
+                                                new SessionStore(8, Paytable.standard()))) {
+            String id = server.execute("OPEN 6").split(" ")[1];
+            String parkedId = parked.execute("OPEN 6").split(" ")[1];
+            assertEquals(1, parked.getSessionCount(), "one parked session");
+
+            for (int game = 0; game < 5; game++) {
+                assertEquals(server.execute("NEW " + id), parked.execute("NEW " + parkedId),
+                             "deal " + game);
+                assertEquals(server.execute("REPLACE " + id + " " + game),
+                             parked.execute("REPLACE " + parkedId + " " + game),
+                             "replace " + game);
+                assertEquals(server.execute("REPLACE " + id + " " + game),
+                             parked.execute("REPLACE " + parkedId + " " + game),
+                             "replace twice " + game);
+                assertEquals(server.execute("SCORE " + id), parked.execute("SCORE " + parkedId),
+                             "score " + game);
+            }
+
+            assertEquals("OK", parked.execute("CLOSE " + parkedId), "close");
+            assertEquals("ERR Unknown session", parked.execute("NEW " + parkedId),
+                         "closed session");
+            assertEquals(0, parked.getSessionCount(), "no parked sessions");
+        }
+    }
+
+    /**
+     * Tests error responses
+     */
+    @Test
+    public void testErrors() {
+        String id = server.execute("OPEN").split(" ")[1];
+        assertEquals("ERR Unknown command", server.execute("DANCE"), "unknown command");
+        assertEquals("ERR Unknown session", server.execute("NEW 999"), "unknown session");
+        assertEquals("ERR Invalid session", server.execute("NEW x"), "invalid session");
+        assertEquals("ERR Invalid request", server.execute("NEW"), "missing session");
+        assertEquals("ERR Unknown session", server.execute("CLOSE 999"), "close unknown");
+        assertEquals("ERR Invalid seed", server.execute("OPEN x"), "invalid seed");
+        assertEquals("ERR No hand dealt", server.execute("SCORE " + id), "score before deal");
+        assertEquals("ERR No hand dealt", server.execute("REPLACE " + id + " 0"),
+                     "replace before deal");
+
+        server.execute("NEW " + id);
+        assertEquals("ERR Invalid index", server.execute("REPLACE " + id + " 5"), "bad index");
+        server.execute("REPLACE " + id + " 0");
+        assertEquals("ERR Card already replaced", server.execute("REPLACE " + id + " 0"),
+                     "replace twice");
+
+        int[] payouts = new int[HandEvaluator.CATEGORIES];
+        GameServer broke = null;
+        try {
+            broke = new GameServer(0, new Paytable(payouts, 60));
+            String other = broke.execute("OPEN").split(" ")[1];
+            broke.execute("NEW " + other);
+            assertEquals("ERR Not enough points", broke.execute("NEW " + other), "out of points");
+            broke.close();
+        } catch (java.io.IOException e) {
+            fail("could not bind");
+        }
+    }
+
+    /**
+     * Tests requests over a socket, including pipelined requests
+     */
+    @Test
+    public void testSocket() throws Exception {
+        server.start();
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true)) {
+            out.println("OPEN 2");
+            String id = in.readLine().split(" ")[1];
+
+            out.print("NEW " + id + "\nREPLACE " + id + " 0\nSCORE " + id + "\n");
+            out.flush();
+            assertTrue(in.readLine().startsWith("OK 90 "), "deal");
+            assertTrue(in.readLine().startsWith("OK "), "replace");
+            assertTrue(in.readLine().startsWith("OK "), "score");
+
+            out.println("QUIT");
+            assertNull(in.readLine(), "closed after QUIT");
+        }
+
+        assertEquals(1, server.getSessionCount(), "session outlives connection");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> new GameServer(0, null), "null paytable");
+        assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+
+        server.start();
+        exception = assertThrows(IllegalStateException.class,
+            () -> server.start(), "started twice");
+        assertEquals("Already started", exception.getMessage(), "started twice message");
+    }
+}
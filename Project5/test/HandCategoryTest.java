@@ -0,0 +1,55 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests HandCategory enum
+ * @author Will Greene
+ */
+public class HandCategoryTest {
+
+    /**
+     * Tests that ordinals match the HandEvaluator categories
+     */
+    @Test
+    public void testOrdinals() {
+        assertEquals(HandEvaluator.CATEGORIES, HandCategory.values().length, "count");
+        assertEquals(HandCategory.NO_PAIR, HandCategory.of(HandEvaluator.NO_PAIR), "no pair");
+        assertEquals(HandCategory.FULL_HOUSE, HandCategory.of(HandEvaluator.FULL_HOUSE),
+                     "full house");
+        assertEquals(HandCategory.ROYAL_FLUSH, HandCategory.of(HandEvaluator.ROYAL_FLUSH),
+                     "royal flush");
+        assertEquals("Three of a Kind", HandCategory.THREE_OF_A_KIND.getDisplayName(),
+                     "display name");
+        assertEquals(VideoPoker.STRAIGHT, Paytable.standard().payout(HandCategory.STRAIGHT),
+                     "payout");
+    }
+
+    /**
+     * Tests that score() and scoreHand() agree
+     */
+    @Test
+    public void testScore() {
+        VideoPoker byCategory = new VideoPoker(3);
+        VideoPoker byName = new VideoPoker(3);
+        for (int game = 0; game < 8; game++) {
+            byCategory.newGame();
+            byName.newGame();
+            byCategory.replaceCard(game % 5);
+            byName.replaceCard(game % 5);
+            HandCategory category = byCategory.score();
+            assertEquals(byName.scoreHand(), category.getDisplayName(), "game " + game);
+            assertEquals(byName.getPoints(), byCategory.getPoints(), "points " + game);
+        }
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> HandCategory.of(HandEvaluator.CATEGORIES), "too large");
+        assertEquals("Invalid category", exception.getMessage(), "too large message");
+    }
+}
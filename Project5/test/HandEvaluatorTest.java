@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests HandEvaluator class
+ * @author Will Greene
+ */
+public class HandEvaluatorTest {
+
+    /** suits in deck order */
+    private static final char[] SUITS = {'c', 'd', 'h', 's'};
+
+    /**
+     * Returns the category the Hand predicates give, in the order scoreHand() checks them
+     * @param hand hand to classify
+     * @return hand category
+     */
+    private static int predicateCategory(Hand hand) {
+        if (hand.isRoyalFlush()) {
+            return HandEvaluator.ROYAL_FLUSH;
+        } else if (hand.isStraightFlush()) {
+            return HandEvaluator.STRAIGHT_FLUSH;
+        } else if (hand.hasFourOfAKind()) {
+            return HandEvaluator.FOUR_OF_A_KIND;
+        } else if (hand.isFullHouse()) {
+            return HandEvaluator.FULL_HOUSE;
+        } else if (hand.isFlush()) {
+            return HandEvaluator.FLUSH;
+        } else if (hand.isStraight()) {
+            return HandEvaluator.STRAIGHT;
+        } else if (hand.hasThreeOfAKind()) {
+            return HandEvaluator.THREE_OF_A_KIND;
+        } else if (hand.hasTwoPairs()) {
+            return HandEvaluator.TWO_PAIRS;
+        } else if (hand.hasOnePair()) {
+            return HandEvaluator.ONE_PAIR;
+        } else {
+            return HandEvaluator.NO_PAIR;
+        }
+    }
+
+    /**
+     * Tests that every five card hand gets the same category as the predicates
+     */
+    @Test
+    public void testAllHandsMatchPredicates() {
+        Card[] deck = new Card[Deck.CARDS_IN_DECK];
+        for (int i = 0; i < Deck.CARDS_IN_DECK; i++) {
+            deck[i] = new Card(i % 13 + Card.LOWEST_VALUE, SUITS[i / 13]);
+        }
+
+        int[] categoryCounts = new int[HandEvaluator.CATEGORIES];
+        for (int a = 0; a < 52; a++) {
+            for (int b = a + 1; b < 52; b++) {
+                for (int c = b + 1; c < 52; c++) {
+                    for (int d = c + 1; d < 52; d++) {
+                        for (int e = d + 1; e < 52; e++) {
+                            Card[] cards = {deck[a], deck[b], deck[c], deck[d], deck[e]};
+                            int category = HandEvaluator.category(HandEvaluator.evaluate(cards));
+                            categoryCounts[category]++;
+                            if (predicateCategory(new Hand(cards)) != category) {
+                                fail("category of " + java.util.Arrays.toString(cards));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // The wheel (ace to five) is not a straight in this game
+        assertEquals(1302540 + 1020, categoryCounts[HandEvaluator.NO_PAIR], "No pair");
+        assertEquals(1098240, categoryCounts[HandEvaluator.ONE_PAIR], "One pair");
+        assertEquals(123552, categoryCounts[HandEvaluator.TWO_PAIRS], "Two pairs");
+        assertEquals(54912, categoryCounts[HandEvaluator.THREE_OF_A_KIND], "Three of a kind");
+        assertEquals(9180, categoryCounts[HandEvaluator.STRAIGHT], "Straight");
+        assertEquals(5108 + 4, categoryCounts[HandEvaluator.FLUSH], "Flush");
+        assertEquals(3744, categoryCounts[HandEvaluator.FULL_HOUSE], "Full house");
+        assertEquals(624, categoryCounts[HandEvaluator.FOUR_OF_A_KIND], "Four of a kind");
+        assertEquals(32, categoryCounts[HandEvaluator.STRAIGHT_FLUSH], "Straight flush");
+        assertEquals(4, categoryCounts[HandEvaluator.ROYAL_FLUSH], "Royal flush");
+    }
+
+    /**
+     * Tests that hands within a category are ordered by strength
+     */
+    @Test
+    public void testStrength() {
+        Card[] acesUp = {new Card(14,'c'), new Card(14,'d'), new Card(3,'h'), new Card(3,'s'),
+                         new Card(2,'c')};
+        Card[] kingsUp = {new Card(13,'c'), new Card(13,'d'), new Card(12,'h'), new Card(12,'s'),
+                          new Card(14,'c')};
+        Card[] aceHigh = {new Card(14,'c'), new Card(9,'d'), new Card(7,'h'), new Card(4,'s'),
+                          new Card(3,'c')};
+        Card[] kingHigh = {new Card(13,'c'), new Card(12,'d'), new Card(11,'h'), new Card(10,'s'),
+                           new Card(8,'c')};
+        assertTrue(HandEvaluator.evaluate(acesUp) > HandEvaluator.evaluate(kingsUp),
+                   "aces up beats kings up");
+        assertTrue(HandEvaluator.evaluate(aceHigh) > HandEvaluator.evaluate(kingHigh),
+                   "ace high beats king high");
+        assertTrue(HandEvaluator.evaluate(kingsUp) > HandEvaluator.evaluate(aceHigh),
+                   "two pairs beats no pair");
+    }
+
+    /**
+     * Tests Hand.getCategory()
+     */
+    @Test
+    public void testHandCategory() {
+        Card[] cards = {new Card(10,'h'), new Card(12,'h'), new Card(13,'h'), new Card(11,'h'),
+                        new Card(14,'h')};
+        assertEquals(HandEvaluator.ROYAL_FLUSH, new Hand(cards).getCategory(), "Royal flush");
+        Card[] fullHouse = {new Card(9,'s'), new Card(9,'d'), new Card(6,'s'), new Card(9,'h'),
+                            new Card(6,'c')};
+        assertEquals(HandEvaluator.FULL_HOUSE, new Hand(fullHouse).getCategory(), "Full house");
+    }
+}
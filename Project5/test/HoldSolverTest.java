@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests HoldSolver class
+ * @author Will Greene
+ */
+public class HoldSolverTest {
+
+    /** solver using the VideoPoker payouts */
+    private HoldSolver solver;
+
+    /** dealt hand for testing: pair of jacks with four clubs */
+    private int[] cards;
+
+    /**
+     * Creates solver and hand for testing
+     */
+    @BeforeEach
+    public void setUp() {
+        solver = new HoldSolver();
+        cards = new int[] {Card.of(11, 'c').getOrdinal(), Card.of(11, 'd').getOrdinal(),
+                           Card.of(4, 'c').getOrdinal(), Card.of(8, 'c').getOrdinal(),
+                           Card.of(13, 'c').getOrdinal()};
+    }
+
+    /**
+     * Returns the payout VideoPoker gives a hand
+     * @param hand cards to score
+     * @return points paid
+     */
+    private static int payout(Card[] hand) {
+        int[] pay = {0, VideoPoker.ONE_PAIR, VideoPoker.TWO_PAIRS, VideoPoker.THREE_OF_A_KIND,
+                     VideoPoker.STRAIGHT, VideoPoker.FLUSH, VideoPoker.FULL_HOUSE,
+                     VideoPoker.FOUR_OF_A_KIND, VideoPoker.STRAIGHT_FLUSH,
+                     VideoPoker.ROYAL_FLUSH};
+        return pay[new Hand(hand).getCategory()];
+    }
+
+    /**
+     * Tests the number of draws per hold
+     */
+    @Test
+    public void testDraws() {
+        assertEquals(1, HoldSolver.draws(0b11111), "hold all");
+        assertEquals(47, HoldSolver.draws(0b01111), "draw one");
+        assertEquals(1081, HoldSolver.draws(0b00111), "draw two");
+        assertEquals(16215, HoldSolver.draws(0b00011), "draw three");
+        assertEquals(1533939, HoldSolver.draws(0), "draw five");
+    }
+
+    /**
+     * Sums the payouts of every draw into the replaced positions of a hand
+     * @param hand hand being filled, changed in place
+     * @param replaced indexes of the replaced cards
+     * @param depth number of replaced cards already drawn
+     * @param start lowest ordinal that may be drawn next
+     * @param dead cards that may not be drawn
+     * @return total payout
+     */
+    private static long bruteForce(Card[] hand, int[] replaced, int depth, int start, long dead) {
+        if (depth == replaced.length) {
+            return payout(hand);
+        }
+        long total = 0;
+        for (int ordinal = start; ordinal < Card.CARDS; ordinal++) {
+            if ((dead & (1L << ordinal)) == 0) {
+                hand[replaced[depth]] = Card.fromOrdinal(ordinal);
+                total += bruteForce(hand, replaced, depth + 1, ordinal + 1, dead);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Tests totals against scoring each draw with Hand objects
+     */
+    @Test
+    public void testTotalsMatchBruteForce() {
+        long[] totals = solver.payoutTotals(cards);
+        long dealt = 0;
+        for (int i = 0; i < cards.length; i++) {
+            dealt |= 1L << cards[i];
+        }
+
+        int[] holds = {0b11111, 0b11101, 0b11100, 0b00011, 0b10000};
+        for (int hold : holds) {
+            int[] replaced = new int[5 - Integer.bitCount(hold)];
+            int count = 0;
+            Card[] hand = new Card[5];
+            for (int i = 0; i < 5; i++) {
+                hand[i] = Card.fromOrdinal(cards[i]);
+                if ((hold & (1 << i)) == 0) {
+                    replaced[count++] = i;
+                }
+            }
+            assertEquals(bruteForce(hand, replaced, 0, 0, dealt), totals[hold],
+                         "total for hold " + hold);
+        }
+    }
+
+    /**
+     * Tests that the parallel and sequential totals agree
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+        long[] sequential = new long[HoldSolver.HOLDS];
+        solver.payoutTotals(cards, sequential);
+        assertArrayEquals(sequential, solver.payoutTotals(cards), "totals");
+    }
+
+    /**
+     * Tests the best hold
+     */
+    @Test
+    public void testBestHold() {
+        Card[] royal = {Card.of(10, 'h'), Card.of(2, 'c'), Card.of(12, 'h'), Card.of(13, 'h'),
+                        Card.of(14, 'h')};
+        assertEquals(0b11101, solver.bestHold(new Hand(royal)), "four to a royal");
+        Card[] madeRoyal = {Card.of(10, 'h'), Card.of(11, 'h'), Card.of(12, 'h'),
+                            Card.of(13, 'h'), Card.of(14, 'h')};
+        double[] values = solver.expectedValues(new Hand(madeRoyal));
+        assertEquals(VideoPoker.ROYAL_FLUSH, values[0b11111], 0, "made royal flush");
+        assertEquals(0b11111, HoldSolver.bestHold(values), "hold the royal flush");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> solver.payoutTotals(new int[] {0, 0, 1, 2, 3}), "duplicate card");
+        assertEquals("Invalid cards", exception.getMessage(), "duplicate card message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new HoldSolver(null), "null paytable");
+        assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+    }
+}
@@ -0,0 +1,225 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests HoldemEvaluator class
+ * @author Will Greene
+ */
+public class HoldemEvaluatorTest {
+
+    /**
+     * Returns the CardSet of cards written like "Ah Kd 5c"
+     * @param cards cards separated by spaces, value 2-9, T, J, Q, K or A then suit
+     * @return card set
+     */
+    private static long cards(String cards) {
+        long set = CardSet.EMPTY;
+        for (String card : cards.split(" ")) {
+            int value = "23456789TJQKA".indexOf(card.charAt(0)) + Card.LOWEST_VALUE;
+            set |= CardSet.ofOrdinal(Card.of(value, card.charAt(1)).getOrdinal());
+        }
+        return set;
+    }
+
+    /**
+     * Returns the best five card value of seven cards by trying all 21 subsets with
+     * HandEvaluator, which does not count the wheel as a straight
+     * @param set seven cards
+     * @return best HandEvaluator value
+     */
+    private static int bestOfSubsets(long set) {
+        int[] codes = new int[HoldemEvaluator.CARDS_IN_HAND];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = HandEvaluator.encode(Long.numberOfTrailingZeros(set));
+            set &= set - 1;
+        }
+
+        int best = 0;
+        for (int skip1 = 0; skip1 < codes.length; skip1++) {
+            for (int skip2 = skip1 + 1; skip2 < codes.length; skip2++) {
+                int[] five = new int[Hand.CARDS_IN_HAND];
+                int n = 0;
+                for (int i = 0; i < codes.length; i++) {
+                    if (i != skip1 && i != skip2) {
+                        five[n++] = codes[i];
+                    }
+                }
+                best = Math.max(best, HandEvaluator.evaluate(five[0], five[1], five[2], five[3],
+                                                             five[4]));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tests the category counts of every seven card hand
+     */
+    @Test
+    public void testAllHands() {
+        long[] counts = new long[HandEvaluator.CATEGORIES];
+        for (int a = 0; a < 52; a++) {
+            for (int b = a + 1; b < 52; b++) {
+                for (int c = b + 1; c < 52; c++) {
+                    long abc = 1L << a | 1L << b | 1L << c;
+                    for (int d = c + 1; d < 52; d++) {
+                        for (int e = d + 1; e < 52; e++) {
+                            long abcde = abc | 1L << d | 1L << e;
+                            for (int f = e + 1; f < 52; f++) {
+                                for (int g = f + 1; g < 52; g++) {
+                                    counts[HandEvaluator.category(
+                                        HoldemEvaluator.evaluate(abcde | 1L << f | 1L << g))]++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Texas Hold'em frequencies, counting the wheel as a straight
+        assertEquals(23294460, counts[HandEvaluator.NO_PAIR], "No pair");
+        assertEquals(58627800, counts[HandEvaluator.ONE_PAIR], "One pair");
+        assertEquals(31433400, counts[HandEvaluator.TWO_PAIRS], "Two pairs");
+        assertEquals(6461620, counts[HandEvaluator.THREE_OF_A_KIND], "Three of a kind");
+        assertEquals(6180020, counts[HandEvaluator.STRAIGHT], "Straight");
+        assertEquals(4047644, counts[HandEvaluator.FLUSH], "Flush");
+        assertEquals(3473184, counts[HandEvaluator.FULL_HOUSE], "Full house");
+        assertEquals(224848, counts[HandEvaluator.FOUR_OF_A_KIND], "Four of a kind");
+        assertEquals(37260, counts[HandEvaluator.STRAIGHT_FLUSH], "Straight flush");
+        assertEquals(4324, counts[HandEvaluator.ROYAL_FLUSH], "Royal flush");
+    }
+
+    /**
+     * Tests that random hands without the ranks of a wheel are ordered like the best of
+     * their five card subsets
+     */
+    @Test
+    public void testMatchesBestSubset() {
+        Random random = new Random(24);
+        long wheelRanks = cards("Ac 2c 3c 4c 5c");
+        int compared = 0;
+        long previous = 0;
+        while (compared < 20000) {
+            long set = CardSet.EMPTY;
+            while (CardSet.size(set) < HoldemEvaluator.CARDS_IN_HAND) {
+                set |= CardSet.ofOrdinal(random.nextInt(Card.CARDS));
+            }
+
+            // Fold the suits onto clubs to find the ranks present
+            long ranks = (set | set >>> 13 | set >>> 26 | set >>> 39) & CardSet.suitMask(Card.CLUBS);
+            if ((ranks & wheelRanks) == wheelRanks) {
+                continue;
+            }
+
+            if (previous != 0) {
+                int expected = Integer.signum(bestOfSubsets(set) - bestOfSubsets(previous));
+                int actual = Integer.signum(HoldemEvaluator.evaluate(set)
+                                            - HoldemEvaluator.evaluate(previous));
+                assertEquals(expected, actual,
+                             Long.toHexString(set) + " vs " + Long.toHexString(previous));
+                assertEquals(HandEvaluator.category(bestOfSubsets(set)),
+                             HandEvaluator.category(HoldemEvaluator.evaluate(set)), "Category");
+            }
+            previous = set;
+            compared++;
+        }
+    }
+
+    /**
+     * Tests that the wheel is the lowest straight
+     */
+    @Test
+    public void testWheel() {
+        int wheel = HoldemEvaluator.evaluate(cards("Ah 2c 3d 4s 5h 9c Jd"));
+        int sixHigh = HoldemEvaluator.evaluate(cards("Ah 2c 3d 4s 5h 6c Jd"));
+        int trips = HoldemEvaluator.evaluate(cards("Ah Ac Ad 4s 5h 9c Jd"));
+        assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.category(wheel), "Wheel");
+        assertTrue(sixHigh > wheel, "six high straight beats the wheel");
+        assertTrue(wheel > trips, "wheel beats three of a kind");
+
+        int steelWheel = HoldemEvaluator.evaluate(cards("Ah 2h 3h 4h 5h 9c Jd"));
+        int sixHighFlush = HoldemEvaluator.evaluate(cards("6h 2h 3h 4h 5h 9c Jd"));
+        assertEquals(HandEvaluator.STRAIGHT_FLUSH, HandEvaluator.category(steelWheel),
+                     "Steel wheel");
+        assertTrue(sixHighFlush > steelWheel, "six high straight flush beats the steel wheel");
+        assertEquals(HandEvaluator.ROYAL_FLUSH,
+                     HandEvaluator.category(HoldemEvaluator.evaluate(cards("Ah Kh Qh Jh Th 9h 2c"))),
+                     "Royal flush");
+    }
+
+    /**
+     * Tests kickers and hands where the board plays
+     */
+    @Test
+    public void testKickers() {
+        String board = "Ks Kd 7h 7c Qs";
+        assertEquals(HoldemEvaluator.evaluate(cards(board + " 3c 4d")),
+                     HoldemEvaluator.evaluate(cards(board + " 3h 2d")), "Board plays");
+        assertTrue(HoldemEvaluator.evaluate(cards(board + " Ac 3d"))
+                   > HoldemEvaluator.evaluate(cards(board + " Jc Td")), "Ace kicker");
+        assertEquals(HoldemEvaluator.evaluate(cards(board + " 3c 4d")),
+                     HoldemEvaluator.evaluate(cards(board + " 2c 2d")), "Third pair does not play");
+        assertTrue(HoldemEvaluator.evaluate(cards("Ks Kd Kh 7c 7s 7d 2s"))
+                   > HoldemEvaluator.evaluate(cards("Qs Qd Qh Ac As 3d 2s")), "Kings full");
+        assertTrue(HoldemEvaluator.evaluate(cards("Ah Ad As Ac 2c 3d 4s"))
+                   > HoldemEvaluator.evaluate(cards("2h 5h 7h 9h Jh Ac Ad")),
+                   "Four of a kind beats a flush");
+    }
+
+    /**
+     * Tests that the Card[] and CardSet forms agree
+     */
+    @Test
+    public void testCards() {
+        Card[] cards = {Card.of(14, 's'), Card.of(13, 's'), Card.of(12, 'd'), Card.of(11, 'c'),
+                        Card.of(10, 'h'), Card.of(2, 'c'), Card.of(2, 'd')};
+        assertEquals(HoldemEvaluator.evaluate(CardSet.of(cards)), HoldemEvaluator.evaluate(cards),
+                     "Same value");
+        assertEquals(HandEvaluator.STRAIGHT, HandEvaluator.category(HoldemEvaluator.evaluate(cards)),
+                     "Broadway");
+    }
+
+    /**
+     * Tests that rank keys add up and evaluateFolded() matches evaluate()
+     */
+    @Test
+    public void testFolded() {
+        long board = cards("9h Th 2c Jd 2s");
+        long hole = cards("Qh Ks");
+        long key = HoldemEvaluator.rankKey(board) + HoldemEvaluator.rankKey(hole);
+        assertEquals(HoldemEvaluator.rankKey(board | hole), key, "Keys add");
+        assertEquals(HoldemEvaluator.evaluate(board | hole),
+                     HoldemEvaluator.evaluateFolded(board | hole, key), "Same value");
+        assertEquals(HandEvaluator.STRAIGHT,
+                     HandEvaluator.category(HoldemEvaluator.evaluateFolded(board | hole, key)),
+                     "King high straight");
+
+        long six = cards("9h Th 2c Jd 2s Qh");
+        Exception e = assertThrows(IllegalArgumentException.class,
+            () -> HoldemEvaluator.evaluateFolded(six, HoldemEvaluator.rankKey(six)));
+        assertEquals("Invalid key", e.getMessage());
+    }
+
+    /**
+     * Tests HoldemEvaluator exceptions
+     */
+    @Test
+    public void testExceptions() {
+        assertThrows(IllegalArgumentException.class, () -> HoldemEvaluator.evaluate(0x3FL),
+                     "Invalid card count");
+        assertThrows(IllegalArgumentException.class, () -> HoldemEvaluator.evaluate((Card[]) null),
+                     "Null array");
+        assertThrows(IllegalArgumentException.class,
+            () -> HoldemEvaluator.evaluate(new Card[Hand.CARDS_IN_HAND]), "Invalid card count");
+        Card[] duplicate = {Card.of(14, 's'), Card.of(14, 's'), Card.of(12, 'd'), Card.of(11, 'c'),
+                            Card.of(10, 'h'), Card.of(2, 'c'), Card.of(2, 'd')};
+        assertThrows(IllegalArgumentException.class, () -> HoldemEvaluator.evaluate(duplicate),
+                     "Duplicate card");
+        Card[] nulls = new Card[HoldemEvaluator.CARDS_IN_HAND];
+        assertThrows(IllegalArgumentException.class, () -> HoldemEvaluator.evaluate(nulls),
+                     "Null element");
+    }
+}
@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests LatencyHistogram class
+ * @author Will Greene
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests that buckets are contiguous and bound the relative error
+     */
+    @Test
+    public void testBuckets() {
+        assertEquals(0, LatencyHistogram.bucket(0), "zero");
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE), "max");
+
+        for (int b = 1; b < LatencyHistogram.BUCKETS; b++) {
+            long low = LatencyHistogram.highestValue(b - 1) + 1;
+            long high = LatencyHistogram.highestValue(b);
+            assertEquals(b, LatencyHistogram.bucket(low), "lowest value of bucket " + b);
+            assertEquals(b, LatencyHistogram.bucket(high), "highest value of bucket " + b);
+            assertTrue(high - low <= high / LatencyHistogram.SUB_BUCKETS, "width of bucket " + b);
+        }
+    }
+
+    /**
+     * Tests percentiles, mean, max and reset
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentile(50), "empty");
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1001, snapshot.getCount(), "count");
+        assertEquals(500500.0 / 1001, snapshot.getMean(), 1e-9, "mean");
+        assertEquals(0, snapshot.getPercentile(0), "negative recorded as 0");
+        assertTrue(Math.abs(snapshot.getPercentile(50) - 500) <= 500 / LatencyHistogram.SUB_BUCKETS,
+                   "p50 " + snapshot.getPercentile(50));
+        assertTrue(Math.abs(snapshot.getPercentile(99) - 990) <= 990 / LatencyHistogram.SUB_BUCKETS,
+                   "p99 " + snapshot.getPercentile(99));
+        assertEquals(LatencyHistogram.highestValue(LatencyHistogram.bucket(1000)),
+                     snapshot.getMax(), "max");
+        assertEquals(snapshot.getMax(), snapshot.getPercentile(100), "p100");
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount(), "reset");
+        assertEquals(1001, snapshot.getCount(), "snapshot unchanged");
+
+        Exception e = assertThrows(IllegalArgumentException.class,
+            () -> snapshot.getPercentile(100.5));
+        assertEquals("Invalid percentile", e.getMessage());
+    }
+
+    /**
+     * Tests that concurrent records are all counted
+     * @throws InterruptedException if interrupted
+     */
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, histogram.snapshot().getCount(), "every record counted");
+    }
+}
@@ -0,0 +1,145 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests Paytable class
+ * @author Will Greene
+ */
+public class PaytableTest {
+
+    /**
+     * Tests that the standard paytable matches the VideoPoker constants
+     */
+    @Test
+    public void testStandard() {
+        Paytable standard = Paytable.standard();
+        assertEquals(VideoPoker.POINTS_FOR_NEW_GAME, standard.getCost(), "cost");
+        assertEquals(0, standard.payout(HandEvaluator.NO_PAIR), "no pair");
+        assertEquals(VideoPoker.ONE_PAIR, standard.payout(HandEvaluator.ONE_PAIR), "one pair");
+        assertEquals(VideoPoker.FULL_HOUSE, standard.payout(HandEvaluator.FULL_HOUSE),
+                     "full house");
+        assertEquals(VideoPoker.ROYAL_FLUSH, standard.payout(HandEvaluator.ROYAL_FLUSH),
+                     "royal flush");
+    }
+
+    /**
+     * Tests that the payouts are copied in and out
+     */
+    @Test
+    public void testDefensiveCopies() {
+        int[] payouts = Paytable.standard().toArray();
+        Paytable paytable = new Paytable(payouts, 5);
+        payouts[HandEvaluator.ROYAL_FLUSH] = 0;
+        paytable.toArray()[HandEvaluator.ROYAL_FLUSH] = 0;
+        assertEquals(VideoPoker.ROYAL_FLUSH, paytable.payout(HandEvaluator.ROYAL_FLUSH),
+                     "royal flush unchanged");
+        assertEquals(5, paytable.getCost(), "cost");
+    }
+
+    /**
+     * Tests reading properties, with missing keys keeping the standard values
+     */
+    @Test
+    public void testFromProperties() throws Exception {
+        Properties properties = new Properties();
+        properties.load(new StringReader("ROYAL_FLUSH = 250\nONE_PAIR=5\nCOST=5\n"));
+        Paytable paytable = Paytable.fromProperties(properties);
+        assertEquals(250, paytable.payout(HandEvaluator.ROYAL_FLUSH), "royal flush");
+        assertEquals(5, paytable.payout(HandEvaluator.ONE_PAIR), "one pair");
+        assertEquals(VideoPoker.FLUSH, paytable.payout(HandEvaluator.FLUSH), "flush");
+        assertEquals(5, paytable.getCost(), "cost");
+
+        assertEquals(Paytable.standard(), Paytable.fromProperties(new Properties()), "empty");
+    }
+
+    /**
+     * Tests that toString round trips through load
+     */
+    @Test
+    public void testLoad() throws Exception {
+        int[] payouts = {0, 1, 2, 3, 4, 6, 9, 25, 50, 800};
+        Paytable paytable = new Paytable(payouts, 1);
+        Path file = Files.createTempFile("paytable", ".properties");
+        try {
+            Files.writeString(file, paytable.toString());
+            assertEquals(paytable, Paytable.load(file), "round trip");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that the fingerprint follows the payouts and the cost
+     */
+    @Test
+    public void testFingerprint() {
+        int[] payouts = Paytable.standard().toArray();
+        int cost = Paytable.standard().getCost();
+        assertEquals(Paytable.standard().fingerprint(), new Paytable(payouts, cost).fingerprint(),
+                     "equal paytables");
+
+        assertNotEquals(Paytable.standard().fingerprint(),
+                        new Paytable(payouts, cost + 1).fingerprint(), "other cost");
+        for (int i = 1; i < payouts.length; i++) {
+            int[] changed = payouts.clone();
+            changed[i]++;
+            assertNotEquals(Paytable.standard().fingerprint(),
+                            new Paytable(changed, cost).fingerprint(), "other payout " + i);
+        }
+    }
+
+    /**
+     * Tests that a game scores with its own paytable
+     */
+    @Test
+    public void testVideoPokerPaytable() {
+        int[] payouts = new int[HandEvaluator.CATEGORIES];
+        java.util.Arrays.fill(payouts, 3);
+        VideoPoker custom = new VideoPoker(1, new Paytable(payouts, 2));
+        VideoPoker standard = new VideoPoker(1);
+
+        custom.newGame();
+        standard.newGame();
+        assertEquals(98, custom.getPoints(), "custom cost");
+        assertEquals(standard.scoreHand(), custom.scoreHand(), "same hand name");
+        assertEquals(101, custom.getPoints(), "custom payout");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> new Paytable(null, 10), "null array");
+        assertEquals("Null array", exception.getMessage(), "null array message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new Paytable(new int[3], 10), "short payouts");
+        assertEquals("Invalid array length", exception.getMessage(), "short payouts message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new Paytable(new int[] {0, -1, 0, 0, 0, 0, 0, 0, 0, 0}, 10), "negative payout");
+        assertEquals("Negative payout", exception.getMessage(), "negative payout message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new Paytable(new int[HandEvaluator.CATEGORIES], 0), "zero cost");
+        assertEquals("Invalid cost", exception.getMessage(), "zero cost message");
+
+        Properties properties = new Properties();
+        properties.setProperty("FLUSH", "many");
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> Paytable.fromProperties(properties), "not a number");
+        assertEquals("Invalid value for FLUSH", exception.getMessage(), "not a number message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new VideoPoker(1, null), "null paytable");
+        assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+    }
+}
@@ -0,0 +1,138 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests ReplayVerifier class
+ * @author Will Greene
+ */
+public class ReplayVerifierTest {
+
+    /** number of sessions journaled */
+    private static final int SESSIONS = 6;
+
+    /** number of games played in each session */
+    private static final int GAMES = 8;
+
+    /** directory for journal segments */
+    @TempDir
+    public Path directory;
+
+    /**
+     * Journals interleaved games of several sessions, rolling segments often.
+     * @throws Exception if the journal fails
+     */
+    private void journalGames() throws Exception {
+        try (EventJournal journal = new EventJournal(directory, 16 * EventJournal.RECORD_BYTES, 1)) {
+            VideoPoker[] games = new VideoPoker[SESSIONS];
+            for (int s = 0; s < SESSIONS; s++) {
+                games[s] = new VideoPoker(s == 0 ? VideoPoker.RANDOM_GAME : s);
+                games[s].setJournal(journal, s + 1);
+            }
+
+            for (int game = 0; game < GAMES; game++) {
+                for (int s = 0; s < SESSIONS; s++) {
+                    games[s].newGame();
+                }
+                for (int s = 0; s < SESSIONS; s++) {
+                    for (int i = 0; i < (game + s) % 4; i++) {
+                        games[s].replaceCard((i * 2 + s) % Hand.CARDS_IN_HAND);
+                    }
+                    games[s].score();
+                }
+            }
+
+            for (int s = 0; s < SESSIONS - 1; s++) {
+                journal.close(s + 1, games[s].getPoints());
+            }
+        }
+    }
+
+    /**
+     * Tests that a journal verifies with any number of shards
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testVerified() throws Exception {
+        journalGames();
+
+        for (int shards = 1; shards <= 4; shards++) {
+            ReplayResult result = new ReplayVerifier().verify(directory, shards);
+            assertTrue(result.isVerified(), "verified with " + shards + " shards: " + result);
+            assertEquals(SESSIONS, result.getSessions(), "sessions");
+            assertEquals(SESSIONS * GAMES, result.getHands(), "hands");
+            assertEquals(0, result.getSkipped(), "skipped");
+        }
+    }
+
+    /**
+     * Tests that tampered records are reported at their positions and the
+     * rest of a diverged session is skipped
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testMismatches() throws Exception {
+        journalGames();
+        Path first = EventJournal.segments(directory).get(0);
+
+        // Records 0 to 5 open the sessions and 6 to 11 deal their first hands
+        try (RandomAccessFile raf = new RandomAccessFile(first.toFile(), "rw")) {
+            raf.seek((8 + 1) * EventJournal.RECORD_BYTES + 28);
+            raf.write(new byte[] {1, 0, 0, 0});
+            raf.seek((10 + 1) * EventJournal.RECORD_BYTES + 18);
+            int card = raf.read();
+            raf.seek((10 + 1) * EventJournal.RECORD_BYTES + 18);
+            raf.write((card + 1) % Deck.CARDS_IN_DECK);
+        }
+
+        ReplayResult result = new ReplayVerifier().verify(directory, 3);
+        assertFalse(result.isVerified(), "tampered");
+        assertEquals(2, result.getMismatchCount(), "one mismatch per tampered session");
+        assertTrue(result.getSkipped() > 0, "rest of the sessions skipped");
+
+        ReplayResult.Mismatch points = result.getMismatches().get(0);
+        assertEquals(first.getFileName().toString(), points.getSegment(), "segment");
+        assertEquals(8, points.getRecord(), "record");
+        assertEquals(3, points.getSessionId(), "session");
+        assertEquals("points recorded 1 replayed 90", points.getMessage());
+
+        ReplayResult.Mismatch card = result.getMismatches().get(1);
+        assertEquals(10, card.getRecord(), "record");
+        assertEquals(5, card.getSessionId(), "session");
+        assertTrue(card.getMessage().startsWith("card 0 recorded "), card.getMessage());
+    }
+
+    /**
+     * Tests that records of a session never opened are reported
+     * @throws Exception if the journal fails
+     */
+    @Test
+    public void testUnknownSession() throws Exception {
+        try (EventJournal journal = new EventJournal(directory)) {
+            journal.score(9, 0, 0, 100);
+            journal.close(9, 100);
+        }
+
+        ReplayResult result = new ReplayVerifier().verify(directory, 2);
+        assertEquals(1, result.getMismatchCount(), "reported once");
+        assertEquals("no OPEN record", result.getMismatches().get(0).getMessage());
+        assertEquals(1, result.getSkipped(), "close skipped");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception e = assertThrows(IllegalArgumentException.class, () -> new ReplayVerifier(null));
+        assertEquals("Null paytable", e.getMessage());
+
+        e = assertThrows(IllegalArgumentException.class,
+            () -> new ReplayVerifier().verify(directory, 0));
+        assertEquals("Invalid shards", e.getMessage());
+    }
+}
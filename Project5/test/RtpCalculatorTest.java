@@ -0,0 +1,76 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests RtpCalculator class
+ * @author Will Greene
+ */
+public class RtpCalculatorTest {
+
+    /**
+     * Tests the scaled best value against the solver's expected values
+     */
+    @Test
+    public void testScaledBestValue() {
+        RtpCalculator calculator = new RtpCalculator();
+        HoldSolver solver = new HoldSolver();
+        Card[] cards = {Card.of(11, 'c'), Card.of(11, 'd'), Card.of(4, 'c'), Card.of(8, 'c'),
+                        Card.of(13, 'c')};
+        double[] values = solver.expectedValues(new Hand(cards));
+        double best = values[HoldSolver.bestHold(values)];
+        assertEquals(best * 7669695, calculator.scaledBestValue(CardSet.of(cards)), 1e-3,
+                     "scaled best value");
+    }
+
+    /**
+     * Tests the return over a few classes matches their weighted expected values
+     */
+    @Test
+    public void testExactReturn() {
+        long[] classes = SuitCanonicalizer.classes(Hand.CARDS_IN_HAND);
+        long[] sample = {classes[0], classes[1000], classes[50000], classes[134458]};
+        HoldSolver solver = new HoldSolver();
+
+        double weighted = 0;
+        long deals = 0;
+        for (long set : sample) {
+            int[] cards = new int[Hand.CARDS_IN_HAND];
+            long rest = set;
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                cards[i] = Long.numberOfTrailingZeros(rest);
+                rest &= rest - 1;
+            }
+            double[] values = solver.expectedValues(cards);
+            weighted += SuitCanonicalizer.weight(set) * values[HoldSolver.bestHold(values)];
+            deals += SuitCanonicalizer.weight(set);
+        }
+
+        long[] exact = new RtpCalculator().exactReturn(sample);
+        assertEquals(weighted / deals / VideoPoker.POINTS_FOR_NEW_GAME,
+                     (double) exact[0] / exact[1], 1e-12, "return of sample");
+    }
+
+    /**
+     * Tests that a paytable paying the cost on every hand returns exactly one
+     */
+    @Test
+    public void testFlatPaytable() {
+        int[] flat = new int[HandEvaluator.CATEGORIES];
+        java.util.Arrays.fill(flat, 5);
+        long[] classes = SuitCanonicalizer.classes(Hand.CARDS_IN_HAND);
+        long[] exact = new RtpCalculator(new Paytable(flat, 5)).exactReturn(
+            java.util.Arrays.copyOfRange(classes, 0, 3));
+        assertArrayEquals(new long[] {1, 1}, exact, "flat paytable");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> new RtpCalculator(null), "null paytable");
+        assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+    }
+}
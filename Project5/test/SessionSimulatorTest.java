@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SessionSimulator class
+ * @author Will Greene
+ */
+public class SessionSimulatorTest {
+
+    /**
+     * Tests that counters are consistent with each other
+     */
+    @Test
+    public void testCounters() {
+        SimulationResult result = new SessionSimulator(new SimpleHoldStrategy())
+            .simulate(10000, 50, 42);
+        assertEquals(10000, result.getSessions(), "sessions");
+        long hands = 0;
+        for (int category = 0; category < HandEvaluator.CATEGORIES; category++) {
+            hands += result.getCategoryCount(category);
+        }
+        assertEquals(result.getGames(), hands, "one scored hand per game");
+        assertEquals(result.getGames() * VideoPoker.POINTS_FOR_NEW_GAME,
+                     result.getPointsWagered(), "points wagered");
+        assertEquals(result.getSessions() * VideoPoker.STARTING_POINTS
+                     - result.getPointsWagered() + result.getPointsWon(),
+                     result.getFinalPoints(), "final points");
+        assertTrue(result.getGames() <= 10000 * 50, "game limit");
+    }
+
+    /**
+     * Tests that the same seed gives the same result
+     */
+    @Test
+    public void testSeeded() {
+        SessionSimulator simulator = new SessionSimulator(new SimpleHoldStrategy());
+        assertEquals(simulator.simulate(20000, 20, 7).toString(),
+                     simulator.simulate(20000, 20, 7).toString(), "same seed");
+        assertNotEquals(simulator.simulate(20000, 20, 7).toString(),
+                        simulator.simulate(20000, 20, 8).toString(), "different seed");
+    }
+
+    /**
+     * Tests the simple hold strategy
+     */
+    @Test
+    public void testSimpleHoldStrategy() {
+        HoldStrategy strategy = new SimpleHoldStrategy();
+        int[] pair = {Card.of(9, 'c').getOrdinal(), Card.of(2, 'd').getOrdinal(),
+                      Card.of(9, 'h').getOrdinal(), Card.of(5, 's').getOrdinal(),
+                      Card.of(13, 'c').getOrdinal()};
+        assertEquals(0b00101, strategy.chooseHold(pair), "keep the pair");
+        int[] flushDraw = {Card.of(9, 'c').getOrdinal(), Card.of(2, 'c').getOrdinal(),
+                           Card.of(10, 'h').getOrdinal(), Card.of(5, 'c').getOrdinal(),
+                           Card.of(13, 'c').getOrdinal()};
+        assertEquals(0b11011, strategy.chooseHold(flushDraw), "keep four to a flush");
+        int[] straight = {Card.of(9, 'c').getOrdinal(), Card.of(10, 'd').getOrdinal(),
+                          Card.of(11, 'h').getOrdinal(), Card.of(12, 's').getOrdinal(),
+                          Card.of(13, 'c').getOrdinal()};
+        assertEquals(0b11111, strategy.chooseHold(straight), "keep the straight");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> new SessionSimulator(null), "null strategy");
+        assertEquals("Null strategy", exception.getMessage(), "null strategy message");
+    }
+}
@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SessionStore class
+ * @author Will Greene
+ */
+public class SessionStoreTest {
+
+    /** store for testing */
+    private SessionStore store;
+
+    /**
+     * Creates store for testing
+     */
+    @BeforeEach
+    public void setUp() {
+        store = new SessionStore(4, Paytable.standard());
+    }
+
+    /**
+     * Tests that a parked game continues exactly like the original
+     */
+    @Test
+    public void testSaveAndLoad() {
+        VideoPoker original = new VideoPoker(11);
+        VideoPoker twin = new VideoPoker(11);
+        long handle = store.allocate();
+        store.save(handle, twin, 0);
+        assertFalse(store.load(handle).hasHand(), "no hand before first game");
+
+        for (int game = 0; game < 6; game++) {
+            original.newGame();
+            twin = store.load(handle);
+            twin.newGame();
+            store.save(handle, twin, game);
+
+            for (int i = 0; i < game % 3; i++) {
+                original.replaceCard(i);
+                twin = store.load(handle);
+                twin.replaceCard(i);
+                store.save(handle, twin, game);
+            }
+
+            twin = store.load(handle);
+            for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+                assertEquals(original.getCard(i), twin.getCard(i), "game " + game + " card " + i);
+            }
+            assertEquals(original.score(), twin.score(), "category " + game);
+            store.save(handle, twin, game);
+            assertEquals(original.getPoints(), store.getPoints(handle), "points " + game);
+            assertEquals(game, store.getState(handle), "state " + game);
+            assertEquals(original.getDeck(), twin.getDeck(), "deck " + game);
+        }
+    }
+
+    /**
+     * Tests allocating and freeing slots
+     */
+    @Test
+    public void testHandles() {
+        long first = store.allocate();
+        assertNotEquals(0, first, "handle is not 0");
+        assertTrue(store.contains(first), "allocated");
+        assertEquals(1, store.size(), "one session");
+
+        store.free(first);
+        assertFalse(store.contains(first), "freed");
+        long reused = store.allocate();
+        assertEquals((int) first, (int) reused, "slot reused");
+        assertNotEquals(first, reused, "new generation");
+        assertFalse(store.contains(first), "old handle stays invalid");
+
+        for (int i = 1; i < store.getCapacity(); i++) {
+            store.allocate();
+        }
+        assertEquals(4, store.size(), "full");
+        assertFalse(store.contains(-1), "negative slot");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> new SessionStore(0, Paytable.standard()), "zero capacity");
+        assertEquals("Invalid capacity", exception.getMessage(), "zero capacity message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> new SessionStore(4, null), "null paytable");
+        assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+
+        long handle = store.allocate();
+        store.free(handle);
+        exception = assertThrows(IllegalStateException.class,
+            () -> store.load(handle), "freed session");
+        assertEquals("Unknown session", exception.getMessage(), "freed session message");
+
+        long other = store.allocate();
+        VideoPoker game = new VideoPoker(new Deck(new java.util.SplittableRandom(1)),
+                                         Paytable.standard(), 100, null);
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> store.save(other, game, 0), "unsupported generator");
+        assertEquals("Unsupported generator", exception.getMessage(),
+                     "unsupported generator message");
+
+        for (int i = 1; i < store.getCapacity(); i++) {
+            store.allocate();
+        }
+        exception = assertThrows(IllegalStateException.class,
+            () -> store.allocate(), "store full");
+        assertEquals("Store full", exception.getMessage(), "store full message");
+    }
+}
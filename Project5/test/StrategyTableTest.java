@@ -0,0 +1,152 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests StrategyTable class
+ * @author Will Greene
+ */
+public class StrategyTableTest {
+
+    /** suits in deck order */
+    private static final char[] SUITS = {'c', 'd', 'h', 's'};
+
+    /**
+     * Returns the hand with each suit replaced by the next suit
+     * @param hand hand to change
+     * @return hand with rotated suits
+     */
+    private static Hand rotateSuits(Hand hand) {
+        Card[] cards = new Card[Hand.CARDS_IN_HAND];
+        for (int i = 0; i < Hand.CARDS_IN_HAND; i++) {
+            Card card = hand.getCard(i);
+            cards[i] = Card.of(card.getValue(), SUITS[(Card.suitIndex(card.getSuit()) + 1) % 4]);
+        }
+        return new Hand(cards);
+    }
+
+    /**
+     * Tests lookups match the solver for dealt hands and their suit permutations
+     * @throws Exception if the table cannot be written or read
+     */
+    @Test
+    public void testBestHold() throws Exception {
+        HoldSolver solver = new HoldSolver();
+        Deck deck = new Deck(7);
+        Hand[] hands = new Hand[8];
+        long[] classes = new long[hands.length];
+        for (int i = 0; i < hands.length; i++) {
+            deck.shuffle();
+            Card[] cards = new Card[Hand.CARDS_IN_HAND];
+            for (int j = 0; j < Hand.CARDS_IN_HAND; j++) {
+                cards[j] = deck.nextCard();
+            }
+            hands[i] = new Hand(cards);
+            classes[i] = SuitCanonicalizer.canonicalize(hands[i]);
+        }
+        classes = java.util.Arrays.stream(classes).distinct().sorted().toArray();
+
+        Path file = Files.createTempFile("strategy", ".bin");
+        try {
+            StrategyTable.write(file, solver, classes);
+            StrategyTable table = new StrategyTable(file);
+            assertEquals(classes.length, table.getClasses(), "classes");
+
+            for (Hand hand : hands) {
+                Hand[] variants = {hand, rotateSuits(hand), rotateSuits(rotateSuits(hand))};
+                for (Hand variant : variants) {
+                    double[] values = solver.expectedValues(variant);
+                    double best = values[HoldSolver.bestHold(values)];
+                    assertEquals(best, values[table.bestHold(variant)], 1e-9,
+                                 "best hold of " + variant);
+                    assertEquals(best, table.expectedValue(variant), 1e-4,
+                                 "expected value of " + variant);
+                }
+            }
+
+            Card[] royal = {Card.of(10, 'h'), Card.of(11, 'h'), Card.of(12, 'h'),
+                            Card.of(13, 'h'), Card.of(14, 'h')};
+            Exception exception = assertThrows(IllegalStateException.class,
+                () -> table.bestHold(new Hand(royal)), "missing class");
+            assertEquals("Hand not in table", exception.getMessage(), "missing class message");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a table only opens for the paytable it was solved for
+     * @throws Exception if the table cannot be written or read
+     */
+    @Test
+    public void testPaytable() throws Exception {
+        int[] payouts = Paytable.standard().toArray();
+        payouts[HandEvaluator.FLUSH] = 6;
+        Paytable paytable = new Paytable(payouts, Paytable.standard().getCost());
+        long[] classes = {SuitCanonicalizer.canonicalize(new Hand(new Card[] {
+            Card.of(2, 'c'), Card.of(7, 'c'), Card.of(9, 'c'), Card.of(11, 'c'), Card.of(13, 'd')}))};
+
+        Path file = Files.createTempFile("strategy", ".bin");
+        try {
+            StrategyTable.write(file, new HoldSolver(paytable), classes);
+            assertEquals(1, new StrategyTable(file, paytable).getClasses(), "same paytable");
+
+            Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new StrategyTable(file), "standard paytable");
+            assertEquals("Strategy table for another paytable", exception.getMessage(),
+                         "standard paytable message");
+
+            exception = assertThrows(IllegalArgumentException.class,
+                () -> new StrategyTable(file, null), "null paytable");
+            assertEquals("Null paytable", exception.getMessage(), "null paytable message");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests that a damaged table without an empty slot fails instead of hanging
+     * @throws Exception if the table cannot be written or read
+     */
+    @Test
+    public void testDamaged() throws Exception {
+        long[] classes = {SuitCanonicalizer.canonicalize(new Hand(new Card[] {
+            Card.of(2, 'c'), Card.of(7, 'c'), Card.of(9, 'c'), Card.of(11, 'c'), Card.of(13, 'd')}))};
+
+        Path file = Files.createTempFile("strategy", ".bin");
+        try {
+            StrategyTable.write(file, new HoldSolver(), classes);
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            int slots = bytes.getInt(8);
+
+            // Every empty slot gets a key no hand has, with the class count left alone
+            for (int slot = 0; slot < slots; slot++) {
+                int offset = 24 + slot * 16;
+                if (bytes.getLong(offset) == 0) {
+                    bytes.putLong(offset, -1L);
+                }
+            }
+            Files.write(file, bytes.array());
+            StrategyTable table = new StrategyTable(file);
+            Card[] royal = {Card.of(10, 'h'), Card.of(11, 'h'), Card.of(12, 'h'),
+                            Card.of(13, 'h'), Card.of(14, 'h')};
+            Exception exception = assertThrows(IllegalStateException.class,
+                () -> table.bestHold(new Hand(royal)), "full table");
+            assertEquals("Hand not in table", exception.getMessage(), "full table message");
+
+            bytes.putInt(12, slots);
+            Files.write(file, bytes.array());
+            exception = assertThrows(IllegalArgumentException.class,
+                () -> new StrategyTable(file), "class count filling every slot");
+            assertEquals("Invalid strategy table", exception.getMessage(),
+                         "class count filling every slot message");
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SuitCanonicalizer class
+ * @author Will Greene
+ */
+public class SuitCanonicalizerTest {
+
+    /**
+     * Tests that hands differing by suit permutation share a canonical set
+     */
+    @Test
+    public void testCanonicalize() {
+        Card[] first = {Card.of(2, 'c'), Card.of(3, 'd'), Card.of(4, 's'), Card.of(5, 'h'),
+                        Card.of(6, 'c')};
+        Card[] second = {Card.of(2, 'h'), Card.of(3, 's'), Card.of(4, 'd'), Card.of(5, 'c'),
+                         Card.of(6, 'h')};
+        Card[] different = {Card.of(2, 'h'), Card.of(3, 'h'), Card.of(4, 'd'), Card.of(5, 'c'),
+                            Card.of(6, 'h')};
+        long canonical = SuitCanonicalizer.canonicalize(new Hand(first));
+        assertEquals(canonical, SuitCanonicalizer.canonicalize(new Hand(second)), "same class");
+        assertNotEquals(canonical, SuitCanonicalizer.canonicalize(new Hand(different)),
+                        "different class");
+        assertTrue(SuitCanonicalizer.isCanonical(canonical), "canonical is canonical");
+        assertEquals(CardSet.size(new Hand(first).toCardSet()), CardSet.size(canonical), "size");
+    }
+
+    /**
+     * Tests canonicalizing a held subset
+     */
+    @Test
+    public void testCanonicalizeHold() {
+        Card[] cards = {Card.of(14, 's'), Card.of(3, 'd'), Card.of(14, 'h'), Card.of(5, 'h'),
+                        Card.of(6, 'c')};
+        long held = SuitCanonicalizer.canonicalize(new Hand(cards), 0b00101);
+        assertEquals(CardSet.of(Card.of(14, 'c'), Card.of(14, 'd')), held, "pair of aces");
+        assertEquals(6, SuitCanonicalizer.weight(held), "six pairs of aces");
+    }
+
+    /**
+     * Tests class counts, weights and dense indexes for each size
+     */
+    @Test
+    public void testClasses() {
+        int[] expected = {1, 13, 169, 1755, 16432, 134459};
+        long[] sets = {1, 52, 1326, 22100, 270725, 2598960};
+        for (int size = 0; size <= SuitCanonicalizer.MAX_INDEXED_SIZE; size++) {
+            long[] classes = SuitCanonicalizer.classes(size);
+            assertEquals(expected[size], classes.length, "classes of size " + size);
+            long total = 0;
+            for (int i = 0; i < classes.length; i++) {
+                total += SuitCanonicalizer.weight(classes[i]);
+                if (i % 97 == 0) {
+                    assertEquals(i, SuitCanonicalizer.index(classes[i]), "index " + i);
+                }
+            }
+            assertEquals(sets[size], total, "sets of size " + size);
+        }
+        Card[] cards = {Card.of(9, 'd'), Card.of(9, 's')};
+        long pair = CardSet.of(cards);
+        assertEquals(SuitCanonicalizer.index(SuitCanonicalizer.canonicalize(pair)),
+                     SuitCanonicalizer.classIndex(pair), "classIndex");
+    }
+
+    /**
+     * Tests exceptions
+     */
+    @Test
+    public void testExceptions() {
+        Exception exception = assertThrows(IllegalArgumentException.class,
+            () -> SuitCanonicalizer.classes(6), "classes of six cards");
+        assertEquals("Invalid size", exception.getMessage(), "classes of six cards message");
+
+        exception = assertThrows(IllegalArgumentException.class,
+            () -> SuitCanonicalizer.index(CardSet.of(Card.of(2, 's'))), "not canonical");
+        assertEquals("Not a canonical set", exception.getMessage(), "not canonical message");
+    }
+}
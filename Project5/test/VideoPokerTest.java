@@ -60,4 +60,180 @@ public class VideoPokerTest {
         assertEquals(90, vp.getPoints(), "Initial game");
     }
 
+    /**
+     * Test that scoring leaves the hand sorted by value
+     */
+    @Test
+    public void testScoreSortsHand() {
+        vp.newGame();
+        vp.score();
+        for (int i = 1; i < VideoPoker.CARDS_IN_HAND; i++) {
+            assertTrue(vp.getCard(i - 1).compareTo(vp.getCard(i)) <= 0, "Sorted at " + i);
+        }
+    }
+
+    /**
+     * Test that multi-hand play copies the held cards into every hand and
+     * draws each hand's replacements from the cards not held
+     */
+    @Test
+    public void testMultiHand() {
+        VideoPoker single = new VideoPoker(1);
+        vp.setHandCount(10);
+        assertEquals(10, vp.getHandCount(), "hand count");
+
+        vp.newGame();
+        single.newGame();
+        assertEquals(0, vp.getPoints(), "one game paid per hand");
+
+        int hold = 0b01011;
+        long discarded = 0;
+        for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+            if ((hold & (1 << i)) == 0) {
+                discarded |= 1L << vp.getCard(i).getOrdinal();
+            }
+        }
+        int payout = vp.drawHands(hold);
+        for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+            if ((hold & (1 << i)) == 0) {
+                single.replaceCard(i);
+            }
+        }
+        Card[] drawn = new Card[VideoPoker.CARDS_IN_HAND];
+        for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+            drawn[i] = single.getCard(i);
+        }
+        single.score();
+
+        int total = 0;
+        for (int h = 0; h < vp.getHandCount(); h++) {
+            Card[] cards = new Card[VideoPoker.CARDS_IN_HAND];
+            long seen = 0;
+            for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                cards[i] = vp.getCard(h, i);
+                seen |= 1L << cards[i].getOrdinal();
+                if (h == 0) {
+                    assertEquals(single.getCard(i), cards[i], "hand " + h + " card " + i);
+                } else if ((hold & (1 << i)) != 0) {
+                    assertEquals(drawn[i], cards[i], "hand " + h + " card " + i);
+                }
+            }
+            assertEquals(VideoPoker.CARDS_IN_HAND, Long.bitCount(seen), "no repeated card in hand " + h);
+            assertEquals(0, seen & discarded, "no discarded card in hand " + h);
+
+            HandCategory category = HandCategory.of(new Hand(cards).getCategory());
+            assertEquals(category, vp.getCategory(h), "category of hand " + h);
+            total += Paytable.standard().payout(category);
+        }
+
+        assertEquals(total, payout, "payout of every hand");
+        assertEquals(total, vp.getPoints(), "points");
+        assertEquals(single.getPoints() - VideoPoker.STARTING_POINTS + VideoPoker.POINTS_FOR_NEW_GAME,
+                     Paytable.standard().payout(vp.getCategory(0)), "base hand payout");
+    }
+
+    /**
+     * Test that a card the base hand drew before drawHands() is not dealt
+     * again to the extra hands
+     */
+    @Test
+    public void testMultiHandAfterReplace() {
+        for (int seed = 0; seed < 200; seed++) {
+            VideoPoker game = new VideoPoker(seed);
+            game.setHandCount(VideoPoker.MAX_HANDS);
+            game.newGame();
+            long base = CardSet.EMPTY;
+            for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                base |= CardSet.ofOrdinal(game.getCard(i).getOrdinal());
+            }
+            game.replaceCard(0);
+            Card kept = game.getCard(0);
+            game.drawHands(0b00001);
+            for (int i = 1; i < VideoPoker.CARDS_IN_HAND; i++) {
+                base |= CardSet.ofOrdinal(game.getCard(i).getOrdinal());
+            }
+
+            for (int h = 1; h < VideoPoker.MAX_HANDS; h++) {
+                long seen = CardSet.EMPTY;
+                for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                    seen |= CardSet.ofOrdinal(game.getCard(h, i).getOrdinal());
+                }
+                assertEquals(VideoPoker.CARDS_IN_HAND, CardSet.size(seen),
+                             "no repeated card, seed " + seed + " hand " + h);
+                assertEquals(CardSet.ofOrdinal(kept.getOrdinal()),
+                             seen & (base | CardSet.ofOrdinal(kept.getOrdinal())),
+                             "only the held card from the base hand, seed " + seed + " hand " + h);
+            }
+        }
+    }
+
+    /**
+     * Test that dealing extra hands never draws from the deck's stream when
+     * the deck's generator is not a CounterRandom
+     */
+    @Test
+    public void testMultiHandOtherGenerator() {
+        VideoPoker single = new VideoPoker(new Deck(new java.util.SplittableRandom(9)),
+                                           Paytable.standard(), VideoPoker.STARTING_POINTS, null);
+        VideoPoker multi = new VideoPoker(new Deck(new java.util.SplittableRandom(9)),
+                                          Paytable.standard(), VideoPoker.STARTING_POINTS, null);
+        multi.setHandCount(3);
+
+        for (int game = 0; game < 3; game++) {
+            single.newGame();
+            multi.newGame();
+            single.replaceCard(1);
+            single.score();
+            multi.drawHands(0b11101);
+            for (int i = 0; i < VideoPoker.CARDS_IN_HAND; i++) {
+                assertEquals(single.getCard(i), multi.getCard(i), "game " + game + " card " + i);
+            }
+        }
+    }
+
+    /**
+     * Test multi-hand exceptions
+     */
+    @Test
+    public void testMultiHandExceptions() {
+        Exception e = assertThrows(IllegalArgumentException.class,
+            () -> vp.setHandCount(VideoPoker.MAX_HANDS + 1));
+        assertEquals("Invalid hand count", e.getMessage());
+
+        e = assertThrows(IllegalStateException.class, () -> vp.drawHands(0));
+        assertEquals("No hand dealt", e.getMessage());
+
+        vp.setHandCount(3);
+        vp.newGame();
+        e = assertThrows(IllegalArgumentException.class, () -> vp.drawHands(32));
+        assertEquals("Invalid hold", e.getMessage());
+        e = assertThrows(IllegalStateException.class, () -> vp.getCard(1, 0));
+        assertEquals("Hands not drawn", e.getMessage());
+        vp.drawHands(31);
+        e = assertThrows(IllegalArgumentException.class, () -> vp.getCategory(3));
+        assertEquals("Invalid hand", e.getMessage());
+    }
+
+    /**
+     * Test that changing the hand count during a hand waits for the next game
+     */
+    @Test
+    public void testHandCountMidHand() {
+        vp.newGame();
+        vp.setHandCount(VideoPoker.MAX_HANDS);
+        int payout = vp.drawHands(0b11111);
+        assertEquals(VideoPoker.STARTING_POINTS - VideoPoker.POINTS_FOR_NEW_GAME + payout,
+                     vp.getPoints(), "one hand paid");
+        Exception e = assertThrows(IllegalArgumentException.class, () -> vp.getCard(1, 0));
+        assertEquals("Invalid hand", e.getMessage());
+
+        vp.setHandCount(2);
+        int before = vp.getPoints();
+        vp.newGame();
+        assertEquals(before - 2 * VideoPoker.POINTS_FOR_NEW_GAME, vp.getPoints(), "two games paid");
+        vp.setHandCount(1);
+        vp.drawHands(0b11111);
+        assertEquals(vp.getCategory(0), vp.getCategory(1), "second hand drawn");
+    }
+
 }
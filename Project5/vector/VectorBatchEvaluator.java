@@ -0,0 +1,103 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch evaluator classifying as many hands at once as the CPU has int
+ * vector lanes (8 with AVX2, 16 with AVX-512), using the incubating
+ * Vector API.
+ *
+ * Each lane holds one hand. The ten rank comparisons, the suit
+ * comparisons and the rank spread are computed for all lanes together and
+ * the category is chosen by blending constants under masks, so there is
+ * no branch per hand. Hands left over after the last full vector are
+ * classified by ScalarBatchEvaluator, which computes the same thing.
+ *
+ * Kept out of src so the default build does not need the incubator
+ * module. Compile it into bin after src and run with the module added,
+ * which prints a warning that incubator modules are in use:
+ * javac --add-modules jdk.incubator.vector -cp bin -d bin vector/*.java
+ * java --add-modules jdk.incubator.vector -cp bin ...
+ * Create it through BatchEvaluator.create(), which falls back to the
+ * scalar evaluator when this class or the module is missing.
+ *
+ * @author Will Greene
+ */
+public class VectorBatchEvaluator implements BatchEvaluator {
+
+    /** Widest int vector shape the CPU runs natively */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    /** Vector of ones, added to a lane's pair count under a mask */
+    private static final IntVector ONE = IntVector.broadcast(SPECIES, 1);
+
+    /** Vector of zeros */
+    private static final IntVector ZERO = IntVector.zero(SPECIES);
+
+
+    /**
+     * Returns the number of hands classified per vector.
+     *
+     * @return vector lanes
+     */
+    public int lanes() {
+        return SPECIES.length();
+    }
+
+
+    /**
+     * Sets the category of every hand in a batch.
+     *
+     * @param batch hands to classify
+     */
+    public void evaluate(HandBatch batch) {
+        int capacity = batch.getCapacity();
+        int size = batch.size();
+        int[] ranks = batch.ranks;
+        int[] suits = batch.suits;
+        int h = 0;
+
+        for (; h < SPECIES.loopBound(size); h += SPECIES.length()) {
+            IntVector r0 = IntVector.fromArray(SPECIES, ranks, h);
+            IntVector r1 = IntVector.fromArray(SPECIES, ranks, capacity + h);
+            IntVector r2 = IntVector.fromArray(SPECIES, ranks, 2 * capacity + h);
+            IntVector r3 = IntVector.fromArray(SPECIES, ranks, 3 * capacity + h);
+            IntVector r4 = IntVector.fromArray(SPECIES, ranks, 4 * capacity + h);
+            IntVector s0 = IntVector.fromArray(SPECIES, suits, h);
+
+            VectorMask<Integer> flush = s0.eq(IntVector.fromArray(SPECIES, suits, capacity + h))
+                .and(s0.eq(IntVector.fromArray(SPECIES, suits, 2 * capacity + h)))
+                .and(s0.eq(IntVector.fromArray(SPECIES, suits, 3 * capacity + h)))
+                .and(s0.eq(IntVector.fromArray(SPECIES, suits, 4 * capacity + h)));
+
+            IntVector pairs = ZERO.add(ONE, r0.eq(r1)).add(ONE, r0.eq(r2)).add(ONE, r0.eq(r3))
+                .add(ONE, r0.eq(r4)).add(ONE, r1.eq(r2)).add(ONE, r1.eq(r3)).add(ONE, r1.eq(r4))
+                .add(ONE, r2.eq(r3)).add(ONE, r2.eq(r4)).add(ONE, r3.eq(r4));
+
+            IntVector max = r0.max(r1).max(r2).max(r3).max(r4);
+            IntVector min = r0.min(r1).min(r2).min(r3).min(r4);
+            VectorMask<Integer> straight = pairs.eq(0)
+                .and(max.sub(min).eq(Hand.CARDS_IN_HAND - 1));
+            VectorMask<Integer> straightFlush = straight.and(flush);
+
+            // Pair counts 0, 1 and 2 are already NO_PAIR, ONE_PAIR and TWO_PAIRS
+            IntVector category = pairs
+                .blend(HandEvaluator.THREE_OF_A_KIND, pairs.eq(3))
+                .blend(HandEvaluator.STRAIGHT, straight)
+                .blend(HandEvaluator.FLUSH, flush)
+                .blend(HandEvaluator.FULL_HOUSE, pairs.eq(4))
+                .blend(HandEvaluator.FOUR_OF_A_KIND, pairs.eq(6))
+                .blend(HandEvaluator.STRAIGHT_FLUSH, straightFlush)
+                .blend(HandEvaluator.ROYAL_FLUSH, straightFlush.and(max.eq(Card.HIGHEST_VALUE)));
+
+            category.intoArray(batch.categories, h);
+        }
+
+        for (; h < size; h++) {
+            batch.categories[h] = ScalarBatchEvaluator.category(
+                ranks[h], ranks[capacity + h], ranks[2 * capacity + h], ranks[3 * capacity + h],
+                ranks[4 * capacity + h], suits[h], suits[capacity + h], suits[2 * capacity + h],
+                suits[3 * capacity + h], suits[4 * capacity + h]);
+        }
+    }
+}